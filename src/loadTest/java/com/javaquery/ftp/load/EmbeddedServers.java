@@ -0,0 +1,170 @@
+package com.javaquery.ftp.load;
+
+import com.javaquery.ftp.Credentials;
+import com.javaquery.ftp.FTPType;
+import org.apache.ftpserver.ConnectionConfigFactory;
+import org.apache.ftpserver.FtpServer;
+import org.apache.ftpserver.FtpServerFactory;
+import org.apache.ftpserver.ftplet.Authority;
+import org.apache.ftpserver.ftplet.FtpException;
+import org.apache.ftpserver.listener.ListenerFactory;
+import org.apache.ftpserver.ssl.SslConfigurationFactory;
+import org.apache.ftpserver.usermanager.impl.BaseUser;
+import org.apache.ftpserver.usermanager.impl.WritePermission;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process FTP, explicit FTPS and SFTP servers sharing one root directory. FTP and FTPS run on Apache
+ * FtpServer, FTPS with a self-signed certificate generated by {@code keytool}, SFTP runs on Apache MINA SSHD.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class EmbeddedServers implements AutoCloseable {
+
+    public static final String USERNAME = "load";
+    public static final String PASSWORD = "load";
+    private static final String KEYSTORE_PASSWORD = "changeit";
+
+    private final Path rootDirectory;
+    private FtpServer ftpServer;
+    private int ftpPort;
+    private int ftpsPort;
+    private SshServer sshServer;
+
+    private EmbeddedServers(Path rootDirectory) {
+        this.rootDirectory = rootDirectory;
+    }
+
+    /**
+     * @param maxLogins connections each server accepts at the same time
+     */
+    public static EmbeddedServers start(Path rootDirectory, int maxLogins) throws IOException, FtpException, InterruptedException {
+        EmbeddedServers servers = new EmbeddedServers(rootDirectory);
+        try {
+            servers.startFtpServer(maxLogins);
+            servers.startSshServer();
+        } catch (IOException | FtpException | InterruptedException | RuntimeException e) {
+            servers.close();
+            throw e;
+        }
+        return servers;
+    }
+
+    private void startFtpServer(int maxLogins) throws IOException, FtpException, InterruptedException {
+        FtpServerFactory serverFactory = new FtpServerFactory();
+        ConnectionConfigFactory connectionConfig = new ConnectionConfigFactory();
+        connectionConfig.setMaxLogins(maxLogins);
+        connectionConfig.setMaxThreads(maxLogins);
+        connectionConfig.setAnonymousLoginEnabled(false);
+        serverFactory.setConnectionConfig(connectionConfig.createConnectionConfig());
+
+        BaseUser user = new BaseUser();
+        user.setName(USERNAME);
+        user.setPassword(PASSWORD);
+        user.setHomeDirectory(rootDirectory.toString());
+        user.setAuthorities(Collections.<Authority>singletonList(new WritePermission()));
+        user.setMaxIdleTime(0);
+        serverFactory.getUserManager().save(user);
+
+        ListenerFactory ftpListener = new ListenerFactory();
+        ftpPort = freePort();
+        ftpListener.setPort(ftpPort);
+        serverFactory.addListener("default", ftpListener.createListener());
+
+        ListenerFactory ftpsListener = new ListenerFactory();
+        ftpsPort = freePort();
+        ftpsListener.setPort(ftpsPort);
+        SslConfigurationFactory sslConfig = new SslConfigurationFactory();
+        sslConfig.setKeystoreFile(selfSignedKeystore());
+        sslConfig.setKeystorePassword(KEYSTORE_PASSWORD);
+        sslConfig.setKeystoreType("PKCS12");
+        ftpsListener.setSslConfiguration(sslConfig.createSslConfiguration());
+        ftpsListener.setImplicitSsl(false);
+        serverFactory.addListener("ftps", ftpsListener.createListener());
+
+        ftpServer = serverFactory.createServer();
+        ftpServer.start();
+    }
+
+    private void startSshServer() throws IOException {
+        sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("localhost");
+        sshServer.setPort(0);
+        sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(Files.createTempFile("load-hostkey", ".ser")));
+        sshServer.setPasswordAuthenticator((username, password, session) -> USERNAME.equals(username) && PASSWORD.equals(password));
+        sshServer.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+        sshServer.setFileSystemFactory(new VirtualFileSystemFactory(rootDirectory));
+        sshServer.start();
+    }
+
+    /**
+     * A PKCS12 keystore with a self-signed certificate for localhost, created with the JDK's {@code keytool}.
+     */
+    private static File selfSignedKeystore() throws IOException, InterruptedException {
+        Path keystore = Files.createTempFile("load-ftps", ".p12");
+        Files.delete(keystore);
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+        Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "ftps", "-keyalg", "RSA", "-keysize", "2048",
+                "-dname", "CN=localhost", "-validity", "365", "-storetype", "PKCS12",
+                "-keystore", keystore.toString(), "-storepass", KEYSTORE_PASSWORD, "-keypass", KEYSTORE_PASSWORD)
+                .redirectErrorStream(true)
+                .start();
+        if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IOException("keytool failed to create " + keystore);
+        }
+        keystore.toFile().deleteOnExit();
+        return keystore.toFile();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    public Credentials credentials(FTPType ftpType) {
+        int port;
+        switch (ftpType) {
+            case FTP:
+                port = ftpPort;
+                break;
+            case FTPS:
+                port = ftpsPort;
+                break;
+            case SFTP:
+                port = sshServer.getPort();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported FTP type: " + ftpType);
+        }
+        return Credentials.builder()
+                .host("localhost")
+                .port(port)
+                .username(USERNAME)
+                .password(PASSWORD)
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ftpServer != null) {
+            ftpServer.stop();
+        }
+        if (sshServer != null) {
+            sshServer.stop(true);
+        }
+    }
+}
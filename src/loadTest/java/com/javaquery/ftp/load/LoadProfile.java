@@ -0,0 +1,111 @@
+package com.javaquery.ftp.load;
+
+import com.javaquery.ftp.FTPType;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * What a load test runs: protocol, number of clients, duration and the mix of operations. Every value can be
+ * set with a {@code load.*} system property, see {@link #fromSystemProperties()}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Getter
+@Builder
+public class LoadProfile {
+    @Builder.Default
+    private FTPType ftpType = FTPType.FTP;
+    @Builder.Default
+    private int threads = 20;
+    @Builder.Default
+    private long durationSeconds = 60;
+    @Builder.Default
+    private long reportIntervalSeconds = 10;
+    @Builder.Default
+    private int listWeight = 20;
+    @Builder.Default
+    private int uploadWeight = 30;
+    @Builder.Default
+    private int downloadWeight = 40;
+    @Builder.Default
+    private int deleteWeight = 10;
+    @Builder.Default
+    private int fileSize = 64 * 1024;
+    /**
+     * Files kept by each client, an upload past this deletes the oldest file first so a soak run doesn't fill
+     * the disk
+     */
+    @Builder.Default
+    private int maxFilesPerThread = 50;
+
+    /**
+     * Profile from {@code load.protocol}, {@code load.threads}, {@code load.durationSeconds},
+     * {@code load.reportIntervalSeconds}, {@code load.mix} (weights of list, upload, download and delete, e.g.
+     * {@code 20,30,40,10}), {@code load.fileSize} and {@code load.maxFilesPerThread}.
+     */
+    public static LoadProfile fromSystemProperties() {
+        LoadProfileBuilder builder = LoadProfile.builder();
+        String protocol = System.getProperty("load.protocol");
+        if (protocol != null) {
+            builder.ftpType(FTPType.valueOf(protocol.toUpperCase()));
+        }
+        Integer threads = Integer.getInteger("load.threads");
+        if (threads != null) {
+            builder.threads(threads);
+        }
+        Long durationSeconds = Long.getLong("load.durationSeconds");
+        if (durationSeconds != null) {
+            builder.durationSeconds(durationSeconds);
+        }
+        Long reportIntervalSeconds = Long.getLong("load.reportIntervalSeconds");
+        if (reportIntervalSeconds != null) {
+            builder.reportIntervalSeconds(reportIntervalSeconds);
+        }
+        String mix = System.getProperty("load.mix");
+        if (mix != null) {
+            String[] weights = mix.split(",");
+            if (weights.length != 4) {
+                throw new IllegalArgumentException("load.mix needs 4 weights: list,upload,download,delete");
+            }
+            builder.listWeight(Integer.parseInt(weights[0].trim()))
+                    .uploadWeight(Integer.parseInt(weights[1].trim()))
+                    .downloadWeight(Integer.parseInt(weights[2].trim()))
+                    .deleteWeight(Integer.parseInt(weights[3].trim()));
+        }
+        Integer fileSize = Integer.getInteger("load.fileSize");
+        if (fileSize != null) {
+            builder.fileSize(fileSize);
+        }
+        Integer maxFilesPerThread = Integer.getInteger("load.maxFilesPerThread");
+        if (maxFilesPerThread != null) {
+            builder.maxFilesPerThread(maxFilesPerThread);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param random between 0 (inclusive) and the sum of the weights (exclusive)
+     */
+    OperationType pick(int random) {
+        if (random < listWeight) {
+            return OperationType.LIST;
+        }
+        random -= listWeight;
+        if (random < uploadWeight) {
+            return OperationType.UPLOAD;
+        }
+        random -= uploadWeight;
+        return random < downloadWeight ? OperationType.DOWNLOAD : OperationType.DELETE;
+    }
+
+    int totalWeight() {
+        return listWeight + uploadWeight + downloadWeight + deleteWeight;
+    }
+
+    @Override
+    public String toString() {
+        return ftpType + ", " + threads + " threads, " + durationSeconds + " s, mix list/upload/download/delete "
+                + listWeight + "/" + uploadWeight + "/" + downloadWeight + "/" + deleteWeight + ", " + fileSize + " byte files";
+    }
+}
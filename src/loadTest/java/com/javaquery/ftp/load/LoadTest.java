@@ -0,0 +1,253 @@
+package com.javaquery.ftp.load;
+
+import com.javaquery.ftp.Credentials;
+import com.javaquery.ftp.JFTPClient;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Load and soak test: starts the {@link EmbeddedServers}, runs {@link LoadProfile#getThreads()} clients that
+ * each loop over a weighted mix of list, upload, download and delete, and prints throughput, latency
+ * percentiles, error rates, heap and thread counts every report interval and for the whole run.
+ * <p>
+ * {@code ./gradlew loadTest -Dload.protocol=SFTP -Dload.threads=200 -Dload.durationSeconds=86400}
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class LoadTest {
+
+    private final LoadProfile profile;
+    private final Credentials credentials;
+    private final Path rootDirectory;
+    private final Map<OperationType, OperationStats> stats = new EnumMap<>(OperationType.class);
+    private final long baselineHeap;
+    private final int baselineThreads;
+    private long start;
+    private long lastReport;
+    private long lastHeap;
+    private int lastThreads;
+
+    LoadTest(LoadProfile profile, Credentials credentials, Path rootDirectory) {
+        this.profile = profile;
+        this.credentials = credentials;
+        this.rootDirectory = rootDirectory;
+        for (OperationType operationType : OperationType.values()) {
+            stats.put(operationType, new OperationStats());
+        }
+        this.baselineHeap = liveHeap();
+        this.baselineThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        Path rootDirectory = Files.createTempDirectory("load-root");
+        try (EmbeddedServers servers = EmbeddedServers.start(rootDirectory, profile.getThreads() + 10)) {
+            new LoadTest(profile, servers.credentials(profile.getFtpType()), rootDirectory).run();
+        } finally {
+            deleteRecursively(rootDirectory);
+        }
+        // the client libraries may leave non-daemon threads behind
+        System.exit(0);
+    }
+
+    void run() throws IOException, InterruptedException {
+        System.out.println("Load test: " + profile);
+        for (int i = 0; i < profile.getThreads(); i++) {
+            Files.createDirectories(rootDirectory.resolve("client-" + i));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(profile.getDurationSeconds());
+        CountDownLatch finished = new CountDownLatch(profile.getThreads());
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < profile.getThreads(); i++) {
+            int clientId = i;
+            Thread worker = new Thread(() -> {
+                try {
+                    work(clientId, deadline);
+                } finally {
+                    finished.countDown();
+                }
+            }, "load-client-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        start = System.nanoTime();
+        lastReport = start;
+        lastHeap = baselineHeap;
+        lastThreads = baselineThreads;
+        workers.forEach(Thread::start);
+        reporter.scheduleAtFixedRate(this::intervalReport, profile.getReportIntervalSeconds(), profile.getReportIntervalSeconds(), TimeUnit.SECONDS);
+        finished.await();
+        reporter.shutdownNow();
+        totalReport();
+    }
+
+    private void work(int clientId, long deadline) {
+        Random random = new Random(clientId);
+        byte[] payload = new byte[profile.getFileSize()];
+        random.nextBytes(payload);
+        byte[] buffer = new byte[profile.getFileSize()];
+        String directory = "/client-" + clientId;
+        List<String> files = new ArrayList<>();
+        long fileCounter = 0;
+        JFTPClient jftpClient = null;
+
+        while (System.nanoTime() < deadline) {
+            if (jftpClient == null) {
+                long started = System.nanoTime();
+                try {
+                    jftpClient = new JFTPClient(profile.getFtpType());
+                    jftpClient.connect(credentials);
+                    stats.get(OperationType.CONNECT).success(micros(started), 0);
+                } catch (RuntimeException e) {
+                    stats.get(OperationType.CONNECT).failure(micros(started));
+                    jftpClient = null;
+                    sleepQuietly(100);
+                    continue;
+                }
+            }
+
+            OperationType operationType = profile.pick(random.nextInt(Math.max(1, profile.totalWeight())));
+            if (operationType == OperationType.UPLOAD && files.size() >= profile.getMaxFilesPerThread()) {
+                operationType = OperationType.DELETE;
+            } else if ((operationType == OperationType.DOWNLOAD || operationType == OperationType.DELETE) && files.isEmpty()) {
+                operationType = OperationType.UPLOAD;
+            }
+
+            long started = System.nanoTime();
+            try {
+                long bytes = 0;
+                boolean success;
+                switch (operationType) {
+                    case LIST:
+                        success = jftpClient.listFiles(directory, null) != null;
+                        break;
+                    case UPLOAD:
+                        String uploaded = directory + "/file-" + fileCounter++ + ".bin";
+                        success = jftpClient.uploadBytes(payload, uploaded);
+                        if (success) {
+                            files.add(uploaded);
+                            bytes = payload.length;
+                        }
+                        break;
+                    case DOWNLOAD:
+                        int length = jftpClient.downloadBytes(files.get(random.nextInt(files.size())), buffer);
+                        success = length >= 0;
+                        bytes = Math.max(0, length);
+                        break;
+                    default:
+                        success = jftpClient.deleteFile(files.remove(0));
+                        break;
+                }
+                if (success) {
+                    stats.get(operationType).success(micros(started), bytes);
+                } else {
+                    stats.get(operationType).failure(micros(started));
+                }
+            } catch (RuntimeException e) {
+                stats.get(operationType).failure(micros(started));
+                // start over with a new connection, the old one may be out of sync
+                disconnectQuietly(jftpClient);
+                jftpClient = null;
+            }
+        }
+        disconnectQuietly(jftpClient);
+    }
+
+    private synchronized void intervalReport() {
+        long now = System.nanoTime();
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - lastReport));
+        lastReport = now;
+        long heap = liveHeap();
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        System.out.printf("--- %6d s  heap %7.1f MB (%+.1f since last, %+.1f since start)  threads %d (%+d, %+d)%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - start), mb(heap), mb(heap - lastHeap), mb(heap - baselineHeap),
+                threads, threads - lastThreads, threads - baselineThreads);
+        lastHeap = heap;
+        lastThreads = threads;
+        for (Map.Entry<OperationType, OperationStats> entry : stats.entrySet()) {
+            System.out.printf("%-8s %s%n", entry.getKey(), entry.getValue().intervalReport(seconds));
+        }
+    }
+
+    private synchronized void totalReport() {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        long heap = liveHeap();
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        System.out.printf("=== total %d s  heap %.1f MB (%+.1f since start)  threads %d (%+d since start)%n",
+                seconds, mb(heap), mb(heap - baselineHeap), threads, threads - baselineThreads);
+        for (Map.Entry<OperationType, OperationStats> entry : stats.entrySet()) {
+            System.out.printf("%-8s %s%n", entry.getKey(), entry.getValue().totalReport(seconds));
+        }
+    }
+
+    /**
+     * Heap in use after the last garbage collection, which only grows over a soak run if something leaks.
+     * Falls back to the current usage before the first collection.
+     */
+    private static long liveHeap() {
+        long afterCollection = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+                afterCollection += pool.getCollectionUsage().getUsed();
+            }
+        }
+        return afterCollection > 0 ? afterCollection : ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000;
+    }
+
+    private static void disconnectQuietly(JFTPClient jftpClient) {
+        if (jftpClient != null) {
+            try {
+                jftpClient.disconnect();
+            } catch (RuntimeException e) {
+                // the connection is dropped either way
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.javaquery.ftp.load;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one {@link OperationType} since the start and since the last report.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class OperationStats {
+
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram interval = new LatencyHistogram();
+    private final LongAdder totalErrors = new LongAdder();
+    private final LongAdder intervalErrors = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder intervalBytes = new LongAdder();
+
+    void success(long micros, long bytes) {
+        total.record(micros);
+        interval.record(micros);
+        totalBytes.add(bytes);
+        intervalBytes.add(bytes);
+    }
+
+    void failure(long micros) {
+        success(micros, 0);
+        totalErrors.increment();
+        intervalErrors.increment();
+    }
+
+    /**
+     * @return line with the interval's counters, which are reset
+     */
+    String intervalReport(long seconds) {
+        String line = format(interval, intervalErrors.sumThenReset(), intervalBytes.sumThenReset(), seconds);
+        interval.reset();
+        return line;
+    }
+
+    String totalReport(long seconds) {
+        return format(total, totalErrors.sum(), totalBytes.sum(), seconds);
+    }
+
+    private static String format(LatencyHistogram histogram, long errors, long bytes, long seconds) {
+        long count = histogram.getCount();
+        return String.format("%9.1f ops/s %6.2f%% errors %8.2f MB/s  p50 %8.2f  p90 %8.2f  p99 %8.2f  max %9.2f ms",
+                count / (double) Math.max(1, seconds),
+                count == 0 ? 0 : errors * 100.0 / count,
+                bytes / (1024.0 * 1024.0) / Math.max(1, seconds),
+                histogram.getPercentile(50) / 1000.0,
+                histogram.getPercentile(90) / 1000.0,
+                histogram.getPercentile(99) / 1000.0,
+                histogram.getMax() / 1000.0);
+    }
+}
@@ -0,0 +1,13 @@
+package com.javaquery.ftp.load;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public enum OperationType {
+    CONNECT,
+    LIST,
+    UPLOAD,
+    DOWNLOAD,
+    DELETE
+}
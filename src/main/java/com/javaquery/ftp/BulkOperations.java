@@ -0,0 +1,243 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.DaemonThreadFactory;
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Looks up, deletes and renames many remote paths using up to {@link JFTPClientPool#getMaxSize()} connections in
+ * parallel. Each connection works through a shared list of paths, so a round trip per path is paid
+ * {@code maxSize} times in parallel instead of one after the other.
+ * <p>
+ * A path the server refuses fails on its own. A client whose connection failed is invalidated and the worker
+ * borrows another one for its next path.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public final class BulkOperations {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkOperations.class);
+
+    private BulkOperations() {
+    }
+
+    /**
+     * Look up the attributes of many paths, e.g. to check which files exist, without listing their directories.
+     * With a {@link Credentials#getStatCache()} cached results are reused and new ones are cached.
+     *
+     * @return path to its attributes, null if it doesn't exist, in the order of {@code remoteFilePaths}. Paths
+     * that couldn't be looked up are left out.
+     * @see JFTPClient#stat(String)
+     */
+    public static Map<String, RemoteFile> stat(JFTPClientPool pool, Collection<String> remoteFilePaths) throws FTPException {
+        List<String> paths = new ArrayList<>(remoteFilePaths);
+        // empty for a path that doesn't exist, null for a failed lookup
+        List<Optional<RemoteFile>> results = run(pool, paths, "stat", (jftpClient, path) -> Optional.ofNullable(jftpClient.stat(path)), null);
+        Map<String, RemoteFile> result = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            if (results.get(i) != null) {
+                result.put(paths.get(i), results.get(i).orElse(null));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return path to whether it was deleted, in the order of {@code remoteFilePaths}
+     */
+    public static Map<String, Boolean> deleteFiles(JFTPClientPool pool, Collection<String> remoteFilePaths) throws FTPException {
+        List<String> paths = new ArrayList<>(remoteFilePaths);
+        return toMap(paths, run(pool, paths, "delete", JFTPClient::deleteFile, false));
+    }
+
+    /**
+     * Rename or move files on the server, e.g. into an archive directory, without transferring them.
+     *
+     * @param files path to new path
+     * @return path to whether it was renamed, in the order of {@code files}
+     */
+    public static Map<String, Boolean> renameFiles(JFTPClientPool pool, Map<String, String> files) throws FTPException {
+        List<Map.Entry<String, String>> renames = new ArrayList<>(files.entrySet());
+        List<Boolean> renamed = run(pool, renames, "rename", (jftpClient, rename) -> jftpClient.renameFile(rename.getKey(), rename.getValue()), false);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (int i = 0; i < renames.size(); i++) {
+            result.put(renames.get(i).getKey(), renamed.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Delete {@code remoteDirectoryPath} with everything below it. The tree is listed one level at a time with
+     * the directories of a level listed in parallel, then the files are deleted in parallel, then the
+     * directories from the deepest level up. Symbolic links are deleted, not followed.
+     *
+     * @return path to whether it was deleted for every file and directory found, {@code remoteDirectoryPath}
+     * last. A directory that couldn't be listed is reported as not deleted.
+     */
+    public static Map<String, Boolean> deleteTree(JFTPClientPool pool, String remoteDirectoryPath) throws FTPException {
+        List<String> files = new ArrayList<>();
+        List<List<String>> levels = new ArrayList<>();
+        Map<String, Boolean> result = new LinkedHashMap<>();
+
+        List<String> level = Collections.singletonList(remoteDirectoryPath);
+        while (!level.isEmpty()) {
+            levels.add(level);
+            List<TreeLevelSink> listings = run(pool, level, "list", (jftpClient, directoryPath) -> {
+                TreeLevelSink sink = new TreeLevelSink(directoryPath);
+                jftpClient.listFiles(directoryPath, null, sink);
+                return sink;
+            }, null);
+            List<String> nextLevel = new ArrayList<>();
+            for (TreeLevelSink listing : listings) {
+                if (listing != null) {
+                    files.addAll(listing.files);
+                    nextLevel.addAll(listing.directories);
+                }
+            }
+            level = nextLevel;
+        }
+
+        result.putAll(toMap(files, run(pool, files, "delete", JFTPClient::deleteFile, false)));
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            List<String> directories = levels.get(i);
+            result.putAll(toMap(directories, run(pool, directories, "delete directory", JFTPClient::deleteDirectory, false)));
+        }
+        return result;
+    }
+
+    /**
+     * Apply {@code operation} to every item on up to {@link JFTPClientPool#getMaxSize()} pooled clients.
+     *
+     * @param failure result of the items that failed with an exception or weren't reached
+     * @return result for each item in the order of {@code items}
+     */
+    @SuppressWarnings("unchecked")
+    private static <T, R> List<R> run(JFTPClientPool pool, List<T> items, String operationName, Operation<T, R> operation, R failure) throws FTPException {
+        Object[] results = new Object[items.size()];
+        Arrays.fill(results, failure);
+        int workerCount = Math.min(pool.getMaxSize(), items.size());
+        if (workerCount > 0) {
+            AtomicInteger next = new AtomicInteger();
+            ExecutorService workers = Executors.newFixedThreadPool(workerCount, new DaemonThreadFactory("ftp-bulk"));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < workerCount; i++) {
+                    futures.add(workers.submit(() -> work(pool, items, operationName, operation, results, next)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FTPException(e.getMessage(), e);
+            } catch (ExecutionException e) {
+                throw new FTPException(e.getMessage(), e);
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    private static <T, R> void work(JFTPClientPool pool, List<T> items, String operationName, Operation<T, R> operation,
+                                    Object[] results, AtomicInteger next) {
+        JFTPClient jftpClient = null;
+        try {
+            int index;
+            while ((index = next.getAndIncrement()) < items.size()) {
+                if (jftpClient == null) {
+                    try {
+                        jftpClient = pool.borrow();
+                    } catch (FTPException e) {
+                        // the other workers carry on with the remaining items
+                        LOGGER.warn("Failed to {} {}, no connection: {}", operationName, items.get(index), e.getMessage());
+                        return;
+                    }
+                }
+                try {
+                    results[index] = operation.apply(jftpClient, items.get(index));
+                } catch (FTPException e) {
+                    LOGGER.warn("Failed to {} {}: {}", operationName, items.get(index), e.getMessage());
+                    if (!isRefusal(e)) {
+                        pool.invalidate(jftpClient);
+                        jftpClient = null;
+                    }
+                }
+            }
+        } finally {
+            if (jftpClient != null) {
+                pool.release(jftpClient);
+            }
+        }
+    }
+
+    /**
+     * @return true if the server refused the operation on an SFTP connection that is still usable, e.g.
+     * because the path doesn't exist. FTP/FTPS refusals are reported as false instead of exceptions.
+     */
+    private static boolean isRefusal(FTPException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof com.jcraft.jsch.SftpException || cause instanceof org.apache.sshd.sftp.common.SftpException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Boolean> toMap(List<String> paths, List<Boolean> results) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            result.put(paths.get(i), results.get(i));
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Operation<T, R> {
+        R apply(JFTPClient jftpClient, T item) throws FTPException;
+    }
+
+    /**
+     * Splits a directory listing into the paths of the files and of the subdirectories.
+     */
+    private static class TreeLevelSink implements ListingSink {
+        private final String directoryPrefix;
+        private final List<String> files = new ArrayList<>();
+        private final List<String> directories = new ArrayList<>();
+
+        TreeLevelSink(String directoryPath) {
+            this.directoryPrefix = RemoteFileList.directoryPrefix(directoryPath);
+        }
+
+        @Override
+        public void addEntry(String name, boolean isFile, boolean isDirectory, long size, long lastModified) {
+            if (name.equals(".") || name.equals("..")) {
+                return;
+            }
+            if (isDirectory) {
+                directories.add(directoryPrefix + name);
+            } else {
+                files.add(directoryPrefix + name);
+            }
+        }
+    }
+}
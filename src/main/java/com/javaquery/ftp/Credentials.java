@@ -1,8 +1,14 @@
 package com.javaquery.ftp;
 
+import com.javaquery.ftp.parser.FastListEntryParser;
+import com.javaquery.ftp.parser.ListEntryParser;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.Singular;
+
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * @author javaquery
@@ -10,15 +16,64 @@ import lombok.Setter;
  */
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 public class Credentials {
     private String host;
     private int port;
+    /**
+     * Other hosts serving the same data. New connections go to the fastest healthy one of {@code host} and the
+     * mirrors, as ranked by {@code endpointSelector}.
+     */
+    @Singular
+    private List<Endpoint> mirrors;
+    @Builder.Default
+    private EndpointSelector endpointSelector = EndpointSelector.DEFAULT;
     private String username;
     private String password;
+    /**
+     * Known hosts and private keys shared by SFTP connections, null to log in with {@code password} only and
+     * accept any host key
+     */
+    private SSHContext sshContext;
     @Builder.Default
     private int connectTimeout = 15000;
+    /**
+     * Caches the addresses of {@code host}, {@code null} to use {@link DnsCache#DEFAULT}
+     */
+    @Builder.Default
+    private DnsCache dnsCache = DnsCache.DEFAULT;
+    /**
+     * Delay before trying the next address of a host with several addresses while the previous attempt is
+     * still connecting, 0 to only use the first address
+     */
+    @Builder.Default
+    private int connectAttemptDelayMillis = 250;
     @Builder.Default
     private int socketTimeout = 60000;
     private boolean isImplicit;
+    /**
+     * SFTP with {@link SSHBackend#JSCH} only, connecting with {@link SSHBackend#MINA_SSHD} fails
+     */
+    private boolean sharedSession;
+    @Builder.Default
+    private int maxChannelsPerSession = 10;
+    @Builder.Default
+    private SSHBackend sshBackend = SSHBackend.JSCH;
+    private int sftpReadAheadSize;
+    private int sftpWriteBehindSize;
+    /**
+     * Creates the parser for FTP/FTPS directory listings from the server's system type, {@code null} to parse
+     * them with commons-net only.
+     */
+    @Builder.Default
+    private Function<String, ListEntryParser> listEntryParser = FastListEntryParser::new;
+    /**
+     * Local cache {@link JFTPClient#downloadFile(String, String)} serves unchanged files from, null to always
+     * download
+     */
+    private DownloadCache downloadCache;
+    /**
+     * Cache of {@link JFTPClient#stat(String)} results, null to look up every time
+     */
+    private StatCache statCache;
 }
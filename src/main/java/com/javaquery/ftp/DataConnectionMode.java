@@ -0,0 +1,24 @@
+package com.javaquery.ftp;
+
+/**
+ * Ways of opening FTP/FTPS data connections, in the order they are tried.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public enum DataConnectionMode {
+    /**
+     * Extended passive mode, the server only returns a port and the client connects to the control connection's
+     * address. Works with IPv6 and with servers behind NAT.
+     */
+    EPSV,
+    /**
+     * Passive mode, connecting to the control connection's address instead of the address in the server reply.
+     * IPv4 only.
+     */
+    PASV,
+    /**
+     * Active mode, the server connects back to the client (PORT, or EPRT over IPv6).
+     */
+    ACTIVE
+}
@@ -0,0 +1,73 @@
+package com.javaquery.ftp;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link DataConnectionMode} that last worked for each FTP/FTPS server, tried first by every later
+ * transfer to it, and the timings of each mode.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public final class DataConnectionModes {
+
+    private static final ConcurrentMap<String, DataConnectionMode> MODES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Map<DataConnectionMode, DataConnectionTiming>> TIMINGS = new ConcurrentHashMap<>();
+
+    private DataConnectionModes() {
+    }
+
+    /**
+     * @return mode that last opened a data connection to the server, null if none did yet
+     */
+    public static DataConnectionMode get(String host, int port) {
+        return MODES.get(key(host, port));
+    }
+
+    /**
+     * @return copy of the timings of the modes tried with the server so far
+     */
+    public static Map<DataConnectionMode, DataConnectionTiming> getTimings(String host, int port) {
+        Map<DataConnectionMode, DataConnectionTiming> timings = TIMINGS.get(key(host, port));
+        Map<DataConnectionMode, DataConnectionTiming> copy = new EnumMap<>(DataConnectionMode.class);
+        if (timings != null) {
+            synchronized (timings) {
+                for (Map.Entry<DataConnectionMode, DataConnectionTiming> timing : timings.entrySet()) {
+                    copy.put(timing.getKey(), timing.getValue().copy());
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Forget the modes and timings of every server, e.g. after the network changed.
+     */
+    public static void clear() {
+        MODES.clear();
+        TIMINGS.clear();
+    }
+
+    static String key(String host, int port) {
+        return host + ":" + port;
+    }
+
+    static DataConnectionMode get(String key) {
+        return MODES.get(key);
+    }
+
+    static void record(String key, DataConnectionMode mode, long millis, boolean success) {
+        if (success) {
+            MODES.put(key, mode);
+        }
+        Map<DataConnectionMode, DataConnectionTiming> timings = TIMINGS.computeIfAbsent(key, k -> new EnumMap<>(DataConnectionMode.class));
+        DataConnectionTiming timing;
+        synchronized (timings) {
+            timing = timings.computeIfAbsent(mode, k -> new DataConnectionTiming());
+        }
+        timing.record(millis, success);
+    }
+}
@@ -0,0 +1,271 @@
+package com.javaquery.ftp;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens the data connections of one FTP/FTPS client with the {@link DataConnectionMode} that last worked for
+ * its server, and falls back to the next mode when a data connection can't be opened: EPSV, then PASV to
+ * the control connection's address, then active mode. The client must route its data connections through
+ * {@link #open(DataSocketOpener)}, reject EPSV replies with {@link #checkEpsv(int)} and call
+ * {@link #connected(String, int)} once the control connection is up.
+ * <p>
+ * Only a data socket that fails to connect or accept, and replies that reject the mode, count as failures of
+ * the mode. Failures of the control connection are thrown unchanged and not remembered for the server.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+final class DataConnectionNegotiator {
+
+    private final FTPClient ftpClient;
+    private String key;
+    private DataConnectionMode mode;
+
+    DataConnectionNegotiator(FTPClient ftpClient) {
+        this.ftpClient = ftpClient;
+    }
+
+    /**
+     * Remember modes for {@code host}, and create the data sockets from now on.
+     */
+    void connected(String host, int port) {
+        key = DataConnectionModes.key(host, port);
+        ftpClient.setSocketFactory(new DataSocketFactory());
+        ftpClient.setServerSocketFactory(new DataServerSocketFactory());
+    }
+
+    /**
+     * Run {@code operation}, repeating it with the next mode as long as its data connection fails to open.
+     */
+    <T> T execute(DataOperation<T> operation) throws IOException {
+        DataConnectionException lastException = null;
+        for (DataConnectionMode candidate : candidates()) {
+            apply(candidate);
+            try {
+                return operation.run();
+            } catch (DataConnectionException e) {
+                lastException = e;
+            }
+        }
+        throw lastException;
+    }
+
+    private List<DataConnectionMode> candidates() {
+        List<DataConnectionMode> candidates = new ArrayList<>();
+        DataConnectionMode remembered = key != null ? DataConnectionModes.get(key) : null;
+        if (remembered != null) {
+            candidates.add(remembered);
+        }
+        boolean isInet6 = ftpClient.getRemoteAddress() instanceof Inet6Address;
+        for (DataConnectionMode candidate : DataConnectionMode.values()) {
+            if (candidate != remembered && !(isInet6 && candidate == DataConnectionMode.PASV)) {
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    private void apply(DataConnectionMode candidate) {
+        mode = candidate;
+        if (candidate == DataConnectionMode.ACTIVE) {
+            ftpClient.enterLocalActiveMode();
+        } else {
+            ftpClient.enterLocalPassiveMode();
+            ftpClient.setUseEPSVwithIPv4(candidate == DataConnectionMode.EPSV);
+            // connect to the control connection's address, PASV replies of servers behind NAT are unusable
+            ftpClient.setIpAddressFromPasvResponse(false);
+        }
+    }
+
+    /**
+     * Open a data connection and time it, turning replies that reject the mode into
+     * {@link DataConnectionException}.
+     */
+    Socket open(DataSocketOpener opener) throws IOException {
+        long start = System.nanoTime();
+        Socket socket;
+        try {
+            socket = opener.open();
+        } catch (DataConnectionException e) {
+            record(start, false);
+            if (mode == DataConnectionMode.ACTIVE && e.getCause() instanceof SocketTimeoutException) {
+                drainReply();
+            }
+            throw e;
+        }
+        if (socket == null && isModeFailure(ftpClient.getReplyCode())) {
+            record(start, false);
+            throw new DataConnectionException(mode + " data connection refused: " + ftpClient.getReplyString(), null);
+        }
+        if (socket != null) {
+            record(start, true);
+        }
+        return socket;
+    }
+
+    /**
+     * @return {@code reply} of the EPSV command
+     * @throws DataConnectionException if the server doesn't support EPSV, instead of falling back to PASV
+     * silently
+     */
+    int checkEpsv(int reply) throws DataConnectionException {
+        if (mode == DataConnectionMode.EPSV && reply != FTPReply.ENTERING_EPSV_MODE) {
+            throw new DataConnectionException("EPSV not supported: " + ftpClient.getReplyString(), null);
+        }
+        return reply;
+    }
+
+    /**
+     * The server accepted the transfer command but never connected back, read the failure it replies with
+     * eventually so the next command doesn't get it.
+     */
+    private void drainReply() {
+        try {
+            ftpClient.getReply();
+        } catch (IOException e) {
+            // the connection is broken, the next command reports it
+        }
+    }
+
+    private void record(long start, boolean success) {
+        if (key != null && mode != null) {
+            DataConnectionModes.record(key, mode, (System.nanoTime() - start) / 1_000_000, success);
+        }
+    }
+
+    private static boolean isModeFailure(int reply) {
+        return reply == FTPReply.CANNOT_OPEN_DATA_CONNECTION
+                || reply == FTPReply.UNRECOGNIZED_COMMAND
+                || reply == FTPReply.SYNTAX_ERROR_IN_ARGUMENTS
+                || reply == FTPReply.COMMAND_NOT_IMPLEMENTED
+                || reply == FTPReply.COMMAND_NOT_IMPLEMENTED_FOR_PARAMETER
+                || reply == FTPReply.EXTENDED_PORT_FAILURE;
+    }
+
+    private DataConnectionException dataConnectionFailed(IOException e) {
+        return new DataConnectionException(mode + " data connection failed: " + e.getMessage(), e);
+    }
+
+    /**
+     * Data socket of a passive mode, a failed connect is a {@link DataConnectionException}.
+     */
+    private class DataSocket extends Socket {
+        @Override
+        public void connect(SocketAddress endpoint, int timeout) throws IOException {
+            try {
+                super.connect(endpoint, timeout);
+            } catch (IOException e) {
+                throw dataConnectionFailed(e);
+            }
+        }
+    }
+
+    /**
+     * Listening socket of active mode, a failed accept is a {@link DataConnectionException}.
+     */
+    private class DataServerSocket extends ServerSocket {
+        DataServerSocket(int port, int backlog, InetAddress bindAddress) throws IOException {
+            super(port, backlog, bindAddress);
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            try {
+                return super.accept();
+            } catch (IOException e) {
+                throw dataConnectionFailed(e);
+            }
+        }
+    }
+
+    private class DataSocketFactory extends SocketFactory {
+        @Override
+        public Socket createSocket() {
+            return new DataSocket();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return createSocket(new InetSocketAddress(host, port), null);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localAddress, int localPort) throws IOException {
+            return createSocket(new InetSocketAddress(host, port), new InetSocketAddress(localAddress, localPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port) throws IOException {
+            return createSocket(new InetSocketAddress(address, port), null);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            return createSocket(new InetSocketAddress(address, port), new InetSocketAddress(localAddress, localPort));
+        }
+
+        private Socket createSocket(InetSocketAddress address, InetSocketAddress localAddress) throws IOException {
+            Socket socket = new DataSocket();
+            try {
+                if (localAddress != null) {
+                    socket.bind(localAddress);
+                }
+                socket.connect(address);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            return socket;
+        }
+    }
+
+    private class DataServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return new DataServerSocket(port, 50, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return new DataServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress bindAddress) throws IOException {
+            return new DataServerSocket(port, backlog, bindAddress);
+        }
+    }
+
+    interface DataOperation<T> {
+        T run() throws IOException;
+    }
+
+    interface DataSocketOpener {
+        Socket open() throws IOException;
+    }
+
+    /**
+     * A data connection could not be opened with the current mode, the control connection is still usable.
+     */
+    static class DataConnectionException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        DataConnectionException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
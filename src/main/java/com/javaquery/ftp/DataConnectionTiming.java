@@ -0,0 +1,55 @@
+package com.javaquery.ftp;
+
+/**
+ * Attempts and time taken to open data connections with one {@link DataConnectionMode}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class DataConnectionTiming {
+    private long attempts;
+    private long failures;
+    private long totalMillis;
+    private long lastMillis;
+
+    synchronized void record(long millis, boolean success) {
+        attempts++;
+        if (!success) {
+            failures++;
+        }
+        totalMillis += millis;
+        lastMillis = millis;
+    }
+
+    synchronized DataConnectionTiming copy() {
+        DataConnectionTiming copy = new DataConnectionTiming();
+        copy.attempts = attempts;
+        copy.failures = failures;
+        copy.totalMillis = totalMillis;
+        copy.lastMillis = lastMillis;
+        return copy;
+    }
+
+    public synchronized long getAttempts() {
+        return attempts;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return time spent opening data connections, failed attempts included
+     */
+    public synchronized long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public synchronized long getLastMillis() {
+        return lastMillis;
+    }
+
+    public synchronized long getAverageMillis() {
+        return attempts == 0 ? 0 : totalMillis / attempts;
+    }
+}
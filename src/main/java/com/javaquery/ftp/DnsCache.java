@@ -0,0 +1,90 @@
+package com.javaquery.ftp;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the addresses of host names for {@code ttlMillis}, so reconnecting doesn't wait for a DNS lookup.
+ * The address that last accepted a connection is kept first. Failed lookups are not cached.
+ * <p>
+ * Instances are thread-safe and usually shared, see {@link #DEFAULT}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class DnsCache {
+
+    public static final DnsCache DEFAULT = new DnsCache(60000);
+
+    private final long ttlMillis;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttlMillis time a lookup is reused, 0 to look up every time
+     */
+    public DnsCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return addresses of {@code host}, the preferred one first. Each address keeps {@code host} as its host
+     * name, so TLS and SSH still see the name the caller asked for.
+     */
+    public List<InetAddress> resolve(String host) throws UnknownHostException {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(host);
+        if (entry == null || now >= entry.expiresAt) {
+            InetAddress[] resolved = InetAddress.getAllByName(host);
+            List<InetAddress> addresses = new ArrayList<>(resolved.length);
+            for (InetAddress address : resolved) {
+                addresses.add(InetAddress.getByAddress(host, address.getAddress()));
+            }
+            entry = new Entry(Collections.unmodifiableList(addresses), now + ttlMillis);
+            if (ttlMillis > 0) {
+                entries.put(host, entry);
+            }
+        }
+        return entry.addresses;
+    }
+
+    /**
+     * Move {@code address} in front of the other addresses of {@code host}, e.g. after it won a connect race.
+     */
+    public void prefer(String host, InetAddress address) {
+        entries.computeIfPresent(host, (k, entry) -> {
+            if (entry.addresses.get(0).equals(address) || !entry.addresses.contains(address)) {
+                return entry;
+            }
+            List<InetAddress> addresses = new ArrayList<>(entry.addresses);
+            addresses.remove(address);
+            addresses.add(0, address);
+            return new Entry(Collections.unmodifiableList(addresses), entry.expiresAt);
+        });
+    }
+
+    /**
+     * Forget the addresses of {@code host}, the next {@link #resolve(String)} looks it up again.
+     */
+    public void invalidate(String host) {
+        entries.remove(host);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+        private final List<InetAddress> addresses;
+        private final long expiresAt;
+
+        Entry(List<InetAddress> addresses, long expiresAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.RemoteFile;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local disk cache for {@link JFTPClient#downloadFile(String, String)}, enabled with
+ * {@link Credentials#getDownloadCache()}. Before downloading, the size and last modified time of the remote
+ * file are read with a single {@link JFTPClient#stat(String)}. A file cached with the same server, path, size
+ * and last modified time is hard linked (or copied, where links aren't possible) to the local path instead of
+ * being transferred again.
+ * <p>
+ * The cache may be shared by processes: files enter it with an atomic rename, and the least recently used
+ * ones are evicted under a file lock once it grows beyond {@code maxBytes}. A hit touches the last modified
+ * time of the cached file, which is what eviction orders by. Hard linked files share their content with the
+ * cache, replace them instead of writing to them, or disable hard links.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class DownloadCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String LOCK_FILE = ".lock";
+    /**
+     * Temporary files this old are left over by a process that died while downloading
+     */
+    private static final long ABANDONED_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final boolean hardLinks;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder hitBytes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private DownloadCache(Path directory, long maxBytes, boolean hardLinks) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.hardLinks = hardLinks;
+    }
+
+    /**
+     * Open a cache that hard links cached files to the local path.
+     *
+     * @param directory cache directory, created if necessary
+     * @param maxBytes  total size of the cached files before the least recently used are evicted
+     */
+    public static DownloadCache open(Path directory, long maxBytes) throws IOException {
+        return open(directory, maxBytes, true);
+    }
+
+    /**
+     * @param hardLinks false to always copy cached files to the local path
+     */
+    public static DownloadCache open(Path directory, long maxBytes, boolean hardLinks) throws IOException {
+        Files.createDirectories(directory);
+        return new DownloadCache(directory, maxBytes, hardLinks);
+    }
+
+    /**
+     * @param server identifies the server, part of the cache key
+     */
+    boolean download(JFTPClient jftpClient, String server, String remoteFilePath, String localFilePath) throws FTPException {
+        RemoteFile remoteFile = jftpClient.statUncached(remoteFilePath);
+        if (remoteFile == null || !remoteFile.isFile() || remoteFile.getTimestamp() == null) {
+            // nothing to tell whether a cached copy is still current
+            misses.increment();
+            return jftpClient.downloadUncached(remoteFilePath, localFilePath);
+        }
+
+        long size = remoteFile.getSize();
+        Path localFile = Paths.get(localFilePath);
+        Path cachedFile = directory.resolve(key(server, remoteFilePath, size, remoteFile.getTimestamp().getTimeInMillis()));
+        try {
+            if (serve(cachedFile, size, localFile)) {
+                hits.increment();
+                hitBytes.add(size);
+                return true;
+            }
+            misses.increment();
+
+            Path tempFile = directory.resolve(cachedFile.getFileName() + "." + UUID.randomUUID() + TEMP_SUFFIX);
+            try {
+                if (!jftpClient.downloadUncached(remoteFilePath, tempFile.toString())) {
+                    return false;
+                }
+                // link before the rename, so an eviction can't remove the file in between
+                linkOrCopy(tempFile, localFile);
+                if (Files.size(tempFile) == size) {
+                    commit(tempFile, cachedFile);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            evict();
+            return true;
+        } catch (IOException e) {
+            throw new FTPException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return true if {@code cachedFile} exists with {@code size} and is now at {@code localFile}
+     */
+    private boolean serve(Path cachedFile, long size, Path localFile) throws IOException {
+        try {
+            if (Files.size(cachedFile) != size) {
+                return false;
+            }
+            linkOrCopy(cachedFile, localFile);
+            Files.setLastModifiedTime(cachedFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            // not cached, or just evicted
+            return false;
+        }
+    }
+
+    private void linkOrCopy(Path source, Path localFile) throws IOException {
+        if (hardLinks) {
+            try {
+                Files.createLink(localFile, source);
+                return;
+            } catch (UnsupportedOperationException | IOException e) {
+                if (Files.exists(localFile)) {
+                    throw e;
+                }
+                // another file system, or links are not supported
+            }
+        }
+        Files.copy(source, localFile);
+    }
+
+    private static void commit(Path tempFile, Path cachedFile) throws IOException {
+        try {
+            Files.move(tempFile, cachedFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, cachedFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // another process cached the same file first
+            if (!Files.exists(cachedFile)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Delete the least recently used files until the cache fits into {@code maxBytes}. Skipped while another
+     * process or instance is evicting.
+     */
+    void evict() throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = tryLock(lockChannel)) {
+            if (lock == null) {
+                return;
+            }
+            List<CachedFile> cachedFiles = new ArrayList<>();
+            long totalBytes = 0;
+            long now = System.currentTimeMillis();
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+                for (Path path : paths) {
+                    String name = path.getFileName().toString();
+                    if (name.equals(LOCK_FILE)) {
+                        continue;
+                    }
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    }
+                    long lastModified = attributes.lastModifiedTime().toMillis();
+                    if (name.endsWith(TEMP_SUFFIX)) {
+                        if (now - lastModified > ABANDONED_MILLIS) {
+                            Files.deleteIfExists(path);
+                        }
+                        continue;
+                    }
+                    cachedFiles.add(new CachedFile(path, attributes.size(), lastModified));
+                    totalBytes += attributes.size();
+                }
+            }
+            if (totalBytes <= maxBytes) {
+                return;
+            }
+            cachedFiles.sort(Comparator.comparingLong(cachedFile -> cachedFile.lastUsed));
+            for (CachedFile cachedFile : cachedFiles) {
+                if (totalBytes <= maxBytes) {
+                    break;
+                }
+                if (Files.deleteIfExists(cachedFile.path)) {
+                    evictions.increment();
+                }
+                totalBytes -= cachedFile.size;
+            }
+        }
+    }
+
+    private static FileLock tryLock(FileChannel lockChannel) throws IOException {
+        try {
+            return lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // another instance of this JVM is evicting
+            return null;
+        }
+    }
+
+    static String key(String server, String remoteFilePath, long size, long lastModified) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((server + "\n" + remoteFilePath + "\n" + size + "\n" + lastModified).getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return downloads that went to the server, including files the cache couldn't validate
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return share of downloads served from the cache, 0 before the first download
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return bytes served from the cache instead of the server
+     */
+    public long getHitBytes() {
+        return hitBytes.sum();
+    }
+
+    /**
+     * @return files this instance evicted
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static class CachedFile {
+        private final Path path;
+        private final long size;
+        private final long lastUsed;
+
+        CachedFile(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.crypto.DecryptingOutputStream;
+import com.javaquery.ftp.crypto.FileEncryption;
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.BoundedPipe;
+import com.javaquery.ftp.io.BufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a {@link FileEncryption} on a separate thread connected to the transfer by a {@link BoundedPipe}, so
+ * encrypting the next chunks overlaps with sending the previous ones, and decrypting with receiving.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+final class EncryptedTransfer {
+
+    /**
+     * Chunks the cipher thread may be ahead of, or behind, the transfer
+     */
+    private static final int PIPE_CHUNKS = 4;
+
+    private EncryptedTransfer() {
+    }
+
+    static boolean upload(JFTPClient jftpClient, InputStream inputStream, String remoteFilePath, FileEncryption encryption) throws FTPException {
+        BoundedPipe pipe = new BoundedPipe(BufferPool.DEFAULT, pipeSize(encryption));
+        // a failure reaches the upload instead of end of stream, it doesn't complete
+        Future<?> encrypt = pipe.writeAsync(outputStream -> copy(encryption.encrypt(inputStream), outputStream));
+
+        try {
+            try {
+                return jftpClient.uploadFile(pipe.getInputStream(), remoteFilePath);
+            } finally {
+                // unblocks the cipher thread if the upload stopped reading early
+                pipe.getInputStream().close();
+                await(encrypt);
+            }
+        } catch (IOException e) {
+            throw new FTPException(e.getMessage(), e);
+        }
+    }
+
+    static boolean download(JFTPClient jftpClient, String remoteFilePath, OutputStream outputStream, FileEncryption encryption) throws FTPException {
+        BoundedPipe pipe = new BoundedPipe(BufferPool.DEFAULT, pipeSize(encryption));
+        // whichever side fails first caused the failure of the other one
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        // closing the pipe unblocks the download if decryption stopped early
+        Future<?> decrypt = pipe.readAsync(inputStream -> {
+            try {
+                DecryptingOutputStream decryptingOutputStream = encryption.decrypt(outputStream);
+                copy(inputStream, decryptingOutputStream);
+                decryptingOutputStream.finish();
+            } catch (Exception e) {
+                firstFailure.compareAndSet(null, e);
+            }
+            return null;
+        });
+
+        boolean downloaded = false;
+        IOException refused = new IOException("Download of " + remoteFilePath + " was not confirmed");
+        try {
+            downloaded = jftpClient.downloadFile(remoteFilePath, pipe.getOutputStream());
+            if (downloaded) {
+                pipe.getOutputStream().close();
+            } else {
+                // e.g. a missing file, unless decryption failed first this isn't an error
+                firstFailure.compareAndSet(null, refused);
+                pipe.fail(refused);
+            }
+        } catch (FTPException | IOException e) {
+            firstFailure.compareAndSet(null, e);
+            pipe.fail(e);
+        } finally {
+            await(decrypt);
+        }
+
+        Exception failure = firstFailure.get();
+        if (failure != null && failure != refused) {
+            throw failure instanceof FTPException ? (FTPException) failure : new FTPException(failure.getMessage(), failure);
+        }
+        return downloaded;
+    }
+
+    private static int pipeSize(FileEncryption encryption) {
+        return PIPE_CHUNKS * encryption.getChunkSize();
+    }
+
+    private static void copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+    }
+
+    private static void await(Future<?> cipher) throws FTPException {
+        try {
+            cipher.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FTPException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new FTPException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.javaquery.ftp;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Host and port of a server, e.g. one of the mirrors of {@link Credentials}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Getter
+@EqualsAndHashCode
+public class Endpoint {
+    private final String host;
+    private final int port;
+
+    public Endpoint(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,161 @@
+package com.javaquery.ftp;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders the endpoints of a server by how fast they were so far, so new connections go to the healthiest
+ * mirror first.
+ * <p>
+ * Each endpoint keeps a moving average of its connect latency (connect and login) and transfer throughput.
+ * After {@code failureThreshold} consecutive connect or transfer failures its circuit opens and it is left out
+ * for {@code openMillis}, doubled on every failure after that up to ten times, instead of waiting out
+ * {@code connectTimeout} on it again. Once that time has passed it is tried again after the healthy endpoints,
+ * a success closes the circuit. Endpoints never used yet are tried first so they get measured.
+ * <p>
+ * Instances are thread-safe and usually shared, see {@link #DEFAULT}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class EndpointSelector {
+
+    public static final EndpointSelector DEFAULT = new EndpointSelector(3, 30000);
+
+    /**
+     * Transfer size the throughput is weighted against the connect latency with
+     */
+    private static final long REFERENCE_BYTES = 1024 * 1024;
+    /**
+     * Smaller transfers say more about latency than throughput
+     */
+    private static final long MIN_MEASURED_BYTES = 64 * 1024;
+    private static final double SMOOTHING = 0.3;
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Map<Endpoint, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param failureThreshold consecutive failures that open the circuit of an endpoint
+     * @param openMillis       time an endpoint is skipped once its circuit opened
+     */
+    public EndpointSelector(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @return endpoints to try in order: closed circuits by expected speed, then endpoints that failed
+     * recently. Open circuits are left out, unless every circuit is open: then all of them by the time they
+     * are due to be retried, so the result is never empty for a non-empty input.
+     */
+    public List<Endpoint> order(List<Endpoint> endpoints) {
+        return order(endpoints, System.currentTimeMillis());
+    }
+
+    List<Endpoint> order(List<Endpoint> endpoints, long now) {
+        // snapshot the stats, they may change while sorting
+        Map<Endpoint, Double> expectedMillis = new HashMap<>();
+        Map<Endpoint, Long> openUntil = new HashMap<>();
+        List<Endpoint> healthy = new ArrayList<>();
+        List<Endpoint> failing = new ArrayList<>();
+        List<Endpoint> open = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            Stats endpointStats = stats(endpoint);
+            long until = endpointStats.openUntil;
+            if (now < until) {
+                openUntil.put(endpoint, until);
+                open.add(endpoint);
+            } else {
+                expectedMillis.put(endpoint, endpointStats.expectedMillis());
+                (endpointStats.consecutiveFailures > 0 ? failing : healthy).add(endpoint);
+            }
+        }
+        if (healthy.isEmpty() && failing.isEmpty()) {
+            open.sort(Comparator.comparing(openUntil::get));
+            return open;
+        }
+        healthy.sort(Comparator.comparing(expectedMillis::get));
+        failing.sort(Comparator.comparing(expectedMillis::get));
+        healthy.addAll(failing);
+        return healthy;
+    }
+
+    /**
+     * @return true if the circuit of {@code endpoint} is open at the moment
+     */
+    public boolean isOpen(Endpoint endpoint) {
+        return System.currentTimeMillis() < stats(endpoint).openUntil;
+    }
+
+    public void recordConnect(Endpoint endpoint, long latencyMillis) {
+        Stats endpointStats = stats(endpoint);
+        synchronized (endpointStats) {
+            endpointStats.latencyMillis = average(endpointStats.latencyMillis, latencyMillis);
+            endpointStats.consecutiveFailures = 0;
+            endpointStats.openUntil = 0;
+        }
+    }
+
+    public void recordFailure(Endpoint endpoint) {
+        recordFailure(endpoint, System.currentTimeMillis());
+    }
+
+    void recordFailure(Endpoint endpoint, long now) {
+        Stats endpointStats = stats(endpoint);
+        synchronized (endpointStats) {
+            int failures = ++endpointStats.consecutiveFailures;
+            if (failures >= failureThreshold) {
+                int shift = Math.min(failures - failureThreshold, MAX_BACKOFF_SHIFT);
+                endpointStats.openUntil = now + (openMillis << shift);
+            }
+        }
+    }
+
+    /**
+     * Record a completed transfer of {@code bytes} that took {@code millis}. Like a connect it closes the
+     * circuit, failed transfers are recorded with {@link #recordFailure(Endpoint)}.
+     */
+    public void recordTransfer(Endpoint endpoint, long bytes, long millis) {
+        Stats endpointStats = stats(endpoint);
+        synchronized (endpointStats) {
+            if (bytes >= MIN_MEASURED_BYTES) {
+                endpointStats.bytesPerMilli = average(endpointStats.bytesPerMilli, (double) bytes / Math.max(1, millis));
+            }
+            endpointStats.consecutiveFailures = 0;
+            endpointStats.openUntil = 0;
+        }
+    }
+
+    private Stats stats(Endpoint endpoint) {
+        return stats.computeIfAbsent(endpoint, k -> new Stats());
+    }
+
+    private static double average(double average, double sample) {
+        return average < 0 ? sample : average + SMOOTHING * (sample - average);
+    }
+
+    private static class Stats {
+        private volatile double latencyMillis = -1;
+        private volatile double bytesPerMilli = -1;
+        private volatile int consecutiveFailures;
+        private volatile long openUntil;
+
+        /**
+         * Expected time to connect and move {@code REFERENCE_BYTES}, 0 while unknown.
+         */
+        double expectedMillis() {
+            double expected = Math.max(0, latencyMillis);
+            if (bytesPerMilli > 0) {
+                expected += REFERENCE_BYTES / bytesPerMilli;
+            }
+            return expected;
+        }
+    }
+}
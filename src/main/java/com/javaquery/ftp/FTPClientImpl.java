@@ -1,21 +1,25 @@
 package com.javaquery.ftp;
 
 import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.ListingSink;
 import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.parser.StreamingParserFactory;
 import com.javaquery.util.Is;
 import org.apache.commons.net.ProtocolCommandEvent;
 import org.apache.commons.net.ProtocolCommandListener;
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.io.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * @author javaquery
@@ -25,13 +29,27 @@ public class FTPClientImpl implements FileTransferClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FTPClientImpl.class);
     private FTPClient ftpClient;
+    private StreamingParserFactory parserFactory;
+    private DataConnectionNegotiator negotiator;
+    private PatternListing patternListing;
 
     @Override
     public void connect(Credentials credentials) throws FTPException {
         try {
-            ftpClient = new FTPClient();
+            NegotiatingFTPClient negotiatingFtpClient = new NegotiatingFTPClient();
+            ftpClient = negotiatingFtpClient;
+            negotiator = negotiatingFtpClient.negotiator;
+            patternListing = new PatternListing(false);
             ftpClient.setConnectTimeout(credentials.getConnectTimeout());
-            ftpClient.connect(credentials.getHost(), credentials.getPort());
+            if (Is.nonNull(credentials.getListEntryParser())) {
+                parserFactory = new StreamingParserFactory(credentials.getListEntryParser());
+                ftpClient.setParserFactory(parserFactory);
+            }
+            // the control connection uses the socket that won the connect race
+            Socket socket = HostResolver.connect(credentials);
+            ftpClient.setSocketFactory(new HostResolver.ConnectedSocketFactory(socket));
+            ftpClient.connect(socket.getInetAddress(), credentials.getPort());
+            negotiator.connected(credentials.getHost(), credentials.getPort());
             boolean login = ftpClient.login(credentials.getUsername(), credentials.getPassword());
             if (!login) {
                 throw new FTPException("Failed to login to FTP server with provided credentials", null);
@@ -61,8 +79,12 @@ public class FTPClientImpl implements FileTransferClient {
         Is.nonNull(ftpClient, () -> {
             try {
                 if (ftpClient.isConnected()) {
-                    ftpClient.logout();
-                    ftpClient.disconnect();
+                    try {
+                        ftpClient.logout();
+                    } finally {
+                        // closed even if the server dropped the connection already
+                        ftpClient.disconnect();
+                    }
                 }
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
@@ -71,36 +93,21 @@ public class FTPClientImpl implements FileTransferClient {
     }
 
     @Override
-    public List<RemoteFile> listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
-        if (Is.nonNull(directoryPath)) {
-            List<RemoteFile> result = new ArrayList<>();
+    public void listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter, ListingSink sink) throws FTPException {
+        if (Is.nonNull(directoryPath) && Is.nonNull(sink)) {
             try {
-                FTPFile[] files = ftpClient.listFiles(directoryPath);
-                for (FTPFile ftpFile : files) {
-                    String filepath = directoryPath.endsWith(File.separator) ? directoryPath + ftpFile.getName() : directoryPath + File.separatorChar + ftpFile.getName();
-
-                    RemoteFile remoteFile = RemoteFile.builder()
-                            .name(ftpFile.getName())
-                            .isFile(ftpFile.isFile())
-                            .isDirectory(ftpFile.isDirectory())
-                            .size(ftpFile.getSize())
-                            .timestamp(ftpFile.getTimestamp())
-                            .path(filepath)
-                            .build();
-                    if (Is.nonNull(fileFilter)) {
-                        if (fileFilter.accept(remoteFile)) {
-                            result.add(remoteFile);
-                        }
-                    } else {
-                        result.add(remoteFile);
+                patternListing.list(directoryPath, fileFilter, sink, (path, collector) -> {
+                    FTPFile[] files = negotiator.execute(() -> Is.nonNull(parserFactory)
+                            ? parserFactory.listFiles(ftpClient, path, collector)
+                            : ftpClient.listFiles(path));
+                    for (FTPFile ftpFile : files) {
+                        StreamingParserFactory.addEntry(collector, ftpFile);
                     }
-                }
-                return result;
+                });
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
             }
         }
-        return null;
     }
 
     @Override
@@ -111,7 +118,7 @@ public class FTPClientImpl implements FileTransferClient {
                 File localFile = new File(localFilePath);
                 if (localFile.exists() && localFile.isFile()) {
                     try (InputStream inputStream = Files.newInputStream(localFile.toPath())) {
-                        result = ftpClient.storeFile(remoteFilePath, inputStream);
+                        result = negotiator.execute(() -> ftpClient.storeFile(remoteFilePath, inputStream));
                     }
                 }
             } catch (Exception e) {
@@ -121,13 +128,26 @@ public class FTPClientImpl implements FileTransferClient {
         return result;
     }
 
+    @Override
+    public boolean uploadFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNull(inputStream) && Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                result = negotiator.execute(() -> ftpClient.storeFile(remoteFilePath, inputStream));
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean downloadFile(String remoteFilePath, String localFilePath) throws FTPException {
         boolean result = false;
         if (Is.nonNullNonEmpty(localFilePath) && Is.nonNullNonEmpty(remoteFilePath)) {
             try {
                 File localFile = new File(localFilePath);
-                try (InputStream inputStream = ftpClient.retrieveFileStream(remoteFilePath)) {
+                try (InputStream inputStream = negotiator.execute(() -> ftpClient.retrieveFileStream(remoteFilePath))) {
                     if (Is.nonNull(inputStream)) {
                         Files.copy(inputStream, localFile.toPath());
                         result = ftpClient.completePendingCommand();
@@ -140,6 +160,50 @@ public class FTPClientImpl implements FileTransferClient {
         return result;
     }
 
+    @Override
+    public boolean downloadFile(String remoteFilePath, OutputStream outputStream) throws FTPException {
+        return downloadFile(remoteFilePath, 0, outputStream);
+    }
+
+    @Override
+    public boolean downloadFile(String remoteFilePath, long offset, OutputStream outputStream) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNull(outputStream)) {
+            try {
+                InputStream inputStream = negotiator.execute(() -> {
+                    // sent as REST right before RETR, commons-net resets it once used
+                    ftpClient.setRestartOffset(offset);
+                    return ftpClient.retrieveFileStream(remoteFilePath);
+                });
+                if (Is.nonNull(inputStream)) {
+                    try {
+                        Util.copyStream(inputStream, outputStream);
+                    } finally {
+                        // read the transfer reply even if copying failed, it keeps the control connection usable
+                        inputStream.close();
+                        result = ftpClient.completePendingCommand();
+                    }
+                }
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean appendFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNull(inputStream) && Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                result = negotiator.execute(() -> ftpClient.appendFile(remoteFilePath, inputStream));
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean deleteFile(String remoteFilePath) throws FTPException {
         boolean result = false;
@@ -152,4 +216,67 @@ public class FTPClientImpl implements FileTransferClient {
         }
         return result;
     }
+
+    @Override
+    public boolean deleteDirectory(String remoteDirectoryPath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteDirectoryPath)) {
+            try {
+                result = ftpClient.removeDirectory(remoteDirectoryPath);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean renameFile(String remoteFilePath, String newRemoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNullNonEmpty(newRemoteFilePath)) {
+            try {
+                result = ftpClient.rename(remoteFilePath, newRemoteFilePath);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public RemoteFile stat(String remoteFilePath) throws FTPException {
+        RemoteFile result = null;
+        if (Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                result = FTPStat.stat(ftpClient, remoteFilePath);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Control connection used for server-to-server transfers.
+     */
+    FTPClient getFtpClient() {
+        return ftpClient;
+    }
+
+    /**
+     * Opens its data connections through a {@link DataConnectionNegotiator}.
+     */
+    private static class NegotiatingFTPClient extends FTPClient {
+        private final DataConnectionNegotiator negotiator = new DataConnectionNegotiator(this);
+
+        @Override
+        protected Socket _openDataConnection_(String command, String arg) throws IOException {
+            return negotiator.open(() -> super._openDataConnection_(command, arg));
+        }
+
+        @Override
+        public int epsv() throws IOException {
+            return negotiator.checkEpsv(super.epsv());
+        }
+    }
 }
@@ -1,20 +1,24 @@
 package com.javaquery.ftp;
 
 import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.ListingSink;
 import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.parser.StreamingParserFactory;
 import com.javaquery.util.Is;
 import org.apache.commons.net.ProtocolCommandEvent;
 import org.apache.commons.net.ProtocolCommandListener;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPSClient;
+import org.apache.commons.net.io.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * @author javaquery
@@ -24,13 +28,27 @@ public class FTPSClientImpl implements FileTransferClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FTPSClientImpl.class);
     private FTPSClient ftpsClient;
+    private StreamingParserFactory parserFactory;
+    private DataConnectionNegotiator negotiator;
+    private PatternListing patternListing;
 
     @Override
     public void connect(Credentials credentials) throws FTPException {
         try {
-            ftpsClient = new FTPSClient(credentials.isImplicit());
+            NegotiatingFTPSClient negotiatingFtpsClient = new NegotiatingFTPSClient(credentials.isImplicit(), credentials.getHost());
+            ftpsClient = negotiatingFtpsClient;
+            negotiator = negotiatingFtpsClient.negotiator;
+            patternListing = new PatternListing(false);
             ftpsClient.setConnectTimeout(credentials.getConnectTimeout());
-            ftpsClient.connect(credentials.getHost(), credentials.getPort());
+            if (Is.nonNull(credentials.getListEntryParser())) {
+                parserFactory = new StreamingParserFactory(credentials.getListEntryParser());
+                ftpsClient.setParserFactory(parserFactory);
+            }
+            // the control connection uses the socket that won the connect race
+            Socket socket = HostResolver.connect(credentials);
+            ftpsClient.setSocketFactory(new HostResolver.ConnectedSocketFactory(socket));
+            ftpsClient.connect(socket.getInetAddress(), credentials.getPort());
+            negotiator.connected(credentials.getHost(), credentials.getPort());
             boolean login = ftpsClient.login(credentials.getUsername(), credentials.getPassword());
             if (!login) {
                 throw new FTPException("Failed to login to FTPS server with provided credentials", null);
@@ -62,8 +80,12 @@ public class FTPSClientImpl implements FileTransferClient {
         Is.nonNull(ftpsClient, () -> {
             try {
                 if (ftpsClient.isConnected()) {
-                    ftpsClient.logout();
-                    ftpsClient.disconnect();
+                    try {
+                        ftpsClient.logout();
+                    } finally {
+                        // closed even if the server dropped the connection already
+                        ftpsClient.disconnect();
+                    }
                 }
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
@@ -72,36 +94,21 @@ public class FTPSClientImpl implements FileTransferClient {
     }
 
     @Override
-    public List<RemoteFile> listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
-        if (Is.nonNull(directoryPath)) {
-            List<RemoteFile> result = new ArrayList<>();
+    public void listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter, ListingSink sink) throws FTPException {
+        if (Is.nonNull(directoryPath) && Is.nonNull(sink)) {
             try {
-                FTPFile[] files = ftpsClient.listFiles(directoryPath);
-                for (FTPFile ftpFile : files) {
-                    String filepath = directoryPath.endsWith(File.separator) ? directoryPath + ftpFile.getName() : directoryPath + File.separatorChar + ftpFile.getName();
-
-                    RemoteFile remoteFile = RemoteFile.builder()
-                            .name(ftpFile.getName())
-                            .isFile(ftpFile.isFile())
-                            .isDirectory(ftpFile.isDirectory())
-                            .size(ftpFile.getSize())
-                            .timestamp(ftpFile.getTimestamp())
-                            .path(filepath)
-                            .build();
-                    if (Is.nonNull(fileFilter)) {
-                        if (fileFilter.accept(remoteFile)) {
-                            result.add(remoteFile);
-                        }
-                    } else {
-                        result.add(remoteFile);
+                patternListing.list(directoryPath, fileFilter, sink, (path, collector) -> {
+                    FTPFile[] files = negotiator.execute(() -> Is.nonNull(parserFactory)
+                            ? parserFactory.listFiles(ftpsClient, path, collector)
+                            : ftpsClient.listFiles(path));
+                    for (FTPFile ftpFile : files) {
+                        StreamingParserFactory.addEntry(collector, ftpFile);
                     }
-                }
-                return result;
+                });
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
             }
         }
-        return null;
     }
 
     @Override
@@ -112,7 +119,7 @@ public class FTPSClientImpl implements FileTransferClient {
                 File localFile = new File(localFilePath);
                 if (localFile.exists() && localFile.isFile()) {
                     try (InputStream inputStream = Files.newInputStream(localFile.toPath())) {
-                        result = ftpsClient.storeFile(remoteFilePath, inputStream);
+                        result = negotiator.execute(() -> ftpsClient.storeFile(remoteFilePath, inputStream));
                     }
                 }
             } catch (Exception e) {
@@ -122,13 +129,26 @@ public class FTPSClientImpl implements FileTransferClient {
         return result;
     }
 
+    @Override
+    public boolean uploadFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNull(inputStream) && Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                result = negotiator.execute(() -> ftpsClient.storeFile(remoteFilePath, inputStream));
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean downloadFile(String remoteFilePath, String localFilePath) throws FTPException {
         boolean result = false;
         if (Is.nonNullNonEmpty(localFilePath) && Is.nonNullNonEmpty(remoteFilePath)) {
             try {
                 File localFile = new File(localFilePath);
-                try (InputStream inputStream = ftpsClient.retrieveFileStream(remoteFilePath)) {
+                try (InputStream inputStream = negotiator.execute(() -> ftpsClient.retrieveFileStream(remoteFilePath))) {
                     if (Is.nonNull(inputStream)) {
                         Files.copy(inputStream, localFile.toPath());
                         result = ftpsClient.completePendingCommand();
@@ -141,6 +161,50 @@ public class FTPSClientImpl implements FileTransferClient {
         return result;
     }
 
+    @Override
+    public boolean downloadFile(String remoteFilePath, OutputStream outputStream) throws FTPException {
+        return downloadFile(remoteFilePath, 0, outputStream);
+    }
+
+    @Override
+    public boolean downloadFile(String remoteFilePath, long offset, OutputStream outputStream) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNull(outputStream)) {
+            try {
+                InputStream inputStream = negotiator.execute(() -> {
+                    // sent as REST right before RETR, commons-net resets it once used
+                    ftpsClient.setRestartOffset(offset);
+                    return ftpsClient.retrieveFileStream(remoteFilePath);
+                });
+                if (Is.nonNull(inputStream)) {
+                    try {
+                        Util.copyStream(inputStream, outputStream);
+                    } finally {
+                        // read the transfer reply even if copying failed, it keeps the control connection usable
+                        inputStream.close();
+                        result = ftpsClient.completePendingCommand();
+                    }
+                }
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean appendFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNull(inputStream) && Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                result = negotiator.execute(() -> ftpsClient.appendFile(remoteFilePath, inputStream));
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean deleteFile(String remoteFilePath) throws FTPException {
         boolean result = false;
@@ -153,4 +217,80 @@ public class FTPSClientImpl implements FileTransferClient {
         }
         return result;
     }
+
+    @Override
+    public boolean deleteDirectory(String remoteDirectoryPath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteDirectoryPath)) {
+            try {
+                result = ftpsClient.removeDirectory(remoteDirectoryPath);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean renameFile(String remoteFilePath, String newRemoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNullNonEmpty(newRemoteFilePath)) {
+            try {
+                result = ftpsClient.rename(remoteFilePath, newRemoteFilePath);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public RemoteFile stat(String remoteFilePath) throws FTPException {
+        RemoteFile result = null;
+        if (Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                result = FTPStat.stat(ftpsClient, remoteFilePath);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Control connection used for server-to-server transfers.
+     */
+    FTPSClient getFtpsClient() {
+        return ftpsClient;
+    }
+
+    /**
+     * Opens its data connections through a {@link DataConnectionNegotiator}.
+     */
+    private static class NegotiatingFTPSClient extends FTPSClient {
+        private final DataConnectionNegotiator negotiator = new DataConnectionNegotiator(this);
+        private final String hostname;
+
+        NegotiatingFTPSClient(boolean isImplicit, String hostname) {
+            super(isImplicit);
+            this.hostname = hostname;
+        }
+
+        @Override
+        protected void _connectAction_() throws IOException {
+            // connected by address, keep the name for SNI and hostname verification
+            _hostname_ = hostname;
+            super._connectAction_();
+        }
+
+        @Override
+        protected Socket _openDataConnection_(String command, String arg) throws IOException {
+            return negotiator.open(() -> super._openDataConnection_(command, arg));
+        }
+
+        @Override
+        public int epsv() throws IOException {
+            return negotiator.checkEpsv(super.epsv());
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.RemoteFile;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+
+import java.io.IOException;
+import java.util.Calendar;
+
+/**
+ * Attributes of a single remote path over the control connection, without opening a data connection:
+ * {@code MLST} if the server lists it in {@code FEAT}, otherwise {@code SIZE} and {@code MDTM}, which only
+ * work for regular files.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+final class FTPStat {
+
+    private FTPStat() {
+    }
+
+    /**
+     * @return attributes of {@code remoteFilePath}, null if the server doesn't know it
+     */
+    static RemoteFile stat(FTPClient ftpClient, String remoteFilePath) throws IOException {
+        String name = remoteFilePath.substring(remoteFilePath.lastIndexOf('/') + 1);
+        // commons-net sends FEAT once per connection and caches the reply
+        if (ftpClient.hasFeature("MLST")) {
+            FTPFile ftpFile = ftpClient.mlistFile(remoteFilePath);
+            if (ftpFile == null) {
+                return null;
+            }
+            return RemoteFile.builder()
+                    .name(name)
+                    .isFile(ftpFile.isFile())
+                    .isDirectory(ftpFile.isDirectory())
+                    .size(ftpFile.getSize())
+                    .timestamp(ftpFile.getTimestamp())
+                    .path(remoteFilePath)
+                    .build();
+        }
+
+        String size = ftpClient.getSize(remoteFilePath);
+        if (size == null) {
+            return null;
+        }
+        Calendar timestamp = ftpClient.mdtmCalendar(remoteFilePath);
+        return RemoteFile.builder()
+                .name(name)
+                .isFile(true)
+                .size(Long.parseLong(size.trim()))
+                .timestamp(timestamp)
+                .path(remoteFilePath)
+                .build();
+    }
+}
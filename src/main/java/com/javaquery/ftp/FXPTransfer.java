@@ -0,0 +1,191 @@
+package com.javaquery.ftp;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.net.ftp.FTPSClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server-to-server (FXP) transfer between two FTP or FTPS control connections: the target listens with
+ * {@code PASV}, the source connects to it after {@code PORT}, so the file never passes through this host.
+ * <p>
+ * With TLS on both data connections one server has to take the TLS client role, requested with
+ * {@code SSCN ON} on the source or, when that is not supported, {@code CPSV} instead of {@code PASV} on the
+ * target. When the servers don't allow FXP the file is streamed from one connection to the other instead.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+final class FXPTransfer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FXPTransfer.class);
+    private static final Pattern HOST_PORT = Pattern.compile("(\\d{1,3}),(\\d{1,3}),(\\d{1,3}),(\\d{1,3}),(\\d{1,3}),(\\d{1,3})");
+
+    private FXPTransfer() {
+    }
+
+    /**
+     * @return the commons-net client of an FTP or FTPS client, null for other protocols
+     */
+    static FTPClient ftpClientOf(FileTransferClient fileTransferClient) {
+        if (fileTransferClient instanceof FTPClientImpl) {
+            return ((FTPClientImpl) fileTransferClient).getFtpClient();
+        }
+        if (fileTransferClient instanceof FTPSClientImpl) {
+            return ((FTPSClientImpl) fileTransferClient).getFtpsClient();
+        }
+        return null;
+    }
+
+    /**
+     * Copy {@code sourceFilePath} to {@code targetFilePath} with FXP, streaming it through this host
+     * when FXP is refused.
+     */
+    static boolean transfer(FTPClient source, String sourceFilePath, FTPClient target, String targetFilePath) throws IOException {
+        Result result = fxpTransfer(source, sourceFilePath, target, targetFilePath);
+        if (result == Result.SOURCE_OUT_OF_STEP) {
+            LOGGER.warn("FXP transfer of {} failed, the source connection should be reconnected", sourceFilePath);
+            return false;
+        }
+        if (result == Result.TRANSFERRED) {
+            return true;
+        }
+        LOGGER.info("FXP transfer of {} not possible, relaying it through this host", sourceFilePath);
+        return relay(source, sourceFilePath, target, targetFilePath);
+    }
+
+    /**
+     * @return false if the servers refused the transfer or it failed, nothing is left pending on either connection
+     */
+    static boolean fxp(FTPClient source, String sourceFilePath, FTPClient target, String targetFilePath) throws IOException {
+        return fxpTransfer(source, sourceFilePath, target, targetFilePath) == Result.TRANSFERRED;
+    }
+
+    private static Result fxpTransfer(FTPClient source, String sourceFilePath, FTPClient target, String targetFilePath) throws IOException {
+        boolean secure = source instanceof FTPSClient;
+        if (secure != target instanceof FTPSClient) {
+            // one side would send TLS records to a plain socket
+            return Result.NOT_TRANSFERRED;
+        }
+
+        String passiveCommand = "PASV";
+        boolean sscn = false;
+        boolean outOfStep = false;
+        if (secure) {
+            sscn = FTPReply.isPositiveCompletion(source.sendCommand("SSCN", "ON"));
+            if (!sscn) {
+                passiveCommand = "CPSV";
+            }
+        }
+        try {
+            if (!FTPReply.isPositiveCompletion(target.sendCommand(passiveCommand))) {
+                return Result.NOT_TRANSFERRED;
+            }
+            String hostPort = passiveHostPort(target);
+            if (hostPort == null || !FTPReply.isPositiveCompletion(source.sendCommand("PORT", hostPort))) {
+                return Result.NOT_TRANSFERRED;
+            }
+            // the source connects to the target's listening socket right away, the target accepts it on STOR,
+            // so nothing is left pending on the target when the source file can't be read
+            if (!FTPReply.isPositivePreliminary(source.retr(sourceFilePath))) {
+                return Result.NOT_TRANSFERRED;
+            }
+            if (!FTPReply.isPositivePreliminary(target.stor(targetFilePath))) {
+                outOfStep = !abort(source, sourceFilePath);
+                return outOfStep ? Result.SOURCE_OUT_OF_STEP : Result.NOT_TRANSFERRED;
+            }
+            // read both transfer replies even if the first one reports a failure
+            boolean sent = source.completePendingCommand();
+            boolean received = target.completePendingCommand();
+            return sent && received ? Result.TRANSFERRED : Result.NOT_TRANSFERRED;
+        } finally {
+            if (sscn && !outOfStep) {
+                source.sendCommand("SSCN", "OFF");
+            }
+        }
+    }
+
+    /**
+     * Stop the transfer of a source whose target refused it. The source may be blocked writing to the target's
+     * data port, which nobody accepts, so waiting for its transfer reply could take forever. {@code ABOR} is
+     * answered with two replies, one for the transfer and one for itself.
+     *
+     * @return false if the source didn't answer in time, its control connection is out of step then
+     */
+    private static boolean abort(FTPClient source, String sourceFilePath) throws IOException {
+        try {
+            source.abor();
+            source.getReply();
+            return true;
+        } catch (SocketTimeoutException e) {
+            LOGGER.warn("Source didn't answer ABOR of {}: {}", sourceFilePath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stream the file from the source's data connection straight into the target's.
+     */
+    static boolean relay(FTPClient source, String sourceFilePath, FTPClient target, String targetFilePath) throws IOException {
+        InputStream inputStream = source.retrieveFileStream(sourceFilePath);
+        if (inputStream == null) {
+            return false;
+        }
+        boolean stored = false;
+        try {
+            stored = target.storeFile(targetFilePath, inputStream);
+        } finally {
+            inputStream.close();
+            stored = source.completePendingCommand() && stored;
+        }
+        return stored;
+    }
+
+    /**
+     * {@code h1,h2,h3,h4,p1,p2} of the last passive reply of {@code target}. A private address is replaced with
+     * the address of the control connection, as commons-net does for passive mode behind NAT.
+     */
+    private static String passiveHostPort(FTPClient target) {
+        Matcher matcher = HOST_PORT.matcher(target.getReplyString());
+        if (!matcher.find()) {
+            return null;
+        }
+        String hostPort = matcher.group();
+        InetAddress remoteAddress = target.getRemoteAddress();
+        try {
+            InetAddress passiveAddress = InetAddress.getByName(matcher.group(1) + "." + matcher.group(2) + "." + matcher.group(3) + "." + matcher.group(4));
+            if ((passiveAddress.isSiteLocalAddress() || passiveAddress.isLoopbackAddress())
+                    && !remoteAddress.isSiteLocalAddress() && !remoteAddress.isLoopbackAddress()) {
+                if (!(remoteAddress instanceof Inet4Address)) {
+                    // PORT only takes IPv4 addresses
+                    return null;
+                }
+                hostPort = remoteAddress.getHostAddress().replace('.', ',') + "," + matcher.group(5) + "," + matcher.group(6);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return hostPort;
+    }
+
+    private enum Result {
+        TRANSFERRED,
+        /**
+         * Refused or failed, streaming it through this host may still work
+         */
+        NOT_TRANSFERRED,
+        /**
+         * Failed and the source didn't answer {@code ABOR}, its replies can't be matched to commands anymore
+         */
+        SOURCE_OUT_OF_STEP
+    }
+}
@@ -3,6 +3,9 @@ package com.javaquery.ftp;
 /**
  * @author javaquery
  * @since 2025-10-30
+ * <p>
+ * The file passed to {@link #accept(Object)} may be reused for the next listing entry,
+ * copy the values you need instead of keeping the instance.
  */
 public interface FileFilter<RemoteFile> {
     boolean accept(RemoteFile file);
@@ -0,0 +1,208 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.util.Is;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Filters that can be combined with {@link #and(FileFilter[])}, {@link #or(FileFilter[])} and
+ * {@link #not(FileFilter)}. Unlike a lambda, {@code listFiles} can see inside them: a name glob that every
+ * accepted file has to match is sent to the server with the listing ({@code LIST /data/*.csv}) when the server
+ * supports it, so it only sends the entries that match. The whole filter is still evaluated on every entry.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public final class FileFilters {
+
+    private FileFilters() {
+    }
+
+    /**
+     * @param glob name pattern, {@code *} matches any characters, {@code ?} one character and {@code [abc]} or
+     *             {@code [!abc]} one of (or none of) the characters in the brackets
+     */
+    public static FileFilter<RemoteFile> nameGlob(String glob) {
+        return new NameGlob(glob);
+    }
+
+    public static FileFilter<RemoteFile> nameRegex(String regex) {
+        return nameRegex(Pattern.compile(regex));
+    }
+
+    /**
+     * @param pattern has to match the whole name
+     */
+    public static FileFilter<RemoteFile> nameRegex(Pattern pattern) {
+        return file -> pattern.matcher(file.getName()).matches();
+    }
+
+    /**
+     * @param minBytes inclusive
+     * @param maxBytes inclusive
+     */
+    public static FileFilter<RemoteFile> sizeBetween(long minBytes, long maxBytes) {
+        return file -> file.getSize() >= minBytes && file.getSize() <= maxBytes;
+    }
+
+    /**
+     * Entries without a last modified time are rejected.
+     *
+     * @param fromMillis inclusive, epoch milliseconds
+     * @param toMillis   exclusive, epoch milliseconds
+     */
+    public static FileFilter<RemoteFile> modifiedBetween(long fromMillis, long toMillis) {
+        return file -> {
+            Calendar timestamp = file.getTimestamp();
+            return Is.nonNull(timestamp) && timestamp.getTimeInMillis() >= fromMillis && timestamp.getTimeInMillis() < toMillis;
+        };
+    }
+
+    public static FileFilter<RemoteFile> files() {
+        return RemoteFile::isFile;
+    }
+
+    public static FileFilter<RemoteFile> directories() {
+        return RemoteFile::isDirectory;
+    }
+
+    /**
+     * @return filter accepting the files all {@code filters} accept, evaluated in the given order
+     */
+    @SafeVarargs
+    public static FileFilter<RemoteFile> and(FileFilter<RemoteFile>... filters) {
+        List<FileFilter<RemoteFile>> conditions = new ArrayList<>(filters.length);
+        // copied element by element, the array itself must not escape
+        for (FileFilter<RemoteFile> filter : filters) {
+            conditions.add(filter);
+        }
+        return new And(conditions);
+    }
+
+    /**
+     * @return filter accepting the files any of {@code filters} accepts, evaluated in the given order
+     */
+    @SafeVarargs
+    public static FileFilter<RemoteFile> or(FileFilter<RemoteFile>... filters) {
+        List<FileFilter<RemoteFile>> alternatives = new ArrayList<>(filters.length);
+        for (FileFilter<RemoteFile> filter : filters) {
+            alternatives.add(filter);
+        }
+        return file -> {
+            for (FileFilter<RemoteFile> alternative : alternatives) {
+                if (alternative.accept(file)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    public static FileFilter<RemoteFile> not(FileFilter<RemoteFile> filter) {
+        return file -> !filter.accept(file);
+    }
+
+    /**
+     * @return a name glob every file accepted by {@code filter} matches and that servers understand the same
+     * way, or null if there is none
+     */
+    static String serverGlob(FileFilter<?> filter) {
+        if (filter instanceof NameGlob) {
+            String glob = ((NameGlob) filter).glob;
+            return isPortable(glob) ? glob : null;
+        }
+        if (filter instanceof And) {
+            for (FileFilter<RemoteFile> condition : ((And) filter).conditions) {
+                String glob = serverGlob(condition);
+                if (glob != null) {
+                    return glob;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Only {@code *} and {@code ?} mean the same to every server. Spaces and a leading {@code -} could be
+     * taken as LIST options.
+     */
+    private static boolean isPortable(String glob) {
+        if (glob.isEmpty() || glob.charAt(0) == '-') {
+            return false;
+        }
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '[' || c == ']' || c == '\\' || c == '/' || c == '{' || c == '}' || Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i++);
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (c == '[' && glob.indexOf(']', i + 1) > 0) {
+                int end = glob.indexOf(']', i + 1);
+                String characters = glob.substring(i, end);
+                boolean negated = characters.startsWith("!");
+                regex.append(negated ? "[^" : "[");
+                for (char member : (negated ? characters.substring(1) : characters).toCharArray()) {
+                    // keep ranges like a-z, escape everything else that isn't a letter or digit
+                    if (member != '-' && !Character.isLetterOrDigit(member)) {
+                        regex.append('\\');
+                    }
+                    regex.append(member);
+                }
+                regex.append(']');
+                i = end + 1;
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static class NameGlob implements FileFilter<RemoteFile> {
+        private final String glob;
+        private final Pattern pattern;
+
+        NameGlob(String glob) {
+            this.glob = glob;
+            this.pattern = globToPattern(glob);
+        }
+
+        @Override
+        public boolean accept(RemoteFile file) {
+            return pattern.matcher(file.getName()).matches();
+        }
+    }
+
+    private static class And implements FileFilter<RemoteFile> {
+        private final List<FileFilter<RemoteFile>> conditions;
+
+        And(List<FileFilter<RemoteFile>> conditions) {
+            this.conditions = new ArrayList<>(conditions);
+        }
+
+        @Override
+        public boolean accept(RemoteFile file) {
+            for (FileFilter<RemoteFile> condition : conditions) {
+                if (!condition.accept(file)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.BoundedPipe;
+import com.javaquery.ftp.io.BufferPool;
+import com.javaquery.ftp.io.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copies files between two {@link JFTPClient}s of any protocol without a local copy: the source is downloaded
+ * on a separate thread into a {@link BoundedPipe} while the current thread uploads from it to the target.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public final class FileRelay {
+
+    public static final int DEFAULT_PIPE_SIZE = 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileRelay.class);
+
+    private FileRelay() {
+    }
+
+    /**
+     * @param pipeSize maximum number of bytes buffered between download and upload
+     * @return true if both servers confirmed the transfer, false if one of them refused it
+     * @throws FTPException of the side that failed first, the other side failing is only its consequence
+     */
+    public static boolean copy(JFTPClient source, String sourceFilePath, JFTPClient target, String targetFilePath, int pipeSize) throws FTPException {
+        Failure failure = relay(source, sourceFilePath, target, targetFilePath, pipeSize);
+        if (failure == null) {
+            return true;
+        }
+        if (failure.exception != null) {
+            throw failure.exception;
+        }
+        return false;
+    }
+
+    /**
+     * @return null if both servers confirmed the transfer, otherwise the side that stopped first
+     */
+    private static Failure relay(JFTPClient source, String sourceFilePath, JFTPClient target, String targetFilePath, int pipeSize) {
+        BoundedPipe pipe = new BoundedPipe(BufferPool.DEFAULT, pipeSize);
+        // the side that stops first closes its end of the pipe, which stops the other side
+        AtomicReference<Failure> firstFailure = new AtomicReference<>();
+        Future<?> download = pipe.writeAsync(outputStream -> {
+            boolean downloaded;
+            try {
+                downloaded = source.downloadFile(sourceFilePath, outputStream);
+            } catch (Exception e) {
+                firstFailure.compareAndSet(null, new Failure(toFTPException(e), true, false));
+                throw e;
+            }
+            if (!downloaded) {
+                firstFailure.compareAndSet(null, Failure.SOURCE_REFUSED);
+                throw new IOException("Download of " + sourceFilePath + " was not confirmed");
+            }
+        });
+
+        try {
+            try {
+                // a source that can't be read must not leave an empty file on the target
+                if (pipe.awaitInput() && !target.uploadFile(pipe.getInputStream(), targetFilePath)) {
+                    firstFailure.compareAndSet(null, Failure.TARGET_REFUSED);
+                }
+            } catch (FTPException e) {
+                firstFailure.compareAndSet(null, new Failure(e, false, true));
+            } finally {
+                // unblocks the download if the upload stopped reading early
+                pipe.getInputStream().close();
+            }
+            download.get();
+        } catch (InterruptedException | InterruptedIOException e) {
+            Thread.currentThread().interrupt();
+            // the download may still be using the source
+            return new Failure(new FTPException(e.getMessage(), e), true, true);
+        } catch (IOException | ExecutionException e) {
+            return new Failure(new FTPException(e.getMessage(), e), true, true);
+        }
+        return firstFailure.get();
+    }
+
+    /**
+     * Copy several files using up to {@link JFTPClientPool#getMaxSize()} connections of each pool in parallel.
+     * Clients that failed with an exception are invalidated. Within a single pool every copy needs two
+     * connections, so at most half of them copy in parallel.
+     *
+     * @param files source path to target path
+     * @return source path to whether its copy succeeded, in the order of {@code files}
+     * @throws FTPException if {@code sourcePool} is {@code targetPool} and has fewer than two connections
+     */
+    public static Map<String, Boolean> copyFiles(JFTPClientPool sourcePool, JFTPClientPool targetPool, Map<String, String> files) throws FTPException {
+        // a copy holds one client while borrowing the other, more copies than pairs of clients could starve
+        int parallelism = sourcePool == targetPool
+                ? sourcePool.getMaxSize() / 2
+                : Math.min(sourcePool.getMaxSize(), targetPool.getMaxSize());
+        if (parallelism == 0) {
+            throw new FTPException("Copying within one pool needs at least 2 connections", null);
+        }
+        ExecutorService writers = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("ftp-relay"));
+        try {
+            Map<String, Future<Boolean>> copies = new LinkedHashMap<>();
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                copies.put(file.getKey(), writers.submit(() -> copyPooled(sourcePool, file.getKey(), targetPool, file.getValue())));
+            }
+
+            Map<String, Boolean> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<Boolean>> copy : copies.entrySet()) {
+                result.put(copy.getKey(), copy.getValue().get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FTPException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new FTPException(e.getMessage(), e);
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    private static boolean copyPooled(JFTPClientPool sourcePool, String sourceFilePath, JFTPClientPool targetPool, String targetFilePath) {
+        JFTPClient source = null;
+        JFTPClient target = null;
+        // until the copy reports otherwise, e.g. after an unexpected exception
+        boolean sourceFailed = true;
+        boolean targetFailed = true;
+        try {
+            try {
+                source = sourcePool.borrow();
+                target = targetPool.borrow();
+            } catch (FTPException e) {
+                // no connection, the client already borrowed is fine
+                sourceFailed = false;
+                targetFailed = false;
+                LOGGER.warn("Failed to copy {} to {}: {}", sourceFilePath, targetFilePath, e.getMessage());
+                return false;
+            }
+            Failure failure = relay(source, sourceFilePath, target, targetFilePath, DEFAULT_PIPE_SIZE);
+            sourceFailed = failure != null && failure.sourceFailed;
+            targetFailed = failure != null && failure.targetFailed;
+            if (failure != null && failure.exception != null) {
+                LOGGER.warn("Failed to copy {} to {}: {}", sourceFilePath, targetFilePath, failure.exception.getMessage());
+            }
+            return failure == null;
+        } finally {
+            if (sourceFailed) {
+                sourcePool.invalidate(source);
+            } else {
+                sourcePool.release(source);
+            }
+            if (targetFailed) {
+                targetPool.invalidate(target);
+            } else {
+                targetPool.release(target);
+            }
+        }
+    }
+
+    private static FTPException toFTPException(Exception e) {
+        return e instanceof FTPException ? (FTPException) e : new FTPException(e.getMessage(), e);
+    }
+
+    /**
+     * Why a copy stopped: a refusal has no exception and leaves both connections usable.
+     */
+    private static final class Failure {
+        private static final Failure SOURCE_REFUSED = new Failure(null, false, false);
+        private static final Failure TARGET_REFUSED = new Failure(null, false, false);
+
+        private final FTPException exception;
+        private final boolean sourceFailed;
+        private final boolean targetFailed;
+
+        Failure(FTPException exception, boolean sourceFailed, boolean targetFailed) {
+            this.exception = exception;
+            this.sourceFailed = sourceFailed;
+            this.targetFailed = targetFailed;
+        }
+    }
+}
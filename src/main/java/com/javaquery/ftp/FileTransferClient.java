@@ -1,9 +1,12 @@
 package com.javaquery.ftp;
 
 import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.ListingSink;
 import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
 
-import java.util.List;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * @author javaquery
@@ -14,11 +17,54 @@ public interface FileTransferClient {
 
     void disconnect() throws FTPException;
 
-    List<RemoteFile> listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException;
+    default RemoteFileList listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
+        if (directoryPath == null) {
+            return null;
+        }
+        RemoteFileList remoteFileList = new RemoteFileList(directoryPath);
+        listFiles(directoryPath, fileFilter, remoteFileList);
+        return remoteFileList;
+    }
+
+    /**
+     * Pass the entries accepted by {@code fileFilter} to {@code sink} while the listing is read, without
+     * collecting them.
+     */
+    void listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter, ListingSink sink) throws FTPException;
 
     boolean uploadFile(String localFilePath, String remoteFilePath) throws FTPException;
 
+    boolean uploadFile(InputStream inputStream, String remoteFilePath) throws FTPException;
+
     boolean downloadFile(String remoteFilePath, String localFilePath) throws FTPException;
 
+    boolean downloadFile(String remoteFilePath, OutputStream outputStream) throws FTPException;
+
+    /**
+     * Download {@code remoteFilePath} from byte {@code offset} to its end.
+     */
+    boolean downloadFile(String remoteFilePath, long offset, OutputStream outputStream) throws FTPException;
+
+    /**
+     * Append to the end of {@code remoteFilePath}, creating it if it doesn't exist.
+     */
+    boolean appendFile(InputStream inputStream, String remoteFilePath) throws FTPException;
+
     boolean deleteFile(String remoteFilePath) throws FTPException;
+
+    /**
+     * Remove an empty directory.
+     */
+    boolean deleteDirectory(String remoteDirectoryPath) throws FTPException;
+
+    /**
+     * Rename or move {@code remoteFilePath} on the server, without transferring it.
+     */
+    boolean renameFile(String remoteFilePath, String newRemoteFilePath) throws FTPException;
+
+    /**
+     * @return size, last modified time and type of {@code remoteFilePath} from a single request where the
+     * server allows it, null if it doesn't exist
+     */
+    RemoteFile stat(String remoteFilePath) throws FTPException;
 }
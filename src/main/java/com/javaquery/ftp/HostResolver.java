@@ -0,0 +1,209 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.DaemonThreadFactory;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Picks the address to connect to. Host names come from the {@link DnsCache} of the credentials. When a
+ * host has several addresses, TCP connects are started one after the other, {@code connectAttemptDelayMillis}
+ * apart or as soon as the previous one failed, and the first address that accepts wins, so a dead address
+ * costs at most the delay instead of the whole {@code connectTimeout}.
+ * <p>
+ * The winning socket is handed to the client, see {@link #connect(Credentials)}. Only clients that open their
+ * own channels use {@link #resolve(Credentials)} and connect to the winning address again; the address just
+ * accepted a connection and is preferred by the {@link DnsCache} from then on, so that costs a round trip
+ * but no second race.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+final class HostResolver {
+
+    private static final ExecutorService CONNECTORS = Executors.newCachedThreadPool(new DaemonThreadFactory("ftp-connect"));
+
+    private HostResolver() {
+    }
+
+    /**
+     * @return socket connected to an address of {@code credentials.getHost()}, the address carries the host name
+     */
+    static Socket connect(Credentials credentials) throws IOException {
+        DnsCache dnsCache = credentials.getDnsCache() != null ? credentials.getDnsCache() : DnsCache.DEFAULT;
+        List<InetAddress> addresses = dnsCache.resolve(credentials.getHost());
+        if (addresses.size() == 1 || credentials.getConnectAttemptDelayMillis() <= 0) {
+            Socket socket = new ConnectedSocket();
+            try {
+                socket.connect(new InetSocketAddress(addresses.get(0), credentials.getPort()), credentials.getConnectTimeout());
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            return socket;
+        }
+        Socket socket = race(addresses, credentials.getPort(), credentials.getConnectAttemptDelayMillis(), credentials.getConnectTimeout());
+        dnsCache.prefer(credentials.getHost(), socket.getInetAddress());
+        return socket;
+    }
+
+    /**
+     * @return address of {@code credentials.getHost()} to connect to, carrying the host name
+     */
+    static InetAddress resolve(Credentials credentials) throws IOException {
+        DnsCache dnsCache = credentials.getDnsCache() != null ? credentials.getDnsCache() : DnsCache.DEFAULT;
+        List<InetAddress> addresses = dnsCache.resolve(credentials.getHost());
+        if (addresses.size() == 1 || credentials.getConnectAttemptDelayMillis() <= 0) {
+            return addresses.get(0);
+        }
+        try (Socket socket = race(addresses, credentials.getPort(), credentials.getConnectAttemptDelayMillis(), credentials.getConnectTimeout())) {
+            dnsCache.prefer(credentials.getHost(), socket.getInetAddress());
+            return socket.getInetAddress();
+        }
+    }
+
+    /**
+     * @return connected socket of the winning address, the other attempts are closed
+     */
+    static Socket race(List<InetAddress> addresses, int port, long attemptDelayMillis, int connectTimeout) throws IOException {
+        Probes probes = new Probes();
+        CompletionService<Socket> attempts = new ExecutorCompletionService<>(CONNECTORS);
+        List<Future<Socket>> futures = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectTimeout);
+        IOException lastException = null;
+        int failed = 0;
+        try {
+            futures.add(attempts.submit(() -> attempt(probes, addresses.get(0), port, connectTimeout)));
+            while (failed < addresses.size()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                Future<Socket> done = futures.size() < addresses.size()
+                        ? attempts.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(attemptDelayMillis)), TimeUnit.NANOSECONDS)
+                        : attempts.poll(remaining, TimeUnit.NANOSECONDS);
+                if (done != null) {
+                    try {
+                        Socket socket = done.get();
+                        probes.remove(socket);
+                        return socket;
+                    } catch (ExecutionException e) {
+                        failed++;
+                        lastException = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                    }
+                }
+                // the previous attempt failed or is taking too long
+                if (futures.size() < addresses.size()) {
+                    InetAddress next = addresses.get(futures.size());
+                    futures.add(attempts.submit(() -> attempt(probes, next, port, connectTimeout)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            // also aborts the attempts still connecting
+            probes.close();
+        }
+        throw lastException != null ? lastException : new IOException("Connect to " + addresses + " port " + port + " timed out");
+    }
+
+    private static Socket attempt(Probes probes, InetAddress address, int port, int connectTimeout) throws IOException {
+        Socket socket = new ConnectedSocket();
+        probes.add(socket);
+        socket.connect(new InetSocketAddress(address, port), connectTimeout);
+        return socket;
+    }
+
+    /**
+     * Socket that ignores a connect to the address it is already connected to, so clients that connect the
+     * sockets of their factory themselves can be given one from {@link #connect(Credentials)}.
+     */
+    private static class ConnectedSocket extends Socket {
+        @Override
+        public void connect(SocketAddress endpoint, int timeout) throws IOException {
+            if (!isConnected() || !endpoint.equals(getRemoteSocketAddress())) {
+                super.connect(endpoint, timeout);
+            }
+        }
+    }
+
+    /**
+     * Hands {@code socket} to the first {@link #createSocket()} (the control connection of commons-net), every
+     * later call gets a new socket.
+     */
+    static class ConnectedSocketFactory extends SocketFactory {
+        private final AtomicReference<Socket> socket;
+
+        ConnectedSocketFactory(Socket socket) {
+            this.socket = new AtomicReference<>(socket);
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            Socket connected = socket.getAndSet(null);
+            return connected != null ? connected : new Socket();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return new Socket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localAddress, int localPort) throws IOException {
+            return new Socket(host, port, localAddress, localPort);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port) throws IOException {
+            return new Socket(address, port);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            return new Socket(address, port, localAddress, localPort);
+        }
+    }
+
+    private static class Probes {
+        private final List<Socket> sockets = new ArrayList<>();
+        private boolean closed;
+
+        synchronized void add(Socket socket) throws IOException {
+            if (closed) {
+                throw new IOException("Connect race is over");
+            }
+            sockets.add(socket);
+        }
+
+        synchronized void remove(Socket socket) {
+            sockets.remove(socket);
+        }
+
+        synchronized void close() {
+            closed = true;
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // lost the race
+                }
+            }
+        }
+    }
+}
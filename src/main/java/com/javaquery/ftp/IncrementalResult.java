@@ -0,0 +1,34 @@
+package com.javaquery.ftp;
+
+import lombok.Getter;
+
+/**
+ * Outcome of {@link JFTPClient#downloadIncremental(String, String)} and
+ * {@link JFTPClient#uploadIncremental(String, String)}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Getter
+public class IncrementalResult {
+
+    /**
+     * Position in the target file where the transferred bytes start
+     */
+    private final long offset;
+    /**
+     * Bytes transferred, 0 if the source didn't grow
+     */
+    private final long length;
+    /**
+     * True if the source shrank or was rotated and the target was written again from the start, dropping
+     * what it held before
+     */
+    private final boolean restarted;
+
+    IncrementalResult(long offset, long length, boolean restarted) {
+        this.offset = offset;
+        this.length = length;
+        this.restarted = restarted;
+    }
+}
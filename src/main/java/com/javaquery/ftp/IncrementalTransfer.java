@@ -0,0 +1,225 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.CountingInputStream;
+import com.javaquery.ftp.io.CountingOutputStream;
+import com.javaquery.ftp.io.RemoteFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Transfers only what a growing file gained since the last run. The target file is the state: its length is
+ * the offset to continue from, so nothing else has to be stored and an interrupted transfer simply continues.
+ * <p>
+ * A source that shrank is transferred again from the start. A source that was rotated and has already grown
+ * past the offset is caught by transferring the last {@link #OVERLAP} bytes before the offset again and
+ * comparing them with the target. Downloads also set the last modified time of the local file to that of the
+ * remote file, so an unchanged remote file costs a single {@link JFTPClient#stat(String)}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+final class IncrementalTransfer {
+
+    static final int OVERLAP = 4096;
+
+    private IncrementalTransfer() {
+    }
+
+    /**
+     * @return null if the remote file doesn't exist or the server didn't confirm the transfer
+     */
+    static IncrementalResult download(JFTPClient jftpClient, String remoteFilePath, String localFilePath) throws IOException {
+        RemoteFile remoteFile = jftpClient.statUncached(remoteFilePath);
+        if (remoteFile == null) {
+            return null;
+        }
+        Path localFile = Paths.get(localFilePath);
+        long offset = Files.exists(localFile) ? Files.size(localFile) : 0;
+        Long lastModified = remoteFile.getTimestamp() != null ? remoteFile.getTimestamp().getTimeInMillis() : null;
+        if (offset > 0 && remoteFile.getSize() == offset && lastModified != null
+                && Files.getLastModifiedTime(localFile).toMillis() == lastModified) {
+            return new IncrementalResult(offset, 0, false);
+        }
+
+        if (offset > 0 && remoteFile.getSize() >= offset) {
+            int overlap = (int) Math.min(OVERLAP, offset);
+            VerifyingOutputStream outputStream = new VerifyingOutputStream(read(localFile, offset - overlap, overlap),
+                    Files.newOutputStream(localFile, StandardOpenOption.APPEND));
+            boolean result;
+            try {
+                result = jftpClient.downloadFile(remoteFilePath, offset - overlap, outputStream);
+            } catch (RuntimeException e) {
+                if (!outputStream.isMismatch()) {
+                    throw e;
+                }
+                result = false;
+            } finally {
+                outputStream.close();
+            }
+            if (!outputStream.isMismatch() && outputStream.isVerified()) {
+                // bytes appended before a failure continue the file correctly, the next run picks up after them
+                if (!result) {
+                    return null;
+                }
+                setLastModified(localFile, lastModified);
+                return new IncrementalResult(offset, outputStream.getAppended(), false);
+            }
+        }
+
+        // new, shrunk or rotated
+        boolean result;
+        CountingOutputStream outputStream = new CountingOutputStream(Files.newOutputStream(localFile));
+        try {
+            result = jftpClient.downloadFile(remoteFilePath, outputStream);
+        } finally {
+            outputStream.close();
+        }
+        if (!result) {
+            return null;
+        }
+        setLastModified(localFile, lastModified);
+        return new IncrementalResult(0, outputStream.getCount(), offset > 0);
+    }
+
+    /**
+     * @return null if the server didn't confirm the transfer
+     */
+    static IncrementalResult upload(JFTPClient jftpClient, String localFilePath, String remoteFilePath) throws IOException {
+        Path localFile = Paths.get(localFilePath);
+        long length = Files.size(localFile);
+        RemoteFile remoteFile = jftpClient.statUncached(remoteFilePath);
+        long offset = remoteFile != null ? remoteFile.getSize() : 0;
+        if (remoteFile != null && offset == length) {
+            return new IncrementalResult(offset, 0, false);
+        }
+
+        if (offset > 0 && offset < length) {
+            int overlap = (int) Math.min(OVERLAP, offset);
+            VerifyingOutputStream outputStream = new VerifyingOutputStream(read(localFile, offset - overlap, overlap), null);
+            try {
+                jftpClient.downloadFile(remoteFilePath, offset - overlap, outputStream);
+            } catch (RuntimeException e) {
+                if (!outputStream.isMismatch()) {
+                    throw e;
+                }
+            }
+            if (!outputStream.isMismatch() && outputStream.isVerified()) {
+                try (FileChannel channel = FileChannel.open(localFile)) {
+                    CountingInputStream inputStream = new CountingInputStream(Channels.newInputStream(channel.position(offset)));
+                    if (!jftpClient.appendFile(inputStream, remoteFilePath)) {
+                        return null;
+                    }
+                    return new IncrementalResult(offset, inputStream.getCount(), false);
+                }
+            }
+        }
+
+        // new, shrunk or rotated
+        try (CountingInputStream inputStream = new CountingInputStream(Files.newInputStream(localFile))) {
+            if (!jftpClient.uploadFile(inputStream, remoteFilePath)) {
+                return null;
+            }
+            return new IncrementalResult(0, inputStream.getCount(), offset > 0);
+        }
+    }
+
+    private static byte[] read(Path file, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) == -1) {
+                    throw new NoSuchFileException(file + " shrank while reading it");
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void setLastModified(Path localFile, Long lastModified) throws IOException {
+        if (lastModified != null) {
+            Files.setLastModifiedTime(localFile, FileTime.fromMillis(lastModified));
+        }
+    }
+
+    /**
+     * Compares the first bytes written with the expected ones and passes the rest on. Stops the transfer on the
+     * first difference, and when bytes follow the expected ones but there is nowhere to pass them on to.
+     */
+    private static class VerifyingOutputStream extends OutputStream {
+
+        private final byte[] expected;
+        private final OutputStream outputStream;
+        private int verified;
+        private long appended;
+        private boolean mismatch;
+
+        /**
+         * @param outputStream receives the bytes after the expected ones, null if there should be none
+         */
+        VerifyingOutputStream(byte[] expected, OutputStream outputStream) {
+            this.expected = expected;
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (mismatch) {
+                throw new IOException("Content differs from the local file");
+            }
+            int compare = Math.min(len, expected.length - verified);
+            for (int i = 0; i < compare; i++) {
+                if (b[off + i] != expected[verified + i]) {
+                    mismatch = true;
+                    throw new IOException("Content differs from the local file");
+                }
+            }
+            verified += compare;
+            if (compare < len) {
+                if (outputStream == null) {
+                    mismatch = true;
+                    throw new IOException("Remote file is longer than expected");
+                }
+                outputStream.write(b, off + compare, len - compare);
+                appended += len - compare;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (outputStream != null) {
+                outputStream.close();
+            }
+        }
+
+        boolean isMismatch() {
+            return mismatch;
+        }
+
+        /**
+         * @return true if all expected bytes were received
+         */
+        boolean isVerified() {
+            return verified == expected.length;
+        }
+
+        long getAppended() {
+            return appended;
+        }
+    }
+}
@@ -1,9 +1,40 @@
 package com.javaquery.ftp;
 
+import com.javaquery.ftp.crypto.FileEncryption;
 import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.BufferPool;
+import com.javaquery.ftp.io.ByteBufferInputStream;
+import com.javaquery.ftp.io.CountingInputStream;
+import com.javaquery.ftp.io.CountingOutputStream;
+import com.javaquery.ftp.io.FixedByteArrayOutputStream;
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.PooledByteArrayOutputStream;
+import com.javaquery.ftp.io.RemoteContent;
 import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import com.javaquery.ftp.io.RemoteFileOrder;
+import com.javaquery.ftp.io.TopRemoteFiles;
+import com.javaquery.ftp.journal.TransferJournal;
+import com.javaquery.util.Is;
+import org.apache.commons.net.ftp.FTPClient;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
 
 /**
  * @author javaquery
@@ -13,7 +44,21 @@ import java.util.List;
  */
 public class JFTPClient {
 
+    private static final int INITIAL_CONTENT_SIZE = 64 * 1024;
+
     private final FileTransferClient fileTransferClient;
+    /**
+     * Endpoint connected to and the selector to report its speed to, null without mirrors
+     */
+    private Endpoint endpoint;
+    private EndpointSelector endpointSelector;
+    /**
+     * Caches of {@link #downloadFile(String, String)} and {@link #stat(String)}, null without, and the server
+     * they are keyed with
+     */
+    private DownloadCache downloadCache;
+    private StatCache statCache;
+    private String cacheServer;
 
     public JFTPClient(FTPType ftpType) {
         switch (ftpType) {
@@ -31,27 +76,536 @@ public class JFTPClient {
         }
     }
 
+    /**
+     * Connect to the server, or with {@link Credentials#getMirrors()} to the first of {@code host} and the
+     * mirrors that accepts the connection, in the order of {@link Credentials#getEndpointSelector()}.
+     */
     public void connect(Credentials credentials) throws FTPException {
-        fileTransferClient.connect(credentials);
+        endpoint = null;
+        endpointSelector = null;
+        downloadCache = null;
+        statCache = null;
+        if (Is.nonNullNonEmpty(credentials.getMirrors())) {
+            connectToMirror(credentials);
+        } else {
+            fileTransferClient.connect(credentials);
+        }
+        if (Is.nonNull(credentials.getDownloadCache()) || Is.nonNull(credentials.getStatCache())) {
+            downloadCache = credentials.getDownloadCache();
+            statCache = credentials.getStatCache();
+            cacheServer = credentials.getUsername() + "@"
+                    + (endpoint != null ? endpoint.toString() : credentials.getHost() + ":" + credentials.getPort());
+        }
+    }
+
+    private void connectToMirror(Credentials credentials) throws FTPException {
+        EndpointSelector selector = credentials.getEndpointSelector();
+        List<Endpoint> endpoints = new ArrayList<>();
+        if (Is.nonNullNonEmpty(credentials.getHost())) {
+            endpoints.add(new Endpoint(credentials.getHost(), credentials.getPort()));
+        }
+        endpoints.addAll(credentials.getMirrors());
+
+        FTPException lastException = null;
+        for (Endpoint candidate : selector.order(endpoints)) {
+            long start = System.nanoTime();
+            try {
+                fileTransferClient.connect(credentials.toBuilder()
+                        .host(candidate.getHost())
+                        .port(candidate.getPort())
+                        .clearMirrors()
+                        .build());
+                selector.recordConnect(candidate, (System.nanoTime() - start) / 1_000_000);
+                endpoint = candidate;
+                endpointSelector = selector;
+                return;
+            } catch (FTPException e) {
+                selector.recordFailure(candidate);
+                lastException = e;
+                try {
+                    // a connection that failed to log in is still open
+                    fileTransferClient.disconnect();
+                } catch (FTPException ignored) {
+                    // nothing left to close
+                }
+            }
+        }
+        throw lastException;
+    }
+
+    /**
+     * @return host and port connected to when connected through {@link Credentials#getMirrors()}, otherwise
+     * null
+     */
+    public Endpoint getEndpoint() {
+        return endpoint;
     }
 
     public void disconnect() throws FTPException {
         fileTransferClient.disconnect();
     }
 
-    public List<RemoteFile> listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
+    public RemoteFileList listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
         return fileTransferClient.listFiles(directoryPath, fileFilter);
     }
 
+    /**
+     * Pass the entries accepted by {@code fileFilter} to {@code sink} one at a time while the listing is read,
+     * for directories too large to hold as a list.
+     */
+    public void listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter, ListingSink sink) throws FTPException {
+        fileTransferClient.listFiles(directoryPath, fileFilter, sink);
+    }
+
+    /**
+     * List the first {@code limit} entries in {@code order}, e.g. the 100 newest files, keeping no more than
+     * {@code limit} entries in memory however large the directory is.
+     *
+     * @see TopRemoteFiles
+     */
+    public RemoteFileList listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter, RemoteFileOrder order, int limit) throws FTPException {
+        if (Is.nonNull(directoryPath)) {
+            TopRemoteFiles topRemoteFiles = new TopRemoteFiles(order, limit);
+            fileTransferClient.listFiles(directoryPath, fileFilter, topRemoteFiles);
+            return topRemoteFiles.toRemoteFileList(directoryPath);
+        }
+        return null;
+    }
+
     public boolean uploadFile(String localFilePath, String remoteFilePath) throws FTPException {
-        return fileTransferClient.uploadFile(localFilePath, remoteFilePath);
+        try {
+            if (endpointSelector == null) {
+                return fileTransferClient.uploadFile(localFilePath, remoteFilePath);
+            }
+            return measureTransfer(() -> fileTransferClient.uploadFile(localFilePath, remoteFilePath), () -> new File(localFilePath).length());
+        } finally {
+            invalidateStat(remoteFilePath);
+        }
     }
 
+    public boolean uploadFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        try {
+            if (endpointSelector == null || inputStream == null) {
+                return fileTransferClient.uploadFile(inputStream, remoteFilePath);
+            }
+            CountingInputStream countingInputStream = new CountingInputStream(inputStream);
+            return measureTransfer(() -> fileTransferClient.uploadFile(countingInputStream, remoteFilePath), countingInputStream::getCount);
+        } finally {
+            invalidateStat(remoteFilePath);
+        }
+    }
+
+    /**
+     * Upload a local file encrypted with {@code encryption}.
+     *
+     * @see #uploadFile(InputStream, String, FileEncryption)
+     */
+    public boolean uploadFile(String localFilePath, String remoteFilePath, FileEncryption encryption) throws FTPException {
+        if (Is.nonNullNonEmpty(localFilePath) && Is.nonNullNonEmpty(remoteFilePath) && Is.nonNull(encryption)) {
+            try (InputStream inputStream = Files.newInputStream(Paths.get(localFilePath))) {
+                return EncryptedTransfer.upload(this, inputStream, remoteFilePath, encryption);
+            } catch (IOException e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Upload the content of a stream encrypted with {@code encryption}, without an encrypted copy on disk. The
+     * next chunks are encrypted on a separate thread while the previous ones are sent.
+     */
+    public boolean uploadFile(InputStream inputStream, String remoteFilePath, FileEncryption encryption) throws FTPException {
+        if (Is.nonNull(inputStream) && Is.nonNullNonEmpty(remoteFilePath) && Is.nonNull(encryption)) {
+            return EncryptedTransfer.upload(this, inputStream, remoteFilePath, encryption);
+        }
+        return false;
+    }
+
+    /**
+     * Append to the end of {@code remoteFilePath}, creating it if it doesn't exist. Uses {@code APPE} on
+     * FTP/FTPS.
+     */
+    public boolean appendFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        try {
+            if (endpointSelector == null || inputStream == null) {
+                return fileTransferClient.appendFile(inputStream, remoteFilePath);
+            }
+            CountingInputStream countingInputStream = new CountingInputStream(inputStream);
+            return measureTransfer(() -> fileTransferClient.appendFile(countingInputStream, remoteFilePath), countingInputStream::getCount);
+        } finally {
+            invalidateStat(remoteFilePath);
+        }
+    }
+
+    /**
+     * Upload what {@code localFilePath} gained since the last call by appending it to {@code remoteFilePath},
+     * whose size is the offset to continue from. When the local file shrank or was rotated the remote file is
+     * uploaded again from the start. A local file with the size of the remote file counts as unchanged.
+     *
+     * @return null if the server didn't confirm the transfer
+     */
+    public IncrementalResult uploadIncremental(String localFilePath, String remoteFilePath) throws FTPException {
+        if (Is.nonNullNonEmpty(localFilePath) && Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                return IncrementalTransfer.upload(this, localFilePath, remoteFilePath);
+            } catch (IOException e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Upload in-memory content without writing it to a local file first.
+     */
+    public boolean uploadBytes(byte[] content, String remoteFilePath) throws FTPException {
+        return Is.nonNull(content) && uploadFile(new ByteArrayInputStream(content), remoteFilePath);
+    }
+
+    /**
+     * Upload the remaining bytes of a heap or direct buffer. The buffer's position is left unchanged.
+     */
+    public boolean uploadBytes(ByteBuffer content, String remoteFilePath) throws FTPException {
+        return Is.nonNull(content) && uploadFile(new ByteBufferInputStream(content.duplicate()), remoteFilePath);
+    }
+
+    /**
+     * Open a stream to write a remote file into while it is uploaded in the background, with a buffer of
+     * {@link UploadOutputStream#DEFAULT_BUFFER_SIZE}. Don't use this client for anything else until the stream
+     * is closed.
+     *
+     * @return null if {@code remoteFilePath} is empty
+     */
+    public UploadOutputStream openUploadStream(String remoteFilePath) {
+        return openUploadStream(remoteFilePath, UploadOutputStream.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize bytes the producer may be ahead of the upload before writes block
+     * @see #openUploadStream(String)
+     */
+    public UploadOutputStream openUploadStream(String remoteFilePath, int bufferSize) {
+        return Is.nonNullNonEmpty(remoteFilePath) ? new UploadOutputStream(this, remoteFilePath, bufferSize) : null;
+    }
+
+    /**
+     * Upload a batch of files, skipping the ones {@code journal} records as completed by an earlier run.
+     *
+     * @param files local path to remote path
+     * @return local path to whether it is uploaded
+     * @see TransferJournal#upload(JFTPClient, Map)
+     */
+    public Map<String, Boolean> uploadFiles(Map<String, String> files, TransferJournal journal) throws FTPException {
+        try {
+            return journal.upload(this, files);
+        } catch (IOException e) {
+            throw new FTPException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Download a remote file to a local path, from {@link Credentials#getDownloadCache()} if it holds the file
+     * with the same size and last modified time.
+     */
     public boolean downloadFile(String remoteFilePath, String localFilePath) throws FTPException {
-        return fileTransferClient.downloadFile(remoteFilePath, localFilePath);
+        if (downloadCache != null && Is.nonNullNonEmpty(remoteFilePath) && Is.nonNullNonEmpty(localFilePath)) {
+            return downloadCache.download(this, cacheServer, remoteFilePath, localFilePath);
+        }
+        return downloadUncached(remoteFilePath, localFilePath);
+    }
+
+    boolean downloadUncached(String remoteFilePath, String localFilePath) throws FTPException {
+        if (endpointSelector == null) {
+            return fileTransferClient.downloadFile(remoteFilePath, localFilePath);
+        }
+        return measureTransfer(() -> fileTransferClient.downloadFile(remoteFilePath, localFilePath), () -> new File(localFilePath).length());
+    }
+
+    public boolean downloadFile(String remoteFilePath, OutputStream outputStream) throws FTPException {
+        if (endpointSelector == null || outputStream == null) {
+            return fileTransferClient.downloadFile(remoteFilePath, outputStream);
+        }
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        return measureTransfer(() -> fileTransferClient.downloadFile(remoteFilePath, countingOutputStream), countingOutputStream::getCount);
+    }
+
+    /**
+     * Download a file encrypted with {@code encryption} and decrypt it into a local file. The local file only
+     * appears once the whole file is decrypted and verified.
+     *
+     * @see #downloadFile(String, OutputStream, FileEncryption)
+     */
+    public boolean downloadFile(String remoteFilePath, String localFilePath, FileEncryption encryption) throws FTPException {
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNullNonEmpty(localFilePath) && Is.nonNull(encryption)) {
+            Path localFile = Paths.get(localFilePath).toAbsolutePath();
+            try {
+                Path tempFile = Files.createTempFile(localFile.getParent(), localFile.getFileName().toString(), ".tmp");
+                try {
+                    boolean downloaded;
+                    try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                        downloaded = EncryptedTransfer.download(this, remoteFilePath, outputStream, encryption);
+                    }
+                    if (downloaded) {
+                        Files.move(tempFile, localFile, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return downloaded;
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            } catch (IOException e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Download a file encrypted with {@code encryption} and write its decrypted content into a stream. The next
+     * chunks are received while the previous ones are decrypted on a separate thread. Only verified chunks are
+     * written to {@code outputStream}, but a truncated or modified file is only reported once the chunks before
+     * the damage have been written.
+     *
+     * @throws FTPException if the file isn't encrypted with the key of {@code encryption}, or was modified
+     */
+    public boolean downloadFile(String remoteFilePath, OutputStream outputStream, FileEncryption encryption) throws FTPException {
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNull(outputStream) && Is.nonNull(encryption)) {
+            return EncryptedTransfer.download(this, remoteFilePath, outputStream, encryption);
+        }
+        return false;
+    }
+
+    /**
+     * Download {@code remoteFilePath} from byte {@code offset} to its end. Uses {@code REST} on FTP/FTPS.
+     */
+    public boolean downloadFile(String remoteFilePath, long offset, OutputStream outputStream) throws FTPException {
+        if (endpointSelector == null || outputStream == null) {
+            return fileTransferClient.downloadFile(remoteFilePath, offset, outputStream);
+        }
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        return measureTransfer(() -> fileTransferClient.downloadFile(remoteFilePath, offset, countingOutputStream), countingOutputStream::getCount);
+    }
+
+    /**
+     * Append what {@code remoteFilePath} gained since the last call to {@code localFilePath}, e.g. to follow a
+     * growing log. The length of the local file is the offset to continue from, so there is nothing else to
+     * keep between calls. When the remote file shrank or was rotated the local file is downloaded again from
+     * the start, see {@link IncrementalResult#isRestarted()}.
+     *
+     * @return null if the remote file doesn't exist or the server didn't confirm the transfer
+     */
+    public IncrementalResult downloadIncremental(String remoteFilePath, String localFilePath) throws FTPException {
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNullNonEmpty(localFilePath)) {
+            try {
+                return IncrementalTransfer.download(this, remoteFilePath, localFilePath);
+            } catch (IOException e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Download a remote file into a caller-supplied buffer.
+     *
+     * @return number of bytes written into {@code buffer}, or -1 if the server didn't confirm the transfer
+     * @throws FTPException if the remote file doesn't fit into {@code buffer}
+     */
+    public int downloadBytes(String remoteFilePath, byte[] buffer) throws FTPException {
+        FixedByteArrayOutputStream outputStream = new FixedByteArrayOutputStream(buffer);
+        return downloadFile(remoteFilePath, outputStream) ? outputStream.length() : -1;
+    }
+
+    /**
+     * Download a remote file into a buffer from {@link BufferPool#DEFAULT}. Close the returned content
+     * to hand the buffer back to the pool.
+     *
+     * @param maxSize maximum number of bytes accepted
+     * @return content of the remote file, or null if the server didn't confirm the transfer
+     * @throws FTPException if the remote file is larger than {@code maxSize}
+     */
+    public RemoteContent downloadBytes(String remoteFilePath, int maxSize) throws FTPException {
+        PooledByteArrayOutputStream outputStream = new PooledByteArrayOutputStream(BufferPool.DEFAULT, INITIAL_CONTENT_SIZE, maxSize);
+        try {
+            return downloadFile(remoteFilePath, outputStream) ? outputStream.toRemoteContent() : null;
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Download a batch of files, skipping the ones {@code journal} records as completed by an earlier run.
+     *
+     * @param files remote path to local path
+     * @return remote path to whether it is downloaded
+     * @see TransferJournal#download(JFTPClient, Map)
+     */
+    public Map<String, Boolean> downloadFiles(Map<String, String> files, TransferJournal journal) throws FTPException {
+        try {
+            return journal.download(this, files);
+        } catch (IOException e) {
+            throw new FTPException(e.getMessage(), e);
+        }
     }
 
     public boolean deleteFile(String remoteFilePath) throws FTPException {
-        return fileTransferClient.deleteFile(remoteFilePath);
+        try {
+            return fileTransferClient.deleteFile(remoteFilePath);
+        } finally {
+            invalidateStat(remoteFilePath);
+        }
+    }
+
+    /**
+     * Remove an empty directory, see {@link BulkOperations#deleteTree(JFTPClientPool, String)} for a directory
+     * with content.
+     */
+    public boolean deleteDirectory(String remoteDirectoryPath) throws FTPException {
+        try {
+            return fileTransferClient.deleteDirectory(remoteDirectoryPath);
+        } finally {
+            invalidateStat(remoteDirectoryPath);
+        }
+    }
+
+    /**
+     * Rename or move a file or directory on the server, without transferring it. Whether an existing
+     * {@code newRemoteFilePath} is replaced depends on the server.
+     */
+    public boolean renameFile(String remoteFilePath, String newRemoteFilePath) throws FTPException {
+        try {
+            return fileTransferClient.renameFile(remoteFilePath, newRemoteFilePath);
+        } finally {
+            // a renamed directory takes the paths below it along
+            if (statCache != null) {
+                if (remoteFilePath != null) {
+                    statCache.invalidateTree(cacheServer, remoteFilePath);
+                }
+                if (newRemoteFilePath != null) {
+                    statCache.invalidateTree(cacheServer, newRemoteFilePath);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return size, last modified time and type of {@code remoteFilePath}, null if it doesn't exist. FTP/FTPS
+     * servers without {@code MLST} only report regular files. Served from {@link Credentials#getStatCache()}
+     * while cached.
+     * @see BulkOperations#stat(JFTPClientPool, java.util.Collection)
+     */
+    public RemoteFile stat(String remoteFilePath) throws FTPException {
+        if (statCache != null && remoteFilePath != null) {
+            StatCache.Entry entry = statCache.get(cacheServer, remoteFilePath);
+            if (entry != null) {
+                return entry.getRemoteFile();
+            }
+        }
+        return statUncached(remoteFilePath);
+    }
+
+    /**
+     * @return whether {@code remoteFilePath} exists, without listing its directory
+     */
+    public boolean exists(String remoteFilePath) throws FTPException {
+        return stat(remoteFilePath) != null;
+    }
+
+    /**
+     * @return size of {@code remoteFilePath}, -1 if it doesn't exist
+     */
+    public long size(String remoteFilePath) throws FTPException {
+        RemoteFile remoteFile = stat(remoteFilePath);
+        return remoteFile != null ? remoteFile.getSize() : -1;
+    }
+
+    /**
+     * {@link #stat(String)} from the server, for decisions a cached result could get wrong. The result is
+     * cached for later {@link #stat(String)} calls.
+     */
+    RemoteFile statUncached(String remoteFilePath) throws FTPException {
+        if (statCache == null || remoteFilePath == null) {
+            return fileTransferClient.stat(remoteFilePath);
+        }
+        long stamp = statCache.stamp(cacheServer, remoteFilePath);
+        RemoteFile remoteFile = fileTransferClient.stat(remoteFilePath);
+        statCache.put(cacheServer, remoteFilePath, remoteFile, stamp);
+        return remoteFile;
+    }
+
+    private void invalidateStat(String remoteFilePath) {
+        if (statCache != null && remoteFilePath != null) {
+            statCache.invalidate(cacheServer, remoteFilePath);
+        }
+    }
+
+    /**
+     * Run a transfer and record its throughput, or the failure of the endpoint, with {@link #endpointSelector}.
+     */
+    private boolean measureTransfer(BooleanSupplier transfer, LongSupplier bytes) throws FTPException {
+        long start = System.nanoTime();
+        boolean result;
+        try {
+            result = transfer.getAsBoolean();
+        } catch (FTPException e) {
+            if (isEndpointFailure(e)) {
+                endpointSelector.recordFailure(endpoint);
+            }
+            throw e;
+        }
+        if (result) {
+            endpointSelector.recordTransfer(endpoint, bytes.getAsLong(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return result;
+    }
+
+    /**
+     * @return false when the server answered with an SFTP status (e.g. no such file) or a local file failed,
+     * the endpoint itself is fine then
+     */
+    private static boolean isEndpointFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof com.jcraft.jsch.SftpException || cause instanceof org.apache.sshd.sftp.common.SftpException
+                    || cause instanceof FileNotFoundException || cause instanceof FileSystemException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy a file from this server to the server of {@code target} with FXP, so the data flows directly between
+     * the servers. The file is streamed through this host when the servers don't allow FXP.
+     *
+     * @throws FTPException if one of the clients is not an FTP or FTPS client
+     */
+    public boolean transferFile(String sourceFilePath, JFTPClient target, String targetFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(sourceFilePath) && Is.nonNull(target) && Is.nonNullNonEmpty(targetFilePath)) {
+            FTPClient source = FXPTransfer.ftpClientOf(fileTransferClient);
+            FTPClient destination = FXPTransfer.ftpClientOf(target.fileTransferClient);
+            if (source == null || destination == null) {
+                throw new FTPException("Server-to-server transfers need FTP or FTPS on both sides", null);
+            }
+            try {
+                result = FXPTransfer.transfer(source, sourceFilePath, destination, targetFilePath);
+            } catch (IOException e) {
+                throw new FTPException(e.getMessage(), e);
+            } finally {
+                target.invalidateStat(targetFilePath);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy a file from this server to the server of {@code target}, of any protocol, without a local copy.
+     * The file is downloaded on a separate thread and uploaded from a bounded in-memory pipe.
+     *
+     * @see FileRelay#copyFiles(JFTPClientPool, JFTPClientPool, java.util.Map)
+     */
+    public boolean copyFile(String sourceFilePath, JFTPClient target, String targetFilePath) throws FTPException {
+        return Is.nonNullNonEmpty(sourceFilePath) && Is.nonNull(target) && Is.nonNullNonEmpty(targetFilePath)
+                && FileRelay.copy(this, sourceFilePath, target, targetFilePath, FileRelay.DEFAULT_PIPE_SIZE);
     }
 }
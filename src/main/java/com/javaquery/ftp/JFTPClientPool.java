@@ -0,0 +1,208 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.DaemonThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of connected {@link JFTPClient}s for one server, used to run several transfers in parallel.
+ * Connections are opened on first use and kept until the pool is closed, a client is invalidated or it sat
+ * idle longer than {@code maxIdleMillis}, after which the server may have dropped it.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class JFTPClientPool implements AutoCloseable {
+
+    /**
+     * Below the idle timeout of most FTP servers and of the SFTP session with the default {@code socketTimeout}
+     */
+    public static final long DEFAULT_MAX_IDLE_MILLIS = 30_000;
+
+    private final FTPType ftpType;
+    private final Credentials credentials;
+    private final int maxSize;
+    private final long maxIdleMillis;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<IdleClient> idleClients = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    /**
+     * @param maxSize maximum number of connections open at the same time
+     */
+    public JFTPClientPool(FTPType ftpType, Credentials credentials, int maxSize) {
+        this(ftpType, credentials, maxSize, DEFAULT_MAX_IDLE_MILLIS);
+    }
+
+    /**
+     * @param maxIdleMillis time a released client is reused, it's disconnected instead of borrowed after that.
+     *                      0 to reuse clients however long they were idle.
+     */
+    public JFTPClientPool(FTPType ftpType, Credentials credentials, int maxSize, long maxIdleMillis) {
+        this.ftpType = ftpType;
+        this.credentials = credentials;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxIdleMillis = maxIdleMillis;
+        this.permits = new Semaphore(this.maxSize, true);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Open up to {@code count} connections in parallel ahead of the first {@link #borrow()}, so the first
+     * transfers don't pay for DNS, connect, login and TLS/SSH setup. Stops at {@link #getMaxSize()}.
+     *
+     * @return number of connections opened
+     * @throws FTPException if no connection could be opened
+     */
+    public int prewarm(int count) throws FTPException {
+        List<Future<JFTPClient>> connects = new ArrayList<>();
+        ExecutorService connectors = Executors.newCachedThreadPool(new DaemonThreadFactory("ftp-pool-prewarm"));
+        try {
+            for (int i = 0; i < count && permits.tryAcquire(); i++) {
+                connects.add(connectors.submit(this::connect));
+            }
+
+            int opened = 0;
+            FTPException firstException = null;
+            for (Future<JFTPClient> connect : connects) {
+                try {
+                    release(connect.get());
+                    opened++;
+                } catch (ExecutionException e) {
+                    permits.release();
+                    if (firstException == null) {
+                        firstException = e.getCause() instanceof FTPException
+                                ? (FTPException) e.getCause()
+                                : new FTPException(e.getCause().getMessage(), e);
+                    }
+                }
+            }
+            if (opened == 0 && firstException != null) {
+                throw firstException;
+            }
+            return opened;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FTPException(e.getMessage(), e);
+        } finally {
+            connectors.shutdown();
+        }
+    }
+
+    /**
+     * @return number of connected clients waiting to be borrowed
+     */
+    public int getIdleCount() {
+        return idleClients.size();
+    }
+
+    /**
+     * Borrow a connected client, waiting up to {@code connectTimeout} for one to be released when all of them
+     * are in use. Hand it back with {@link #release(JFTPClient)}, or {@link #invalidate(JFTPClient)} if it
+     * failed.
+     */
+    public JFTPClient borrow() throws FTPException {
+        if (closed) {
+            throw new FTPException("Pool is closed", null);
+        }
+        try {
+            if (!permits.tryAcquire(credentials.getConnectTimeout(), TimeUnit.MILLISECONDS)) {
+                throw new FTPException("No connection available in pool for " + credentials.getHost(), null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FTPException(e.getMessage(), e);
+        }
+
+        long now = System.currentTimeMillis();
+        IdleClient idleClient;
+        while ((idleClient = idleClients.pollFirst()) != null) {
+            if (maxIdleMillis <= 0 || now - idleClient.releasedAt < maxIdleMillis) {
+                return idleClient.jftpClient;
+            }
+            disconnectQuietly(idleClient.jftpClient);
+        }
+        try {
+            return connect();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(JFTPClient jftpClient) {
+        if (jftpClient != null) {
+            if (closed) {
+                disconnectQuietly(jftpClient);
+            } else {
+                idleClients.offerFirst(new IdleClient(jftpClient, System.currentTimeMillis()));
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Disconnect a borrowed client instead of returning it, e.g. after an error left its connection in
+     * an unknown state.
+     */
+    public void invalidate(JFTPClient jftpClient) {
+        if (jftpClient != null) {
+            disconnectQuietly(jftpClient);
+            permits.release();
+        }
+    }
+
+    /**
+     * Disconnect the idle clients. Borrowed clients are disconnected when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        IdleClient idleClient;
+        while ((idleClient = idleClients.pollFirst()) != null) {
+            disconnectQuietly(idleClient.jftpClient);
+        }
+    }
+
+    private JFTPClient connect() throws FTPException {
+        JFTPClient jftpClient = new JFTPClient(ftpType);
+        try {
+            jftpClient.connect(credentials);
+            return jftpClient;
+        } catch (RuntimeException e) {
+            // a connection that failed to log in is still open
+            disconnectQuietly(jftpClient);
+            throw e;
+        }
+    }
+
+    private static void disconnectQuietly(JFTPClient jftpClient) {
+        try {
+            jftpClient.disconnect();
+        } catch (FTPException e) {
+            // the connection is dropped either way
+        }
+    }
+
+    private static class IdleClient {
+        private final JFTPClient jftpClient;
+        private final long releasedAt;
+
+        IdleClient(JFTPClient jftpClient, long releasedAt) {
+            this.jftpClient = jftpClient;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
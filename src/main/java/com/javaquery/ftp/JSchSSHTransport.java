@@ -0,0 +1,197 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import com.javaquery.util.Is;
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.jcraft.jsch.SocketFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Properties;
+
+/**
+ * Default {@link SSHTransport} based on JSch.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class JSchSSHTransport implements SSHTransport {
+
+    private Session session;
+    private Channel channel;
+    private ChannelSftp channelSftp;
+    private SFTPSessionPool.SharedSession sharedSession;
+
+    @Override
+    public void connect(Credentials credentials) throws Exception {
+        if (credentials.isSharedSession()) {
+            sharedSession = SFTPSessionPool.get(credentials);
+            channelSftp = sharedSession.lease();
+            return;
+        }
+        session = newSession(credentials);
+        session.connect(credentials.getConnectTimeout());
+        session.setTimeout(credentials.getSocketTimeout());
+
+        channel = session.openChannel("sftp");
+        channel.connect();
+        channelSftp = (ChannelSftp) channel;
+    }
+
+    /**
+     * Create an unconnected session. With an {@link SSHContext} its identities are offered and the host key
+     * must be listed in its known hosts.
+     */
+    static Session newSession(Credentials credentials) throws Exception {
+        SSHContext sshContext = credentials.getSshContext();
+        JSch jsch = sshContext != null ? sshContext.jsch() : new JSch();
+        Session session = jsch.getSession(credentials.getUsername(), credentials.getHost(), credentials.getPort());
+        if (Is.nonNull(credentials.getPassword())) {
+            session.setPassword(credentials.getPassword());
+        }
+        session.setSocketFactory(socketFactory(credentials));
+
+        Properties config = new Properties();
+        config.put("StrictHostKeyChecking", sshContext != null && sshContext.hasKnownHosts() ? "yes" : "no");
+        session.setConfig(config);
+        return session;
+    }
+
+    /**
+     * Hands JSch sessions the socket connected by {@link HostResolver}, the session keeps the host name.
+     */
+    static SocketFactory socketFactory(Credentials credentials) {
+        return new SocketFactory() {
+            @Override
+            public Socket createSocket(String host, int port) throws IOException {
+                return HostResolver.connect(credentials);
+            }
+
+            @Override
+            public InputStream getInputStream(Socket socket) throws IOException {
+                return socket.getInputStream();
+            }
+
+            @Override
+            public OutputStream getOutputStream(Socket socket) throws IOException {
+                return socket.getOutputStream();
+            }
+        };
+    }
+
+    @Override
+    public void disconnect() throws Exception {
+        if (sharedSession != null) {
+            // channel goes back to the shared session, the session itself stays connected
+            sharedSession.release(channelSftp);
+            sharedSession = null;
+            channelSftp = null;
+            return;
+        }
+        if (channelSftp != null && channelSftp.isConnected()) {
+            channelSftp.exit();
+        }
+        if (channel != null && channel.isConnected()) {
+            channel.disconnect();
+        }
+        if (session != null && session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    @Override
+    public void list(String directoryPath, ListingSink sink) throws Exception {
+        // the selector receives the entries as they are read instead of collecting them in a Vector first
+        channelSftp.ls(directoryPath, entry -> {
+            boolean isDirectory = entry.getAttrs().isDir();
+            sink.addEntry(entry.getFilename(), !isDirectory, isDirectory, entry.getAttrs().getSize(), ((long) entry.getAttrs().getMTime()) * 1000);
+            return ChannelSftp.LsEntrySelector.CONTINUE;
+        });
+    }
+
+    /**
+     * {@code ChannelSftp.ls} only creates entries for the names matching the glob.
+     */
+    @Override
+    public boolean listsPatterns() {
+        return true;
+    }
+
+    @Override
+    public void upload(String localFilePath, String remoteFilePath) throws Exception {
+        channelSftp.put(localFilePath, remoteFilePath);
+    }
+
+    @Override
+    public void upload(InputStream inputStream, String remoteFilePath) throws Exception {
+        channelSftp.put(inputStream, remoteFilePath);
+    }
+
+    @Override
+    public void download(String remoteFilePath, String localFilePath) throws Exception {
+        channelSftp.get(remoteFilePath, localFilePath);
+    }
+
+    @Override
+    public void download(String remoteFilePath, OutputStream outputStream) throws Exception {
+        channelSftp.get(remoteFilePath, outputStream);
+    }
+
+    @Override
+    public void download(String remoteFilePath, long offset, OutputStream outputStream) throws Exception {
+        channelSftp.get(remoteFilePath, outputStream, null, ChannelSftp.RESUME, offset);
+    }
+
+    /**
+     * JSch writes from the current size of the remote file.
+     */
+    @Override
+    public void append(InputStream inputStream, String remoteFilePath) throws Exception {
+        channelSftp.put(inputStream, remoteFilePath, ChannelSftp.APPEND);
+    }
+
+    @Override
+    public void delete(String remoteFilePath) throws Exception {
+        channelSftp.rm(remoteFilePath);
+    }
+
+    @Override
+    public void deleteDirectory(String remoteDirectoryPath) throws Exception {
+        channelSftp.rmdir(remoteDirectoryPath);
+    }
+
+    @Override
+    public void rename(String remoteFilePath, String newRemoteFilePath) throws Exception {
+        channelSftp.rename(remoteFilePath, newRemoteFilePath);
+    }
+
+    @Override
+    public RemoteFile stat(String remoteFilePath) throws Exception {
+        SftpATTRS attrs;
+        try {
+            attrs = channelSftp.stat(remoteFilePath);
+        } catch (SftpException e) {
+            if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                return null;
+            }
+            throw e;
+        }
+        return RemoteFile.builder()
+                .name(remoteFilePath.substring(remoteFilePath.lastIndexOf('/') + 1))
+                .isFile(attrs.isReg())
+                .isDirectory(attrs.isDir())
+                .size(attrs.getSize())
+                .timestamp(RemoteFileList.toCalendar(((long) attrs.getMTime()) * 1000))
+                .path(remoteFilePath)
+                .build();
+    }
+}
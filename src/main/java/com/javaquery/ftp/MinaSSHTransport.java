@@ -0,0 +1,256 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import com.javaquery.util.Is;
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.client.session.ClientSession;
+import org.apache.sshd.common.AttributeRepository;
+import org.apache.sshd.core.CoreModuleProperties;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.apache.sshd.sftp.client.SftpClientFactory;
+import org.apache.sshd.sftp.common.SftpConstants;
+import org.apache.sshd.sftp.common.SftpException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.KeyPair;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+/**
+ * {@link SSHTransport} based on the Apache MINA SSHD SFTP client. Reads and writes are pipelined:
+ * {@link Credentials#getSftpReadAheadSize()} sets the channel window, i.e. how many bytes of read responses
+ * may be in flight, split into {@value #READ_REQUESTS} read requests of {@code IO_BUFFER_SIZE} to
+ * {@value #MAX_READ_REQUEST_SIZE} bytes, and {@link Credentials#getSftpWriteBehindSize()} the size of each write request sent
+ * without waiting for the previous acknowledgement. Both matter most on high-latency links.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class MinaSSHTransport implements SSHTransport {
+
+    private static final AttributeRepository.AttributeKey<HostKeyCheck> HOST_KEY_CHECK = new AttributeRepository.AttributeKey<>();
+    /**
+     * Read requests kept in flight for a read-ahead window, the stream sends window / request size of them
+     */
+    private static final int READ_REQUESTS = 16;
+    /**
+     * Longest read OpenSSH's sftp-server answers in full
+     */
+    private static final int MAX_READ_REQUEST_SIZE = 256 * 1024;
+    private static SshClient sshClient;
+
+    private ClientSession session;
+    private SftpClient sftpClient;
+    private int writeBehindSize;
+    private int readRequestSize;
+
+    /**
+     * One client (and its IO threads) serves every connection in the JVM.
+     */
+    private static synchronized SshClient sshClient() {
+        if (sshClient == null) {
+            sshClient = SshClient.setUpDefaultClient();
+            sshClient.setServerKeyVerifier((clientSession, remoteAddress, serverKey) -> {
+                // sessions connected without known hosts accept any key
+                HostKeyCheck hostKeyCheck = clientSession.getConnectionContext() != null
+                        ? clientSession.getConnectionContext().getAttribute(HOST_KEY_CHECK) : null;
+                return hostKeyCheck == null || hostKeyCheck.sshContext.verifyHostKey(hostKeyCheck.host, hostKeyCheck.port, serverKey);
+            });
+            sshClient.start();
+        }
+        return sshClient;
+    }
+
+    @Override
+    public void connect(Credentials credentials) throws Exception {
+        if (credentials.isSharedSession()) {
+            throw new IllegalArgumentException("sharedSession is only supported with SSHBackend.JSCH");
+        }
+        writeBehindSize = credentials.getSftpWriteBehindSize() > 0
+                ? Math.max(credentials.getSftpWriteBehindSize(), SftpClient.MIN_WRITE_BUFFER_SIZE)
+                : SftpClient.IO_BUFFER_SIZE;
+        readRequestSize = credentials.getSftpReadAheadSize() > 0
+                ? Math.min(Math.max(credentials.getSftpReadAheadSize() / READ_REQUESTS, SftpClient.IO_BUFFER_SIZE), MAX_READ_REQUEST_SIZE)
+                : SftpClient.IO_BUFFER_SIZE;
+
+        SSHContext sshContext = credentials.getSshContext();
+        // passed with the connection, the host key is verified before connect() returns the session
+        AttributeRepository context = sshContext != null && sshContext.hasKnownHosts()
+                ? AttributeRepository.ofKeyValuePair(HOST_KEY_CHECK, new HostKeyCheck(sshContext, credentials.getHost(), credentials.getPort()))
+                : null;
+        session = sshClient().connect(credentials.getUsername(), new InetSocketAddress(HostResolver.resolve(credentials), credentials.getPort()), context, null)
+                .verify(credentials.getConnectTimeout())
+                .getSession();
+        try {
+            CoreModuleProperties.IDLE_TIMEOUT.set(session, Duration.ofMillis(credentials.getSocketTimeout()));
+            if (credentials.getSftpReadAheadSize() > 0) {
+                CoreModuleProperties.WINDOW_SIZE.set(session, (long) credentials.getSftpReadAheadSize());
+            }
+            if (sshContext != null) {
+                for (KeyPair keyPair : sshContext.keyPairs()) {
+                    session.addPublicKeyIdentity(keyPair);
+                }
+            }
+            if (Is.nonNull(credentials.getPassword())) {
+                session.addPasswordIdentity(credentials.getPassword());
+            }
+            session.auth().verify(credentials.getConnectTimeout());
+            sftpClient = SftpClientFactory.instance().createSftpClient(session);
+        } catch (Exception e) {
+            // a failed login must not leave the connection open
+            session.close(true);
+            session = null;
+            throw e;
+        }
+    }
+
+    @Override
+    public void disconnect() throws Exception {
+        if (sftpClient != null && sftpClient.isOpen()) {
+            sftpClient.close();
+        }
+        if (session != null && session.isOpen()) {
+            session.close();
+        }
+    }
+
+    @Override
+    public void list(String directoryPath, ListingSink sink) throws Exception {
+        for (SftpClient.DirEntry entry : sftpClient.readDir(directoryPath)) {
+            SftpClient.Attributes attributes = entry.getAttributes();
+            long lastModified = attributes.getModifyTime() != null ? attributes.getModifyTime().toMillis() : RemoteFileList.UNKNOWN_TIMESTAMP;
+            sink.addEntry(entry.getFilename(), !attributes.isDirectory(), attributes.isDirectory(), attributes.getSize(), lastModified);
+        }
+    }
+
+    @Override
+    public boolean listsPatterns() {
+        return false;
+    }
+
+    @Override
+    public void upload(String localFilePath, String remoteFilePath) throws Exception {
+        try (InputStream inputStream = Files.newInputStream(Paths.get(localFilePath))) {
+            upload(inputStream, remoteFilePath);
+        }
+    }
+
+    @Override
+    public void upload(InputStream inputStream, String remoteFilePath) throws Exception {
+        try (OutputStream outputStream = sftpClient.write(remoteFilePath, writeBehindSize,
+                SftpClient.OpenMode.Write, SftpClient.OpenMode.Create, SftpClient.OpenMode.Truncate)) {
+            byte[] buffer = new byte[writeBehindSize];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    @Override
+    public void download(String remoteFilePath, String localFilePath) throws Exception {
+        try (InputStream inputStream = sftpClient.read(remoteFilePath, readRequestSize)) {
+            Files.copy(inputStream, Paths.get(localFilePath), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void download(String remoteFilePath, OutputStream outputStream) throws Exception {
+        download(remoteFilePath, 0, outputStream);
+    }
+
+    @Override
+    public void download(String remoteFilePath, long offset, OutputStream outputStream) throws Exception {
+        try (InputStream inputStream = sftpClient.read(remoteFilePath, readRequestSize)) {
+            // before the first read this moves the read offset without requesting the skipped bytes
+            if (offset > 0 && inputStream.skip(offset) < offset) {
+                return;
+            }
+            byte[] buffer = new byte[SftpClient.IO_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Writes at the current size of the remote file, servers differ in how they treat the SFTP append flag.
+     * Each write waits for its reply, appending is rare enough not to pipeline.
+     */
+    @Override
+    public void append(InputStream inputStream, String remoteFilePath) throws Exception {
+        long offset;
+        try {
+            offset = sftpClient.stat(remoteFilePath).getSize();
+        } catch (SftpException e) {
+            if (e.getStatus() != SftpConstants.SSH_FX_NO_SUCH_FILE) {
+                throw e;
+            }
+            offset = 0;
+        }
+        try (SftpClient.CloseableHandle handle = sftpClient.open(remoteFilePath,
+                SftpClient.OpenMode.Write, SftpClient.OpenMode.Create)) {
+            byte[] buffer = new byte[SftpClient.IO_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                sftpClient.write(handle, offset, buffer, 0, read);
+                offset += read;
+            }
+        }
+    }
+
+    @Override
+    public void delete(String remoteFilePath) throws Exception {
+        sftpClient.remove(remoteFilePath);
+    }
+
+    @Override
+    public void deleteDirectory(String remoteDirectoryPath) throws Exception {
+        sftpClient.rmdir(remoteDirectoryPath);
+    }
+
+    @Override
+    public void rename(String remoteFilePath, String newRemoteFilePath) throws Exception {
+        sftpClient.rename(remoteFilePath, newRemoteFilePath);
+    }
+
+    @Override
+    public RemoteFile stat(String remoteFilePath) throws Exception {
+        SftpClient.Attributes attributes;
+        try {
+            attributes = sftpClient.stat(remoteFilePath);
+        } catch (SftpException e) {
+            if (e.getStatus() == SftpConstants.SSH_FX_NO_SUCH_FILE) {
+                return null;
+            }
+            throw e;
+        }
+        return RemoteFile.builder()
+                .name(remoteFilePath.substring(remoteFilePath.lastIndexOf('/') + 1))
+                .isFile(attributes.isRegularFile())
+                .isDirectory(attributes.isDirectory())
+                .size(attributes.getSize())
+                .timestamp(attributes.getModifyTime() != null ? RemoteFileList.toCalendar(attributes.getModifyTime().toMillis()) : null)
+                .path(remoteFilePath)
+                .build();
+    }
+
+    private static class HostKeyCheck {
+        private final SSHContext sshContext;
+        private final String host;
+        private final int port;
+
+        HostKeyCheck(SSHContext sshContext, String host, int port) {
+            this.sshContext = sshContext;
+            this.host = host;
+            this.port = port;
+        }
+    }
+}
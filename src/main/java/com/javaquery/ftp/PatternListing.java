@@ -0,0 +1,58 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+
+/**
+ * Lists a directory with the name glob of a {@link FileFilters} filter appended ({@code /data/*.csv}), so the
+ * server only sends the matching entries. Whether a server understands the glob isn't advertised anywhere, so
+ * it is learned per connection: an empty pattern listing is repeated without the glob until a pattern listing
+ * returned something, and once the full listing shows the server ignored the glob it is never sent again.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+final class PatternListing {
+
+    private final boolean verified;
+    private Boolean supported;
+
+    /**
+     * @param verified true if the listing applies the glob itself, e.g. JSch, so it never needs checking
+     */
+    PatternListing(boolean verified) {
+        this.verified = verified;
+        this.supported = verified ? Boolean.TRUE : null;
+    }
+
+    void list(String directoryPath, FileFilter<RemoteFile> fileFilter, ListingSink sink, Lister lister) throws Exception {
+        String glob = FileFilters.serverGlob(fileFilter);
+        if (glob != null && supported != Boolean.FALSE && !hasWildcard(directoryPath)) {
+            RemoteFileCollector collector = new RemoteFileCollector(directoryPath, fileFilter, sink);
+            lister.list(directoryPath.isEmpty() ? glob : RemoteFileList.directoryPrefix(directoryPath) + glob, collector);
+            if (collector.getEntryCount() > 0) {
+                supported = Boolean.TRUE;
+                return;
+            }
+            if (supported == Boolean.TRUE) {
+                return;
+            }
+        }
+        // nothing reached the sink yet
+        RemoteFileCollector collector = new RemoteFileCollector(directoryPath, fileFilter, sink);
+        lister.list(directoryPath, collector);
+        if (glob != null && !verified && supported == null && collector.getAcceptedCount() > 0) {
+            // the pattern listing missed entries matching the glob
+            supported = Boolean.FALSE;
+        }
+    }
+
+    private static boolean hasWildcard(String directoryPath) {
+        return directoryPath.indexOf('*') >= 0 || directoryPath.indexOf('?') >= 0 || directoryPath.indexOf('[') >= 0;
+    }
+
+    interface Lister {
+        void list(String path, RemoteFileCollector collector) throws Exception;
+    }
+}
@@ -0,0 +1,80 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import com.javaquery.util.Is;
+
+import java.util.Calendar;
+
+/**
+ * Passes the listing entries accepted by a filter on to a {@link ListingSink}, usually a {@link RemoteFileList}. Entries are only turned into a {@link RemoteFile}
+ * when there is a filter to evaluate, and then a single instance is reused for every entry. Names are cut to
+ * their last path segment, some servers answer a pattern listing with paths.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+class RemoteFileCollector implements ListingSink {
+
+    private final String directoryPrefix;
+    private final FileFilter<RemoteFile> fileFilter;
+    private final ListingSink sink;
+    private RemoteFile candidate;
+    private Calendar timestamp;
+    private int entryCount;
+    private int acceptedCount;
+
+    RemoteFileCollector(String directoryPath, FileFilter<RemoteFile> fileFilter, ListingSink sink) {
+        this.directoryPrefix = RemoteFileList.directoryPrefix(directoryPath);
+        this.fileFilter = fileFilter;
+        this.sink = sink;
+    }
+
+    @Override
+    public void addEntry(String name, boolean isFile, boolean isDirectory, long size, long lastModified) {
+        entryCount++;
+        int slash = name.lastIndexOf('/');
+        if (slash >= 0 && slash < name.length() - 1) {
+            name = name.substring(slash + 1);
+        }
+        if (Is.nonNull(fileFilter) && !fileFilter.accept(candidate(name, isFile, isDirectory, size, lastModified))) {
+            return;
+        }
+        acceptedCount++;
+        sink.addEntry(name, isFile, isDirectory, size, lastModified);
+    }
+
+    private RemoteFile candidate(String name, boolean isFile, boolean isDirectory, long size, long lastModified) {
+        if (candidate == null) {
+            candidate = RemoteFile.builder().build();
+            timestamp = Calendar.getInstance();
+        }
+        candidate.setName(name);
+        candidate.setFile(isFile);
+        candidate.setDirectory(isDirectory);
+        candidate.setSize(size);
+        candidate.setPath(directoryPrefix + name);
+        if (lastModified == RemoteFileList.UNKNOWN_TIMESTAMP) {
+            candidate.setTimestamp(null);
+        } else {
+            timestamp.setTimeInMillis(lastModified);
+            candidate.setTimestamp(timestamp);
+        }
+        return candidate;
+    }
+
+    /**
+     * @return number of entries received, accepted by the filter or not
+     */
+    int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return number of entries passed on to the sink
+     */
+    int getAcceptedCount() {
+        return acceptedCount;
+    }
+}
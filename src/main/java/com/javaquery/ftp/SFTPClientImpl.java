@@ -1,18 +1,12 @@
 package com.javaquery.ftp;
 
 import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.ListingSink;
 import com.javaquery.ftp.io.RemoteFile;
 import com.javaquery.util.Is;
-import com.jcraft.jsch.Channel;
-import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.Session;
 
-import java.io.File;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.List;
-import java.util.Properties;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * @author javaquery
@@ -20,26 +14,15 @@ import java.util.Properties;
  */
 public class SFTPClientImpl implements FileTransferClient {
 
-    private Session session;
-    private Channel channel;
-    private ChannelSftp channelSftp;
+    private SSHTransport transport;
+    private PatternListing patternListing;
 
     @Override
     public void connect(Credentials credentials) throws FTPException {
         try {
-            JSch jsch = new JSch();
-            session = jsch.getSession(credentials.getUsername(), credentials.getHost(), credentials.getPort());
-            session.setPassword(credentials.getPassword());
-
-            Properties config = new Properties();
-            config.put("StrictHostKeyChecking", "no");
-            session.setConfig(config);
-            session.connect(credentials.getConnectTimeout());
-            session.setTimeout(credentials.getSocketTimeout());
-
-            channel = session.openChannel("sftp");
-            channel.connect();
-            channelSftp = (ChannelSftp) channel;
+            transport = credentials.getSshBackend() == SSHBackend.MINA_SSHD ? new MinaSSHTransport() : new JSchSSHTransport();
+            transport.connect(credentials);
+            patternListing = transport.listsPatterns() ? new PatternListing(true) : null;
         } catch (Exception e) {
             throw new FTPException(e.getMessage(), e);
         }
@@ -48,14 +31,8 @@ public class SFTPClientImpl implements FileTransferClient {
     @Override
     public void disconnect() throws FTPException {
         try {
-            if (channelSftp != null && channelSftp.isConnected()) {
-                channelSftp.exit();
-            }
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
-            }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
+            if (transport != null) {
+                transport.disconnect();
             }
         } catch (Exception e) {
             throw new FTPException(e.getMessage(), e);
@@ -63,39 +40,18 @@ public class SFTPClientImpl implements FileTransferClient {
     }
 
     @Override
-    public List<RemoteFile> listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
-        if (Is.nonNull(directoryPath)) {
-            List<RemoteFile> result = new ArrayList<>();
+    public void listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter, ListingSink sink) throws FTPException {
+        if (Is.nonNull(directoryPath) && Is.nonNull(sink)) {
             try {
-                List<ChannelSftp.LsEntry> files = channelSftp.ls(directoryPath);
-                for (ChannelSftp.LsEntry entry : files) {
-                    String filepath = directoryPath.endsWith(File.separator) ? directoryPath + entry.getFilename() : directoryPath + File.separatorChar + entry.getFilename();
-
-                    Calendar timestamp = Calendar.getInstance();
-                    timestamp.setTimeInMillis(((long) entry.getAttrs().getMTime()) * 1000);
-
-                    RemoteFile remoteFile = RemoteFile.builder()
-                            .name(entry.getFilename())
-                            .isFile(!entry.getAttrs().isDir())
-                            .isDirectory(entry.getAttrs().isDir())
-                            .size(entry.getAttrs().getSize())
-                            .timestamp(timestamp)
-                            .path(filepath)
-                            .build();
-                    if (Is.nonNull(fileFilter)) {
-                        if (fileFilter.accept(remoteFile)) {
-                            result.add(remoteFile);
-                        }
-                    } else {
-                        result.add(remoteFile);
-                    }
+                if (Is.nonNull(patternListing)) {
+                    patternListing.list(directoryPath, fileFilter, sink, transport::list);
+                } else {
+                    transport.list(directoryPath, new RemoteFileCollector(directoryPath, fileFilter, sink));
                 }
-                return result;
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
             }
         }
-        return null;
     }
 
     @Override
@@ -103,7 +59,21 @@ public class SFTPClientImpl implements FileTransferClient {
         boolean result = false;
         if (Is.nonNullNonEmpty(localFilePath) && Is.nonNullNonEmpty(remoteFilePath)) {
             try {
-                channelSftp.put(localFilePath, remoteFilePath);
+                transport.upload(localFilePath, remoteFilePath);
+                result = true;
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean uploadFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNull(inputStream) && Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                transport.upload(inputStream, remoteFilePath);
                 result = true;
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
@@ -117,7 +87,49 @@ public class SFTPClientImpl implements FileTransferClient {
         boolean result = false;
         if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNullNonEmpty(localFilePath)) {
             try {
-                channelSftp.get(remoteFilePath, localFilePath);
+                transport.download(remoteFilePath, localFilePath);
+                result = true;
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean downloadFile(String remoteFilePath, OutputStream outputStream) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNull(outputStream)) {
+            try {
+                transport.download(remoteFilePath, outputStream);
+                result = true;
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean downloadFile(String remoteFilePath, long offset, OutputStream outputStream) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNull(outputStream)) {
+            try {
+                transport.download(remoteFilePath, offset, outputStream);
+                result = true;
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean appendFile(InputStream inputStream, String remoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNull(inputStream) && Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                transport.append(inputStream, remoteFilePath);
                 result = true;
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
@@ -131,7 +143,21 @@ public class SFTPClientImpl implements FileTransferClient {
         boolean result = false;
         if (Is.nonNullNonEmpty(remoteFilePath)) {
             try {
-                channelSftp.rm(remoteFilePath);
+                transport.delete(remoteFilePath);
+                result = true;
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteDirectory(String remoteDirectoryPath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteDirectoryPath)) {
+            try {
+                transport.deleteDirectory(remoteDirectoryPath);
                 result = true;
             } catch (Exception e) {
                 throw new FTPException(e.getMessage(), e);
@@ -139,4 +165,31 @@ public class SFTPClientImpl implements FileTransferClient {
         }
         return result;
     }
+
+    @Override
+    public boolean renameFile(String remoteFilePath, String newRemoteFilePath) throws FTPException {
+        boolean result = false;
+        if (Is.nonNullNonEmpty(remoteFilePath) && Is.nonNullNonEmpty(newRemoteFilePath)) {
+            try {
+                transport.rename(remoteFilePath, newRemoteFilePath);
+                result = true;
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public RemoteFile stat(String remoteFilePath) throws FTPException {
+        RemoteFile result = null;
+        if (Is.nonNullNonEmpty(remoteFilePath)) {
+            try {
+                result = transport.stat(remoteFilePath);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
 }
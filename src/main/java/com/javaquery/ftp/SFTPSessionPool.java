@@ -0,0 +1,175 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import lombok.EqualsAndHashCode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one authenticated SSH {@link Session} per login and leases {@link ChannelSftp} channels on top of it,
+ * so parallel SFTP clients pay for a single key exchange and login. Credentials only share a session when
+ * user, host, port, password, {@link SSHContext} and session settings are all the same, so a session is never
+ * handed to a caller that didn't authenticate the same way.
+ * <p>
+ * The number of channels open on a session is bounded by {@link Credentials#getMaxChannelsPerSession()},
+ * which must not exceed the server's {@code MaxSessions} setting (OpenSSH defaults to 10).
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public final class SFTPSessionPool {
+
+    private static final ConcurrentMap<SessionKey, SharedSession> SESSIONS = new ConcurrentHashMap<>();
+
+    private SFTPSessionPool() {
+    }
+
+    static SharedSession get(Credentials credentials) {
+        return SESSIONS.computeIfAbsent(new SessionKey(credentials), k -> new SharedSession(credentials));
+    }
+
+    /**
+     * Disconnect every shared session and the channels opened on it.
+     */
+    public static void closeAll() {
+        for (SharedSession sharedSession : SESSIONS.values()) {
+            sharedSession.close();
+        }
+        SESSIONS.clear();
+    }
+
+    /**
+     * Everything a session depends on. The password is kept as a hash, the context by identity.
+     */
+    @EqualsAndHashCode
+    private static final class SessionKey {
+        private final String username;
+        private final String host;
+        private final int port;
+        private final String passwordHash;
+        private final SSHContext sshContext;
+        private final int maxChannelsPerSession;
+        private final int connectTimeout;
+        private final int socketTimeout;
+
+        SessionKey(Credentials credentials) {
+            this.username = credentials.getUsername();
+            this.host = credentials.getHost();
+            this.port = credentials.getPort();
+            this.passwordHash = credentials.getPassword() != null ? sha256(credentials.getPassword()) : null;
+            this.sshContext = credentials.getSshContext();
+            this.maxChannelsPerSession = credentials.getMaxChannelsPerSession();
+            this.connectTimeout = credentials.getConnectTimeout();
+            this.socketTimeout = credentials.getSocketTimeout();
+        }
+
+        private static String sha256(String password) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+                StringBuilder hex = new StringBuilder(digest.length * 2);
+                for (byte b : digest) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                // every JVM provides SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    static final class SharedSession {
+        private final Credentials credentials;
+        private final Semaphore permits;
+        private final ConcurrentLinkedDeque<ChannelSftp> idleChannels = new ConcurrentLinkedDeque<>();
+        private volatile Session session;
+
+        private SharedSession(Credentials credentials) {
+            this.credentials = credentials;
+            this.permits = new Semaphore(Math.max(1, credentials.getMaxChannelsPerSession()), true);
+        }
+
+        /**
+         * Lease a connected channel, waiting up to {@code connectTimeout} for one to be released
+         * when all channels of the session are in use.
+         */
+        ChannelSftp lease() throws FTPException {
+            try {
+                if (!permits.tryAcquire(credentials.getConnectTimeout(), TimeUnit.MILLISECONDS)) {
+                    throw new FTPException("No SFTP channel available on shared session to " + credentials.getHost(), null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FTPException(e.getMessage(), e);
+            }
+
+            try {
+                Session connectedSession = connectedSession();
+                ChannelSftp channelSftp;
+                while ((channelSftp = idleChannels.pollFirst()) != null) {
+                    if (channelSftp.isConnected() && channelSftp.getSession() == connectedSession) {
+                        return channelSftp;
+                    }
+                    channelSftp.disconnect();
+                }
+                channelSftp = (ChannelSftp) connectedSession.openChannel("sftp");
+                channelSftp.connect(credentials.getConnectTimeout());
+                return channelSftp;
+            } catch (Exception e) {
+                permits.release();
+                throw e instanceof FTPException ? (FTPException) e : new FTPException(e.getMessage(), e);
+            }
+        }
+
+        void release(ChannelSftp channelSftp) {
+            try {
+                if (channelSftp != null) {
+                    if (channelSftp.isConnected() && session != null && session.isConnected()) {
+                        idleChannels.offerFirst(channelSftp);
+                    } else {
+                        channelSftp.disconnect();
+                    }
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private synchronized Session connectedSession() throws Exception {
+            if (session == null || !session.isConnected()) {
+                for (ChannelSftp channelSftp : idleChannels) {
+                    channelSftp.disconnect();
+                }
+                idleChannels.clear();
+
+                Session newSession = JSchSSHTransport.newSession(credentials);
+                // shared sessions outlive the clients using them, don't keep the JVM alive
+                newSession.setDaemonThread(true);
+                newSession.connect(credentials.getConnectTimeout());
+                newSession.setTimeout(credentials.getSocketTimeout());
+                session = newSession;
+            }
+            return session;
+        }
+
+        private synchronized void close() {
+            for (ChannelSftp channelSftp : idleChannels) {
+                channelSftp.disconnect();
+            }
+            idleChannels.clear();
+            if (session != null && session.isConnected()) {
+                session.disconnect();
+            }
+            session = null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.javaquery.ftp;
+
+/**
+ * SSH library used by {@link SFTPClientImpl}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public enum SSHBackend {
+    JSCH,
+    MINA_SSHD
+}
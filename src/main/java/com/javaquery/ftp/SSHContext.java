@@ -0,0 +1,151 @@
+package com.javaquery.ftp;
+
+import com.jcraft.jsch.HostKeyRepository;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import org.apache.sshd.common.NamedResource;
+import org.apache.sshd.common.config.keys.FilePasswordProvider;
+import org.apache.sshd.common.util.buffer.ByteArrayBuffer;
+import org.apache.sshd.common.util.security.SecurityUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Known hosts and private keys for SFTP connections, set with {@link Credentials#getSshContext()}. Files are
+ * read and keys decrypted once, every connection sharing the context then authenticates with the keys in
+ * memory and checks the server's host key against the known hosts in memory, so key authentication and host
+ * key checking add no work to connecting.
+ * <p>
+ * Add the identities before connecting with the context. Keys are decrypted for JSch when they are added and
+ * for Apache MINA SSHD by the first connection that uses them.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class SSHContext {
+
+    /**
+     * Holds the known hosts for both backends and the decrypted identities for JSch
+     */
+    private final JSch jsch = new JSch();
+    private final boolean knownHosts;
+    private final List<Identity> identities = new ArrayList<>();
+    private volatile List<KeyPair> keyPairs;
+
+    private SSHContext(boolean knownHosts) {
+        this.knownHosts = knownHosts;
+    }
+
+    /**
+     * @param knownHosts file in OpenSSH {@code known_hosts} format, connections to hosts whose key it doesn't
+     *                   list are refused. {@code null} to accept any host key.
+     */
+    public static SSHContext open(Path knownHosts) throws IOException {
+        SSHContext sshContext = new SSHContext(knownHosts != null);
+        if (knownHosts != null) {
+            if (!Files.exists(knownHosts)) {
+                throw new NoSuchFileException(knownHosts.toString());
+            }
+            try {
+                sshContext.jsch.setKnownHosts(knownHosts.toString());
+            } catch (JSchException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        return sshContext;
+    }
+
+    /**
+     * Add an unencrypted private key.
+     */
+    public SSHContext addIdentity(Path privateKey) throws IOException {
+        return addIdentity(privateKey, null);
+    }
+
+    /**
+     * @param passphrase of the private key, null if it isn't encrypted
+     */
+    public synchronized SSHContext addIdentity(Path privateKey, String passphrase) throws IOException {
+        try {
+            jsch.addIdentity(privateKey.toString(), passphrase != null ? passphrase.getBytes(StandardCharsets.UTF_8) : null);
+        } catch (JSchException e) {
+            throw new IOException("Can't load " + privateKey + ": " + e.getMessage(), e);
+        }
+        identities.add(new Identity(privateKey, passphrase));
+        keyPairs = null;
+        return this;
+    }
+
+    JSch jsch() {
+        return jsch;
+    }
+
+    /**
+     * @return true if host keys are checked
+     */
+    boolean hasKnownHosts() {
+        return knownHosts;
+    }
+
+    /**
+     * @return true if the known hosts list {@code hostKey} for {@code host} and {@code port}
+     */
+    boolean verifyHostKey(String host, int port, PublicKey hostKey) {
+        if (!knownHosts) {
+            return true;
+        }
+        ByteArrayBuffer buffer = new ByteArrayBuffer();
+        buffer.putRawPublicKey(hostKey);
+        // known_hosts names hosts on other ports [host]:port
+        String knownHost = port == 22 ? host : "[" + host + "]:" + port;
+        return jsch.getHostKeyRepository().check(knownHost, buffer.getCompactData()) == HostKeyRepository.OK;
+    }
+
+    /**
+     * @return the identities decrypted for Apache MINA SSHD
+     */
+    List<KeyPair> keyPairs() throws IOException, GeneralSecurityException {
+        List<KeyPair> result = keyPairs;
+        if (result == null) {
+            synchronized (this) {
+                result = keyPairs;
+                if (result == null) {
+                    result = new ArrayList<>();
+                    for (Identity identity : identities) {
+                        try (InputStream inputStream = Files.newInputStream(identity.privateKey)) {
+                            Iterable<KeyPair> loaded = SecurityUtils.loadKeyPairIdentities(null, NamedResource.ofName(identity.privateKey.toString()),
+                                    inputStream, identity.passphrase != null ? FilePasswordProvider.of(identity.passphrase) : null);
+                            if (loaded != null) {
+                                loaded.forEach(result::add);
+                            }
+                        }
+                    }
+                    result = Collections.unmodifiableList(result);
+                    keyPairs = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static class Identity {
+        private final Path privateKey;
+        private final String passphrase;
+
+        Identity(Path privateKey, String passphrase) {
+            this.privateKey = privateKey;
+            this.passphrase = passphrase;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.RemoteFile;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * SSH/SFTP library behind {@link SFTPClientImpl}. Implementations throw whatever their library throws,
+ * {@link SFTPClientImpl} wraps it into {@link com.javaquery.ftp.exception.FTPException}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public interface SSHTransport {
+    void connect(Credentials credentials) throws Exception;
+
+    void disconnect() throws Exception;
+
+    void list(String directoryPath, ListingSink sink) throws Exception;
+
+    /**
+     * @return true if {@link #list(String, ListingSink)} accepts a name glob in the last path segment
+     */
+    boolean listsPatterns();
+
+    void upload(String localFilePath, String remoteFilePath) throws Exception;
+
+    void upload(InputStream inputStream, String remoteFilePath) throws Exception;
+
+    void download(String remoteFilePath, String localFilePath) throws Exception;
+
+    void download(String remoteFilePath, OutputStream outputStream) throws Exception;
+
+    void download(String remoteFilePath, long offset, OutputStream outputStream) throws Exception;
+
+    void append(InputStream inputStream, String remoteFilePath) throws Exception;
+
+    void delete(String remoteFilePath) throws Exception;
+
+    void deleteDirectory(String remoteDirectoryPath) throws Exception;
+
+    void rename(String remoteFilePath, String newRemoteFilePath) throws Exception;
+
+    /**
+     * @return attributes of {@code remoteFilePath}, null if it doesn't exist
+     */
+    RemoteFile stat(String remoteFilePath) throws Exception;
+}
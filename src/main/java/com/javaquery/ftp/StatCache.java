@@ -0,0 +1,295 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.RemoteFile;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the results of {@link JFTPClient#stat(String)}, {@link JFTPClient#exists(String)} and
+ * {@link JFTPClient#size(String)} for {@code ttlMillis}, enabled with {@link Credentials#getStatCache()}.
+ * Paths that don't exist are cached too. Uploads, deletes and renames through any client sharing the cache
+ * drop the entries of the paths they change, changes made by others show after at most {@code ttlMillis}.
+ * <p>
+ * Instances are thread-safe and meant to be shared, e.g. by the clients of a {@link JFTPClientPool}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class StatCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    /**
+     * Results and tombstones of invalidated paths, each with the version a lookup must still see to store its
+     * result, so only a change of the same path discards a lookup that raced with it. Sorted, so the paths
+     * below a directory are a range.
+     */
+    private final ConcurrentNavigableMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    /**
+     * Size of {@link #entries}, which the skip list only counts in linear time
+     */
+    private final AtomicInteger count = new AtomicInteger();
+    /**
+     * Directory key to the version it was invalidated with as a whole, paths below it looked up before can't
+     * be stored
+     */
+    private final ConcurrentMap<String, Long> trees = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    /**
+     * Lookups of paths without an entry that started before this version can't be stored, their tombstone
+     * may have been evicted
+     */
+    private final AtomicLong floor = new AtomicLong();
+    /**
+     * Earliest time a result left by the last eviction expires, a full cache isn't scanned again before
+     */
+    private volatile long nextEviction;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param ttlMillis time a result is reused, 0 to look up every time
+     */
+    public StatCache(long ttlMillis) {
+        this(ttlMillis, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries results kept at most, further results aren't cached until entries expire. Invalidations
+     *                   of a full cache may exceed it until then.
+     */
+    public StatCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param server identifies the server, part of the cache key
+     * @return cached result, null if there is none. The result of a path that doesn't exist has no remote file.
+     */
+    Entry get(String server, String remoteFilePath) {
+        Entry entry = entries.get(key(server, remoteFilePath));
+        if (entry == null || System.currentTimeMillis() >= entry.expiresAt) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    /**
+     * @return stamp to pass to {@link #put(String, String, RemoteFile, long)}, read before the lookup
+     */
+    long stamp(String server, String remoteFilePath) {
+        Entry entry = entries.get(key(server, remoteFilePath));
+        return entry != null ? entry.version : versions.get();
+    }
+
+    /**
+     * Store the result of a lookup unless the path was invalidated since {@code stamp} was read.
+     *
+     * @param remoteFile result of the lookup, null if the path doesn't exist
+     */
+    void put(String server, String remoteFilePath, RemoteFile remoteFile, long stamp) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (isFull()) {
+            evict(now);
+            if (isFull()) {
+                return;
+            }
+        }
+        String key = key(server, remoteFilePath);
+        if (isTreeInvalidated(key, stamp)) {
+            return;
+        }
+        Entry entry = new Entry(remoteFile, now + ttlMillis, stamp);
+        Entry current = entries.get(key);
+        // the floor is read after the entry, an evicted tombstone has raised it already
+        boolean stored = current != null
+                ? current.version == stamp && entries.replace(key, current, entry)
+                : stamp >= floor.get() && entries.putIfAbsent(key, entry) == null;
+        if (stored && current == null) {
+            count.incrementAndGet();
+        }
+        if (stored && isTreeInvalidated(key, stamp)) {
+            // a directory above was invalidated while storing, the lookup may predate the change
+            remove(key, entry);
+        }
+    }
+
+    /**
+     * Drop the result of {@code remoteFilePath}, e.g. after it was uploaded or deleted.
+     */
+    void invalidate(String server, String remoteFilePath) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        tombstone(key(server, remoteFilePath));
+    }
+
+    /**
+     * Drop the results of {@code remotePath} and of every path below it, e.g. after a directory was renamed.
+     * A path cached as a file has nothing below it and is only invalidated.
+     */
+    void invalidateTree(String server, String remotePath) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        String key = key(server, remotePath);
+        String directory = key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+        Entry entry = entries.get(directory);
+        if (entry != null && entry.remoteFile != null && entry.remoteFile.isFile()
+                && System.currentTimeMillis() < entry.expiresAt) {
+            tombstone(directory);
+            return;
+        }
+        // marked before the entries are dropped, so a lookup stored in between is removed again by put
+        trees.merge(directory, versions.incrementAndGet(), Math::max);
+        remove(directory);
+        // every key starting with "directory/", '0' follows '/'
+        for (String below : entries.subMap(directory + '/', directory + '0').keySet()) {
+            remove(below);
+        }
+    }
+
+    public void clear() {
+        floor.set(versions.incrementAndGet());
+        for (String key : entries.keySet()) {
+            remove(key);
+        }
+        trees.clear();
+        nextEviction = 0;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of cached results and tombstones
+     */
+    int size() {
+        return count.get() + trees.size();
+    }
+
+    private boolean isFull() {
+        return size() >= maxEntries;
+    }
+
+    /**
+     * Drop expired results, and the tombstones and directory marks that {@link #floor} now stands in for.
+     * Skipped until a result left by the last eviction expires.
+     */
+    private void evict(long now) {
+        if (now < nextEviction) {
+            return;
+        }
+        long evictedVersion = versions.get();
+        // raised first, a lookup must not see the tombstone gone and the old floor
+        floor.accumulateAndGet(evictedVersion, Math::max);
+        long next = Long.MAX_VALUE;
+        for (Map.Entry<String, Entry> cached : entries.entrySet()) {
+            Entry entry = cached.getValue();
+            if (entry.isTombstone() ? entry.version <= evictedVersion : now >= entry.expiresAt) {
+                remove(cached.getKey(), entry);
+            } else if (!entry.isTombstone()) {
+                next = Math.min(next, entry.expiresAt);
+            }
+        }
+        trees.values().removeIf(version -> version <= evictedVersion);
+        // left with tombstones only, those of later invalidations can go with the next eviction
+        nextEviction = next == Long.MAX_VALUE ? 0 : next;
+    }
+
+    private void tombstone(String key) {
+        if (isFull()) {
+            evict(System.currentTimeMillis());
+        }
+        if (entries.put(key, Entry.tombstone(versions.incrementAndGet())) == null) {
+            count.incrementAndGet();
+        }
+    }
+
+    private void remove(String key) {
+        if (entries.remove(key) != null) {
+            count.decrementAndGet();
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return true if {@code key} or a directory above it was invalidated as a whole after {@code stamp}
+     */
+    private boolean isTreeInvalidated(String key, long stamp) {
+        if (trees.isEmpty()) {
+            return false;
+        }
+        String directory = key;
+        while (true) {
+            Long version = trees.get(directory);
+            if (version != null && version > stamp) {
+                return true;
+            }
+            int slash = directory.lastIndexOf('/');
+            if (slash < 0) {
+                return false;
+            }
+            directory = directory.substring(0, slash);
+        }
+    }
+
+    private static String key(String server, String remoteFilePath) {
+        return server + '\0' + remoteFilePath;
+    }
+
+    static class Entry {
+        private final RemoteFile remoteFile;
+        private final long expiresAt;
+        private final long version;
+
+        Entry(RemoteFile remoteFile, long expiresAt, long version) {
+            this.remoteFile = remoteFile;
+            this.expiresAt = expiresAt;
+            this.version = version;
+        }
+
+        /**
+         * Left by an invalidation, never a hit
+         */
+        static Entry tombstone(long version) {
+            return new Entry(null, 0, version);
+        }
+
+        boolean isTombstone() {
+            return expiresAt == 0;
+        }
+
+        /**
+         * @return null if the path doesn't exist
+         */
+        RemoteFile getRemoteFile() {
+            return remoteFile;
+        }
+    }
+}
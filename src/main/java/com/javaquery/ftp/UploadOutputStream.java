@@ -0,0 +1,127 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.BoundedPipe;
+import com.javaquery.ftp.io.BufferPool;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Stream the application writes a remote file into while it is uploaded, so producing the data and sending
+ * it overlap. Written bytes go into a {@link BoundedPipe} that a background thread uploads from with
+ * {@link JFTPClient#uploadFile(java.io.InputStream, String)}. Writes only block while the pipe is full,
+ * i.e. while the producer is ahead of the network by {@code bufferSize} bytes.
+ * <p>
+ * {@link #close()} waits for the upload and fails if the server didn't confirm it. After a failed write, or
+ * with {@link #abort(Exception)}, the upload is failed instead of completed, so a truncated file is never
+ * reported as uploaded (the server may still keep what it received). The client must not be used by anything
+ * else until the stream is closed, and must be disconnected after a failed upload: on FTP/FTPS the reply to
+ * the aborted transfer is still unread and would be taken for the reply to the next command.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class UploadOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private final String remoteFilePath;
+    private final BoundedPipe pipe;
+    private final OutputStream pipeOutputStream;
+    private final Future<Boolean> upload;
+    private boolean failed;
+    private boolean closed;
+
+    UploadOutputStream(JFTPClient jftpClient, String remoteFilePath, int bufferSize) {
+        this.remoteFilePath = remoteFilePath;
+        this.pipe = new BoundedPipe(BufferPool.DEFAULT, bufferSize);
+        this.pipeOutputStream = pipe.getOutputStream();
+        // closing the pipe unblocks the producer if the upload stopped reading early
+        this.upload = pipe.readAsync(inputStream -> jftpClient.uploadFile(inputStream, remoteFilePath));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Upload stream of " + remoteFilePath + " is closed");
+        }
+        try {
+            pipeOutputStream.write(b, off, len);
+        } catch (InterruptedIOException e) {
+            failed = true;
+            throw e;
+        } catch (IOException e) {
+            failed = true;
+            // the upload stopped reading and is about to finish, report why
+            if (!awaitUpload()) {
+                throw new IOException("Upload of " + remoteFilePath + " was not confirmed", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Complete the upload and wait until the server confirmed it.
+     *
+     * @throws IOException if the upload failed or wasn't confirmed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (failed) {
+            pipe.fail(new IOException("Writing to the upload stream of " + remoteFilePath + " failed"));
+        } else {
+            pipeOutputStream.close();
+        }
+        if (!awaitUpload() && !failed) {
+            throw new IOException("Upload of " + remoteFilePath + " was not confirmed");
+        }
+    }
+
+    /**
+     * Fail the upload instead of completing it, e.g. when producing the data failed, and wait for it to stop.
+     * Disconnect the client afterwards.
+     */
+    public void abort(Exception cause) throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pipe.fail(cause);
+        try {
+            upload.get();
+        } catch (ExecutionException e) {
+            // expected, the upload read the failure
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the server confirmed the upload
+     * @throws IOException with the cause of a failed upload
+     */
+    private boolean awaitUpload() throws IOException {
+        try {
+            return upload.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new IOException("Upload of " + remoteFilePath + " failed: " + cause.getMessage(), cause);
+        }
+    }
+}
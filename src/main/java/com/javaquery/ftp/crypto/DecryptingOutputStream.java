@@ -0,0 +1,97 @@
+package com.javaquery.ftp.crypto;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Decrypts what is written to it into the wrapped stream, one verified chunk at a time. A chunk is only known
+ * to be the last one when the input ends, so the last chunk is decrypted by {@link #finish()}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ * @see FileEncryption#decrypt(OutputStream)
+ */
+public class DecryptingOutputStream extends FilterOutputStream {
+
+    private final FileEncryption fileEncryption;
+    private final byte[] header = new byte[FileEncryption.HEADER_LENGTH];
+    private int headerLength;
+    private FileEncryption.ChunkCipher chunkCipher;
+    private byte[] ciphertext;
+    private byte[] plaintext;
+    private int length;
+    private boolean finished;
+
+    DecryptingOutputStream(OutputStream plaintext, FileEncryption fileEncryption) {
+        super(plaintext);
+        this.fileEncryption = fileEncryption;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("Decryption is finished");
+        }
+        if (chunkCipher == null) {
+            int copy = Math.min(len, header.length - headerLength);
+            System.arraycopy(b, off, header, headerLength, copy);
+            headerLength += copy;
+            off += copy;
+            len -= copy;
+            if (headerLength < header.length) {
+                return;
+            }
+            int chunkSize = FileEncryption.chunkSize(header);
+            chunkCipher = fileEncryption.newChunkCipher(header);
+            ciphertext = new byte[chunkSize + FileEncryption.TAG_LENGTH];
+            plaintext = new byte[chunkSize];
+        }
+        while (len > 0) {
+            if (length == ciphertext.length) {
+                // more follows, so the buffered chunk isn't the last one
+                out.write(plaintext, 0, chunkCipher.decrypt(ciphertext, length, false, plaintext));
+                length = 0;
+            }
+            int copy = Math.min(len, ciphertext.length - length);
+            System.arraycopy(b, off, ciphertext, length, copy);
+            length += copy;
+            off += copy;
+            len -= copy;
+        }
+    }
+
+    /**
+     * Decrypt the last chunk without closing the wrapped stream.
+     *
+     * @throws IOException if the encrypted file was truncated or modified
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (chunkCipher == null || length < FileEncryption.TAG_LENGTH) {
+            throw new IOException("Encrypted file is truncated");
+        }
+        out.write(plaintext, 0, chunkCipher.decrypt(ciphertext, length, true, plaintext));
+        out.flush();
+    }
+
+    /**
+     * {@link #finish()} and close the wrapped stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+}
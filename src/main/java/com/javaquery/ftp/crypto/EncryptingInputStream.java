@@ -0,0 +1,109 @@
+package com.javaquery.ftp.crypto;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the encrypted form of the wrapped plaintext stream, one chunk at a time.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ * @see FileEncryption#encrypt(InputStream)
+ */
+public class EncryptingInputStream extends FilterInputStream {
+
+    private final FileEncryption.ChunkCipher chunkCipher;
+    private final byte[] plaintext;
+    private final byte[] ciphertext;
+    /**
+     * First byte of the next chunk, read to tell whether the current chunk is the last one, -1 if none
+     */
+    private int lookahead = -1;
+    private int position;
+    private int limit;
+    private boolean headerSent;
+    private boolean lastSent;
+
+    EncryptingInputStream(InputStream plaintext, FileEncryption.ChunkCipher chunkCipher, int chunkSize) {
+        super(plaintext);
+        this.chunkCipher = chunkCipher;
+        this.plaintext = new byte[chunkSize];
+        this.ciphertext = new byte[chunkSize + FileEncryption.TAG_LENGTH];
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!headerSent) {
+            byte[] header = chunkCipher.header();
+            System.arraycopy(header, 0, ciphertext, 0, header.length);
+            position = 0;
+            limit = header.length;
+            headerSent = true;
+        } else if (position == limit) {
+            if (lastSent) {
+                return -1;
+            }
+            encryptNextChunk();
+        }
+        int read = Math.min(len, limit - position);
+        System.arraycopy(ciphertext, position, b, off, read);
+        position += read;
+        return read;
+    }
+
+    private void encryptNextChunk() throws IOException {
+        int length = 0;
+        if (lookahead != -1) {
+            plaintext[length++] = (byte) lookahead;
+        }
+        int read;
+        while (length < plaintext.length && (read = in.read(plaintext, length, plaintext.length - length)) != -1) {
+            length += read;
+        }
+        lookahead = length == plaintext.length ? in.read() : -1;
+        boolean last = lookahead == -1;
+        limit = chunkCipher.encrypt(plaintext, length, last, ciphertext);
+        position = 0;
+        lastSent = last;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        int read;
+        while (skipped < n && (read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped))) != -1) {
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
@@ -0,0 +1,204 @@
+package com.javaquery.ftp.crypto;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Chunked AES-GCM encryption of whole files, so files can be encrypted and decrypted while they stream
+ * without holding them in memory. Each chunk is authenticated on its own and decrypted data is only released
+ * once its chunk is verified. The chunk number and a last-chunk flag are part of each chunk's nonce, so
+ * reordered, dropped or truncated chunks fail decryption.
+ * <p>
+ * Every file starts with a header holding the chunk size and random salt and nonce prefix. Each file is
+ * encrypted with its own key, derived from the key of this instance and the salt with HKDF-SHA256. That
+ * keeps nonces from repeating however many files share the key. The JCE's AES-GCM uses the processor's
+ * AES and carry-less multiplication instructions where the JVM supports them.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FileEncryption {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    /**
+     * Largest chunk size accepted from a header, bounds the buffers a corrupt header can make us allocate
+     */
+    public static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    static final int TAG_LENGTH = 16;
+    static final int HEADER_LENGTH = 31;
+    private static final byte[] MAGIC = {'J', 'Q', 'E', 1};
+    private static final int SALT_LENGTH = 16;
+    private static final int NONCE_PREFIX_LENGTH = 7;
+    private static final byte[] KEY_INFO = "javaquery-ftp AES-GCM chunked v1".getBytes(StandardCharsets.US_ASCII);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final byte[] key;
+    private final int chunkSize;
+
+    private FileEncryption(byte[] key, int chunkSize) {
+        this.key = key;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param key AES key of 16, 24 or 32 bytes
+     */
+    public static FileEncryption aesGcm(SecretKey key) {
+        return aesGcm(key, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize plaintext bytes per chunk, each chunk adds a 16 byte tag
+     */
+    public static FileEncryption aesGcm(SecretKey key, int chunkSize) {
+        byte[] encoded = key.getEncoded();
+        if (encoded == null || (encoded.length != 16 && encoded.length != 24 && encoded.length != 32)) {
+            throw new IllegalArgumentException("AES key of 16, 24 or 32 bytes required");
+        }
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE + ": " + chunkSize);
+        }
+        return new FileEncryption(encoded, chunkSize);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return size of the encrypted form of {@code plaintextLength} bytes
+     */
+    public long encryptedLength(long plaintextLength) {
+        long chunks = Math.max(1, (plaintextLength + chunkSize - 1) / chunkSize);
+        return HEADER_LENGTH + plaintextLength + chunks * TAG_LENGTH;
+    }
+
+    /**
+     * @return stream of the encrypted form of {@code plaintext}, closing it closes {@code plaintext}
+     */
+    public InputStream encrypt(InputStream plaintext) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        ByteBuffer.wrap(header).put(MAGIC).putInt(chunkSize);
+        byte[] random = new byte[SALT_LENGTH + NONCE_PREFIX_LENGTH];
+        RANDOM.nextBytes(random);
+        System.arraycopy(random, 0, header, MAGIC.length + 4, random.length);
+        return new EncryptingInputStream(plaintext, newChunkCipher(header), chunkSize);
+    }
+
+    /**
+     * @return stream that decrypts what is written to it into {@code plaintext}. Call
+     * {@link DecryptingOutputStream#finish()} or close it once everything is written, that is when a truncated
+     * file is detected.
+     */
+    public DecryptingOutputStream decrypt(OutputStream plaintext) {
+        return new DecryptingOutputStream(plaintext, this);
+    }
+
+    /**
+     * @return the cipher of a file with {@code header}, whose chunk size has been checked
+     */
+    ChunkCipher newChunkCipher(byte[] header) throws IOException {
+        if (!Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC)) {
+            throw new IOException("Not an encrypted file, or of an unsupported version");
+        }
+        int offset = MAGIC.length + 4;
+        byte[] salt = Arrays.copyOfRange(header, offset, offset + SALT_LENGTH);
+        byte[] noncePrefix = Arrays.copyOfRange(header, offset + SALT_LENGTH, offset + SALT_LENGTH + NONCE_PREFIX_LENGTH);
+        try {
+            return new ChunkCipher(header, new SecretKeySpec(deriveKey(salt), "AES"), noncePrefix);
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return chunk size stored in {@code header}
+     */
+    static int chunkSize(byte[] header) throws IOException {
+        int chunkSize = ByteBuffer.wrap(header, MAGIC.length, 4).getInt();
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IOException("Invalid chunk size in header: " + chunkSize);
+        }
+        return chunkSize;
+    }
+
+    /**
+     * HKDF-SHA256 (RFC 5869) with a single output block, the key is at most 32 bytes.
+     */
+    private byte[] deriveKey(byte[] salt) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(salt, "HmacSHA256"));
+        byte[] pseudoRandomKey = mac.doFinal(key);
+        mac.init(new SecretKeySpec(pseudoRandomKey, "HmacSHA256"));
+        mac.update(KEY_INFO);
+        mac.update((byte) 1);
+        return Arrays.copyOf(mac.doFinal(), key.length);
+    }
+
+    /**
+     * Encrypts or decrypts the chunks of one file in order. The header is authenticated with every chunk.
+     */
+    static final class ChunkCipher {
+        private final byte[] header;
+        private final SecretKey fileKey;
+        private final byte[] nonce = new byte[12];
+        private final Cipher cipher;
+        private long chunk;
+
+        private ChunkCipher(byte[] header, SecretKey fileKey, byte[] noncePrefix) throws GeneralSecurityException {
+            this.header = header;
+            this.fileKey = fileKey;
+            this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            System.arraycopy(noncePrefix, 0, nonce, 0, noncePrefix.length);
+        }
+
+        byte[] header() {
+            return header;
+        }
+
+        /**
+         * @return length written to {@code output}
+         */
+        int encrypt(byte[] input, int length, boolean last, byte[] output) throws IOException {
+            return apply(Cipher.ENCRYPT_MODE, input, length, last, output);
+        }
+
+        /**
+         * @throws IOException if the chunk was modified or isn't the expected one
+         */
+        int decrypt(byte[] input, int length, boolean last, byte[] output) throws IOException {
+            return apply(Cipher.DECRYPT_MODE, input, length, last, output);
+        }
+
+        private int apply(int mode, byte[] input, int length, boolean last, byte[] output) throws IOException {
+            if (chunk > 0xFFFFFFFFL) {
+                throw new IOException("File has too many chunks");
+            }
+            ByteBuffer.wrap(nonce, 7, 5).putInt((int) chunk).put((byte) (last ? 1 : 0));
+            try {
+                cipher.init(mode, fileKey, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+                cipher.updateAAD(header);
+                int written = cipher.doFinal(input, 0, length, output, 0);
+                chunk++;
+                return written;
+            } catch (AEADBadTagException e) {
+                throw new IOException("Chunk " + chunk + " failed authentication, the file was modified, truncated or encrypted with another key", e);
+            } catch (GeneralSecurityException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+}
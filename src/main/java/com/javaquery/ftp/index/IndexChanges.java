@@ -0,0 +1,29 @@
+package com.javaquery.ftp.index;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paths that differ between a listing and a {@link RemoteIndex}, directories included.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Getter
+public class IndexChanges {
+    private final List<String> created = new ArrayList<>();
+    private final List<String> modified = new ArrayList<>();
+    private final List<String> deleted = new ArrayList<>();
+
+    public boolean isEmpty() {
+        return created.isEmpty() && modified.isEmpty() && deleted.isEmpty();
+    }
+
+    void addAll(IndexChanges changes) {
+        created.addAll(changes.created);
+        modified.addAll(changes.modified);
+        deleted.addAll(changes.deleted);
+    }
+}
@@ -0,0 +1,475 @@
+package com.javaquery.ftp.index;
+
+import com.javaquery.ftp.Credentials;
+import com.javaquery.ftp.JFTPClient;
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.RemoteFileList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Known state of a remote server (path, size, last modified time and an optional checksum per entry) kept
+ * in a memory-mapped file, so it survives restarts and is loaded with a single pass over the file.
+ * <p>
+ * Records are appended to the file and updated in place when only the size, time or an equally long checksum
+ * changes. Removed records are marked dead and the file is compacted once more than half of it is dead. The
+ * index is a cache: after a crash it may be behind the server, which only means extra work on the next sync.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class RemoteIndex implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteIndex.class);
+
+    private static final int MAGIC = 0x4A465849;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int END_OFFSET = 8;
+    private static final int DEAD_OFFSET = 16;
+    private static final int INITIAL_CAPACITY = 1024 * 1024;
+
+    // record: int length, byte flags, long size, long lastModified, short path length, byte checksum length,
+    // path bytes, checksum bytes
+    private static final int RECORD_FLAGS = 4;
+    private static final int RECORD_SIZE = 5;
+    private static final int RECORD_LAST_MODIFIED = 13;
+    private static final int RECORD_PATH_LENGTH = 21;
+    private static final int RECORD_CHECKSUM_LENGTH = 23;
+    private static final int RECORD_HEADER_SIZE = 24;
+    private static final byte LIVE = 1;
+    private static final byte DIRECTORY = 2;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long end;
+    private long dead;
+    /**
+     * End the file must reach before the next automatic compaction, raised when one failed
+     */
+    private long compactAfter;
+    /**
+     * directory prefix ending with {@code /} to entry name to record offset
+     */
+    private final Map<String, Map<String, Integer>> directories = new HashMap<>();
+
+    private RemoteIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the index of the server and user of {@code credentials} in {@code directory}, creating it if needed.
+     */
+    public static RemoteIndex open(Path directory, Credentials credentials) throws IOException {
+        String name = (credentials.getUsername() + "@" + credentials.getHost() + "_" + credentials.getPort())
+                .replaceAll("[^A-Za-z0-9@._-]", "_");
+        Files.createDirectories(directory);
+        return open(directory.resolve(name + ".idx"));
+    }
+
+    public static RemoteIndex open(Path file) throws IOException {
+        RemoteIndex remoteIndex = new RemoteIndex(file);
+        remoteIndex.load();
+        return remoteIndex;
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            map(INITIAL_CAPACITY);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            setEnd(HEADER_SIZE);
+            setDead(0);
+            return;
+        }
+        map(fileSize);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a remote index: " + file);
+        }
+        end = buffer.getLong(END_OFFSET);
+        dead = buffer.getLong(DEAD_OFFSET);
+        for (int offset = HEADER_SIZE; offset < end; offset += buffer.getInt(offset)) {
+            if (buffer.getInt(offset) < RECORD_HEADER_SIZE) {
+                throw new IOException("Corrupted remote index: " + file);
+            }
+            if ((buffer.get(offset + RECORD_FLAGS) & LIVE) != 0) {
+                String path = readPath(offset);
+                int slash = path.lastIndexOf('/') + 1;
+                directories.computeIfAbsent(path.substring(0, slash), k -> new HashMap<>()).put(path.substring(slash), offset);
+            }
+        }
+    }
+
+    public synchronized RemoteIndexEntry get(String path) {
+        Integer offset = offset(path);
+        if (offset == null) {
+            return null;
+        }
+        int checksumLength = buffer.get(offset + RECORD_CHECKSUM_LENGTH) & 0xFF;
+        byte[] checksum = null;
+        if (checksumLength > 0) {
+            checksum = new byte[checksumLength];
+            read(offset + RECORD_HEADER_SIZE + buffer.getShort(offset + RECORD_PATH_LENGTH), checksum);
+        }
+        return RemoteIndexEntry.builder()
+                .path(path)
+                .isDirectory((buffer.get(offset + RECORD_FLAGS) & DIRECTORY) != 0)
+                .size(buffer.getLong(offset + RECORD_SIZE))
+                .lastModified(buffer.getLong(offset + RECORD_LAST_MODIFIED))
+                .checksum(checksum)
+                .build();
+    }
+
+    /**
+     * @return true if {@code path} is indexed with this size and last modified time
+     */
+    public synchronized boolean isUnchanged(String path, long size, long lastModified) {
+        Integer offset = offset(path);
+        return offset != null && buffer.getLong(offset + RECORD_SIZE) == size
+                && buffer.getLong(offset + RECORD_LAST_MODIFIED) == lastModified;
+    }
+
+    /**
+     * Add or update an entry. The checksum of an entry whose size or time changed is dropped.
+     */
+    public synchronized void put(String path, boolean isDirectory, long size, long lastModified) throws IOException {
+        Integer offset = offset(path);
+        if (offset == null) {
+            append(path, isDirectory, size, lastModified, null);
+            return;
+        }
+        if (buffer.getLong(offset + RECORD_SIZE) != size || buffer.getLong(offset + RECORD_LAST_MODIFIED) != lastModified) {
+            buffer.put(offset + RECORD_CHECKSUM_LENGTH, (byte) 0);
+        }
+        buffer.put(offset + RECORD_FLAGS, (byte) (LIVE | (isDirectory ? DIRECTORY : 0)));
+        buffer.putLong(offset + RECORD_SIZE, size);
+        buffer.putLong(offset + RECORD_LAST_MODIFIED, lastModified);
+    }
+
+    /**
+     * Store a checksum (e.g. computed while downloading) with an indexed entry.
+     *
+     * @param checksum at most 255 bytes, null to remove it
+     * @return false if {@code path} is not indexed
+     */
+    public synchronized boolean putChecksum(String path, byte[] checksum) throws IOException {
+        if (checksum != null && checksum.length > 255) {
+            throw new IllegalArgumentException("Checksum longer than 255 bytes");
+        }
+        Integer offset = offset(path);
+        if (offset == null) {
+            return false;
+        }
+        int capacity = buffer.getInt(offset) - RECORD_HEADER_SIZE - buffer.getShort(offset + RECORD_PATH_LENGTH);
+        int length = checksum == null ? 0 : checksum.length;
+        if (length > capacity) {
+            // doesn't fit into the record, move it to the end
+            boolean isDirectory = (buffer.get(offset + RECORD_FLAGS) & DIRECTORY) != 0;
+            long size = buffer.getLong(offset + RECORD_SIZE);
+            long lastModified = buffer.getLong(offset + RECORD_LAST_MODIFIED);
+            kill(path, offset);
+            append(path, isDirectory, size, lastModified, checksum);
+            return true;
+        }
+        if (length > 0) {
+            write(offset + RECORD_HEADER_SIZE + buffer.getShort(offset + RECORD_PATH_LENGTH), checksum);
+        }
+        buffer.put(offset + RECORD_CHECKSUM_LENGTH, (byte) length);
+        return true;
+    }
+
+    /**
+     * Remove an entry, and everything below it for a directory.
+     */
+    public synchronized void remove(String path) throws IOException {
+        Integer offset = offset(path);
+        if (offset != null) {
+            kill(path, offset);
+        }
+        String prefix = RemoteFileList.directoryPrefix(path);
+        Iterator<Map.Entry<String, Map<String, Integer>>> iterator = directories.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Map<String, Integer>> directory = iterator.next();
+            if (directory.getKey().startsWith(prefix)) {
+                for (Integer child : directory.getValue().values()) {
+                    markDead(child);
+                }
+                iterator.remove();
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Bring the entries of a directory in line with its listing.
+     *
+     * @return entries that were added, changed or removed
+     */
+    public synchronized IndexChanges update(RemoteFileList listing) throws IOException {
+        IndexChanges changes = new IndexChanges();
+        String prefix = listing.getDirectoryPrefix();
+        Set<String> listed = new HashSet<>();
+        for (int i = 0; i < listing.size(); i++) {
+            String name = listing.getName(i);
+            if (name.equals(".") || name.equals("..")) {
+                continue;
+            }
+            listed.add(name);
+            String path = prefix + name;
+            Integer offset = offset(path);
+            if (offset == null) {
+                changes.getCreated().add(path);
+            } else if (buffer.getLong(offset + RECORD_SIZE) != listing.getSize(i)
+                    || buffer.getLong(offset + RECORD_LAST_MODIFIED) != listing.getLastModified(i)
+                    || ((buffer.get(offset + RECORD_FLAGS) & DIRECTORY) != 0) != listing.isDirectory(i)) {
+                changes.getModified().add(path);
+            } else {
+                continue;
+            }
+            put(path, listing.isDirectory(i), listing.getSize(i), listing.getLastModified(i));
+        }
+
+        Map<String, Integer> children = directories.get(prefix);
+        if (children != null) {
+            List<String> removed = new ArrayList<>();
+            for (String name : children.keySet()) {
+                if (!listed.contains(name)) {
+                    removed.add(prefix + name);
+                }
+            }
+            for (String path : removed) {
+                remove(path);
+                changes.getDeleted().add(path);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * List {@code directoryPath} and all of its subdirectories and update the index.
+     *
+     * @return changes of the whole tree
+     */
+    public IndexChanges scan(JFTPClient jftpClient, String directoryPath) throws FTPException, IOException {
+        return scan(jftpClient, directoryPath, false);
+    }
+
+    /**
+     * List {@code directoryPath} and its subdirectories and update the index.
+     * <p>
+     * With {@code skipUnchangedDirectories}, directories whose size and last modified time are unchanged are not
+     * listed again. Only use it for servers known to update a directory's time whenever anything below it changes:
+     * most only do so when entries are added, removed or renamed directly in it, so files rewritten in place and
+     * changes deeper in the tree are missed.
+     *
+     * @return changes of the scanned part of the tree
+     */
+    public IndexChanges scan(JFTPClient jftpClient, String directoryPath, boolean skipUnchangedDirectories) throws FTPException, IOException {
+        IndexChanges changes = new IndexChanges();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(directoryPath);
+        while (!pending.isEmpty()) {
+            RemoteFileList listing = jftpClient.listFiles(pending.poll(), null);
+            IndexChanges directoryChanges = update(listing);
+            changes.addAll(directoryChanges);
+            for (int i = 0; i < listing.size(); i++) {
+                String path = listing.getPath(i);
+                if (listing.isDirectory(i) && !listing.getName(i).equals(".") && !listing.getName(i).equals("..")
+                        && (!skipUnchangedDirectories || directoryChanges.getCreated().contains(path)
+                        || directoryChanges.getModified().contains(path))) {
+                    pending.add(path);
+                }
+            }
+        }
+        return changes;
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (Map<String, Integer> children : directories.values()) {
+            size += children.size();
+        }
+        return size;
+    }
+
+    /**
+     * Write changes to disk.
+     */
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Rewrite the file with the live records only. If the rewritten file can't replace the current one, e.g.
+     * on Windows while it is mapped, the index keeps using the current file.
+     */
+    public synchronized void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        Map<String, Map<String, Integer>> offsets = new HashMap<>();
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer targetBuffer = target.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, end - dead));
+            targetBuffer.putInt(0, MAGIC);
+            targetBuffer.putInt(4, VERSION);
+            int position = HEADER_SIZE;
+            for (Map.Entry<String, Map<String, Integer>> directory : directories.entrySet()) {
+                Map<String, Integer> children = new HashMap<>();
+                for (Map.Entry<String, Integer> child : directory.getValue().entrySet()) {
+                    int length = buffer.getInt(child.getValue());
+                    ByteBuffer record = buffer.duplicate();
+                    record.position(child.getValue()).limit(child.getValue() + length);
+                    targetBuffer.position(position);
+                    targetBuffer.put(record);
+                    children.put(child.getKey(), position);
+                    position += length;
+                }
+                offsets.put(directory.getKey(), children);
+            }
+            targetBuffer.putLong(END_OFFSET, position);
+            targetBuffer.putLong(DEAD_OFFSET, 0);
+            targetBuffer.force();
+        }
+        channel.close();
+        try {
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            map(channel.size());
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+        directories.clear();
+        directories.putAll(offsets);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(channel.size());
+        end = buffer.getLong(END_OFFSET);
+        dead = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private Integer offset(String path) {
+        int slash = path.lastIndexOf('/') + 1;
+        Map<String, Integer> children = directories.get(path.substring(0, slash));
+        return children == null ? null : children.get(path.substring(slash));
+    }
+
+    private void append(String path, boolean isDirectory, long size, long lastModified, byte[] checksum) throws IOException {
+        byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+        if (pathBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Path too long: " + path);
+        }
+        int checksumLength = checksum == null ? 0 : checksum.length;
+        int length = RECORD_HEADER_SIZE + pathBytes.length + checksumLength;
+        if (end + length > buffer.capacity()) {
+            map(Math.max(buffer.capacity() * 2L, end + length));
+        }
+        int offset = (int) end;
+        buffer.putInt(offset, length);
+        buffer.put(offset + RECORD_FLAGS, (byte) (LIVE | (isDirectory ? DIRECTORY : 0)));
+        buffer.putLong(offset + RECORD_SIZE, size);
+        buffer.putLong(offset + RECORD_LAST_MODIFIED, lastModified);
+        buffer.putShort(offset + RECORD_PATH_LENGTH, (short) pathBytes.length);
+        buffer.put(offset + RECORD_CHECKSUM_LENGTH, (byte) checksumLength);
+        write(offset + RECORD_HEADER_SIZE, pathBytes);
+        if (checksumLength > 0) {
+            write(offset + RECORD_HEADER_SIZE + pathBytes.length, checksum);
+        }
+        // the record only counts once it is complete
+        setEnd(end + length);
+
+        int slash = path.lastIndexOf('/') + 1;
+        directories.computeIfAbsent(path.substring(0, slash), k -> new HashMap<>()).put(path.substring(slash), offset);
+    }
+
+    private void kill(String path, int offset) {
+        int slash = path.lastIndexOf('/') + 1;
+        String prefix = path.substring(0, slash);
+        Map<String, Integer> children = directories.get(prefix);
+        children.remove(path.substring(slash));
+        if (children.isEmpty()) {
+            directories.remove(prefix);
+        }
+        markDead(offset);
+    }
+
+    private void markDead(int offset) {
+        buffer.put(offset + RECORD_FLAGS, (byte) 0);
+        setDead(dead + buffer.getInt(offset));
+    }
+
+    private void compactIfNeeded() {
+        if (end > INITIAL_CAPACITY && dead > end / 2 && end >= compactAfter) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // the index is intact, try again once the file doubled
+                compactAfter = end * 2;
+                LOGGER.warn("Failed to compact remote index {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private String readPath(int offset) {
+        byte[] pathBytes = new byte[buffer.getShort(offset + RECORD_PATH_LENGTH)];
+        read(offset + RECORD_HEADER_SIZE, pathBytes);
+        return new String(pathBytes, StandardCharsets.UTF_8);
+    }
+
+    private void read(int offset, byte[] target) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(target);
+    }
+
+    private void write(int offset, byte[] source) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.put(source);
+    }
+
+    private void map(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Remote index larger than 2 GB: " + file);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void setEnd(long end) {
+        this.end = end;
+        buffer.putLong(END_OFFSET, end);
+    }
+
+    private void setDead(long dead) {
+        this.dead = dead;
+        buffer.putLong(DEAD_OFFSET, dead);
+    }
+}
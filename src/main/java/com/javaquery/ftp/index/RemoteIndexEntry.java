@@ -0,0 +1,24 @@
+package com.javaquery.ftp.index;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Copy of an entry of a {@link RemoteIndex}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Getter
+@Builder
+public class RemoteIndexEntry {
+    private String path;
+    private boolean isDirectory;
+    private long size;
+    private long lastModified;
+    /**
+     * Checksum stored with {@link RemoteIndex#putChecksum(String, byte[])}, null if there is none or the
+     * file changed since
+     */
+    private byte[] checksum;
+}
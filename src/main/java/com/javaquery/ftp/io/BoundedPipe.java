@@ -0,0 +1,269 @@
+package com.javaquery.ftp.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory pipe between one writing and one reading thread, backed by a ring buffer from a
+ * {@link BufferPool}. The writer blocks while the buffer is full and the reader while it is empty, so at most
+ * {@code capacity} bytes are held in memory however large the transfer is.
+ * <p>
+ * The reader only sees end of stream after the writer {@link OutputStream#close() closed} its side. When the
+ * writer {@link #fail(Exception) fails} instead, the reader gets an {@link IOException}, so a broken transfer is
+ * never mistaken for a short one. Closing the reading side makes further writes fail. One side usually runs on a
+ * background thread, see {@link #writeAsync(Writer)} and {@link #readAsync(Reader)}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class BoundedPipe {
+
+    private static final ExecutorService THREADS = Executors.newCachedThreadPool(new DaemonThreadFactory("ftp-pipe"));
+
+    private final BufferPool bufferPool;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final int capacity;
+    private final InputStream inputStream = new PipeInputStream();
+    private final OutputStream outputStream = new PipeOutputStream();
+    private byte[] buffer;
+    private int readPosition;
+    private int count;
+    private boolean writerClosed;
+    private boolean readerClosed;
+    private Exception failure;
+
+    public BoundedPipe(BufferPool bufferPool, int capacity) {
+        this.bufferPool = bufferPool;
+        this.capacity = capacity;
+        this.buffer = bufferPool.acquire(capacity);
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Wait until there is something to read or the writing side is closed.
+     *
+     * @return false if the writer failed before writing anything
+     */
+    public boolean awaitInput() throws InterruptedIOException {
+        lock.lock();
+        try {
+            while (count == 0 && !writerClosed && !readerClosed) {
+                await(notEmpty);
+            }
+            return count > 0 || failure == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run {@code writer} on a background thread. The writing side is closed when it returns, or failed with what
+     * it throws, so the reader never mistakes a broken writer for end of stream.
+     *
+     * @return completes once the writer is done, its failure only reaches the reader
+     */
+    public Future<?> writeAsync(Writer writer) {
+        return THREADS.submit(() -> {
+            try {
+                writer.write(outputStream);
+                outputStream.close();
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+    }
+
+    /**
+     * Run {@code reader} on a background thread. The reading side is closed when it returns or throws, so a
+     * reader that stops early doesn't leave the writer blocked.
+     *
+     * @return result or failure of the reader
+     */
+    public <T> Future<T> readAsync(Reader<T> reader) {
+        return THREADS.submit(() -> {
+            try {
+                return reader.read(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        });
+    }
+
+    /**
+     * Close the writing side with an error, reported to the reader instead of end of stream.
+     */
+    public void fail(Exception cause) {
+        lock.lock();
+        try {
+            if (!writerClosed) {
+                failure = cause;
+                closeWriter();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter() {
+        writerClosed = true;
+        notEmpty.signalAll();
+        releaseBuffer();
+    }
+
+    private void closeReader() {
+        readerClosed = true;
+        notFull.signalAll();
+        releaseBuffer();
+    }
+
+    private void releaseBuffer() {
+        if (writerClosed && readerClosed && buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void await(Condition condition) throws InterruptedIOException {
+        try {
+            condition.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    public interface Writer {
+        void write(OutputStream outputStream) throws Exception;
+    }
+
+    public interface Reader<T> {
+        T read(InputStream inputStream) throws Exception;
+    }
+
+    private class PipeInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            lock.lock();
+            try {
+                while (count == 0) {
+                    if (readerClosed) {
+                        throw new IOException("Pipe closed");
+                    }
+                    if (writerClosed) {
+                        if (failure != null) {
+                            throw new IOException("Writing side of the pipe failed: " + failure.getMessage(), failure);
+                        }
+                        return -1;
+                    }
+                    await(notEmpty);
+                }
+                int read = Math.min(len, count);
+                int first = Math.min(read, capacity - readPosition);
+                System.arraycopy(buffer, readPosition, b, off, first);
+                System.arraycopy(buffer, 0, b, off + first, read - first);
+                readPosition = (readPosition + read) % capacity;
+                count -= read;
+                notFull.signalAll();
+                return read;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int available() {
+            lock.lock();
+            try {
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (!readerClosed) {
+                    closeReader();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            lock.lock();
+            try {
+                while (len > 0) {
+                    if (writerClosed) {
+                        throw new IOException("Pipe closed");
+                    }
+                    if (readerClosed) {
+                        throw new IOException("Reading side of the pipe closed");
+                    }
+                    if (count == capacity) {
+                        await(notFull);
+                        continue;
+                    }
+                    int writePosition = (readPosition + count) % capacity;
+                    int written = Math.min(len, Math.min(capacity - count, capacity - writePosition));
+                    System.arraycopy(b, off, buffer, writePosition, written);
+                    count += written;
+                    off += written;
+                    len -= written;
+                    notEmpty.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (!writerClosed) {
+                    closeWriter();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
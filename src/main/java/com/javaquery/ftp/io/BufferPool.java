@@ -0,0 +1,65 @@
+package com.javaquery.ftp.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Thread-safe pool of {@code byte[]} buffers in power-of-two size classes, used for in-memory transfers so
+ * high-rate small-file workloads reuse their buffers instead of allocating new ones for every file.
+ * <p>
+ * Buffers larger than {@link #MAX_POOLED_SIZE} are allocated and dropped as usual. Each size class keeps at
+ * most {@code buffersPerSizeClass} idle buffers, the rest are left to the garbage collector.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public final class BufferPool {
+
+    public static final int MIN_POOLED_SIZE = 4 * 1024;
+    public static final int MAX_POOLED_SIZE = 16 * 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    private static final int MAX_SHIFT = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE);
+
+    // after the shifts, the constructor needs them
+    public static final BufferPool DEFAULT = new BufferPool(16);
+
+    private final List<ArrayBlockingQueue<byte[]>> sizeClasses = new ArrayList<>();
+
+    public BufferPool(int buffersPerSizeClass) {
+        for (int shift = MIN_SHIFT; shift <= MAX_SHIFT; shift++) {
+            sizeClasses.add(new ArrayBlockingQueue<>(buffersPerSizeClass));
+        }
+    }
+
+    /**
+     * @param minSize minimum length of the buffer
+     * @return buffer of at least {@code minSize} bytes, its content is undefined
+     */
+    public byte[] acquire(int minSize) {
+        if (minSize > MAX_POOLED_SIZE) {
+            return new byte[minSize];
+        }
+        int shift = shift(minSize);
+        byte[] buffer = sizeClasses.get(shift - MIN_SHIFT).poll();
+        return buffer != null ? buffer : new byte[1 << shift];
+    }
+
+    /**
+     * Return a buffer obtained from {@link #acquire(int)}. The caller must not use it afterward.
+     */
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length >= MIN_POOLED_SIZE && buffer.length <= MAX_POOLED_SIZE
+                && Integer.bitCount(buffer.length) == 1) {
+            sizeClasses.get(Integer.numberOfTrailingZeros(buffer.length) - MIN_SHIFT).offer(buffer);
+        }
+    }
+
+    private static int shift(int size) {
+        if (size <= MIN_POOLED_SIZE) {
+            return MIN_SHIFT;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+}
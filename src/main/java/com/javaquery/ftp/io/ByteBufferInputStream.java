@@ -0,0 +1,50 @@
+package com.javaquery.ftp.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link InputStream} reading the remaining bytes of a {@link ByteBuffer}, heap or direct, without copying
+ * them up front. Reading advances the buffer's position.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer byteBuffer;
+
+    public ByteBufferInputStream(ByteBuffer byteBuffer) {
+        this.byteBuffer = byteBuffer;
+    }
+
+    @Override
+    public int read() {
+        return byteBuffer.hasRemaining() ? byteBuffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!byteBuffer.hasRemaining()) {
+            return -1;
+        }
+        int read = Math.min(len, byteBuffer.remaining());
+        byteBuffer.get(b, off, read);
+        return read;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, byteBuffer.remaining()));
+        byteBuffer.position(byteBuffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return byteBuffer.remaining();
+    }
+}
@@ -0,0 +1,25 @@
+package com.javaquery.ftp.io;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates named daemon threads, so the background work of the library never keeps the JVM alive.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String name;
+
+    public DaemonThreadFactory(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
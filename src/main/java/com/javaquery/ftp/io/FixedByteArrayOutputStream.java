@@ -0,0 +1,47 @@
+package com.javaquery.ftp.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link OutputStream} writing into a caller-supplied array, failing with an {@link IOException} instead of
+ * growing when the array is full.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FixedByteArrayOutputStream extends OutputStream {
+
+    private final byte[] buffer;
+    private int length;
+
+    public FixedByteArrayOutputStream(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureCapacity(len);
+        System.arraycopy(b, off, buffer, length, len);
+        length += len;
+    }
+
+    private void ensureCapacity(int len) throws IOException {
+        if (len > buffer.length - length) {
+            throw new IOException("Content exceeds buffer size of " + buffer.length + " bytes");
+        }
+    }
+
+    /**
+     * @return number of bytes written into the array
+     */
+    public int length() {
+        return length;
+    }
+}
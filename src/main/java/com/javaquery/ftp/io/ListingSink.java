@@ -0,0 +1,14 @@
+package com.javaquery.ftp.io;
+
+/**
+ * Receives directory listing entries one at a time, as they are read from the server.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public interface ListingSink {
+    /**
+     * @param lastModified epoch milliseconds or {@link RemoteFileList#UNKNOWN_TIMESTAMP}
+     */
+    void addEntry(String name, boolean isFile, boolean isDirectory, long size, long lastModified);
+}
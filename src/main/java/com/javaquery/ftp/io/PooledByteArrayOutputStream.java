@@ -0,0 +1,75 @@
+package com.javaquery.ftp.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link OutputStream} collecting bytes into a buffer borrowed from a {@link BufferPool}, failing with an
+ * {@link IOException} as soon as more than {@code maxSize} bytes are written.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class PooledByteArrayOutputStream extends OutputStream {
+
+    private final BufferPool bufferPool;
+    private final int maxSize;
+    private byte[] buffer;
+    private int length;
+
+    public PooledByteArrayOutputStream(BufferPool bufferPool, int initialSize, int maxSize) {
+        this.bufferPool = bufferPool;
+        this.maxSize = maxSize;
+        this.buffer = bufferPool.acquire(Math.min(initialSize, maxSize));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureCapacity(len);
+        System.arraycopy(b, off, buffer, length, len);
+        length += len;
+    }
+
+    private void ensureCapacity(int len) throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream is closed");
+        }
+        if (len > maxSize - length) {
+            throw new IOException("Content exceeds maximum size of " + maxSize + " bytes");
+        }
+        if (length + len > buffer.length) {
+            int newSize = (int) Math.min(maxSize, Math.max((long) buffer.length << 1, (long) length + len));
+            byte[] newBuffer = bufferPool.acquire(newSize);
+            System.arraycopy(buffer, 0, newBuffer, 0, length);
+            bufferPool.release(buffer);
+            buffer = newBuffer;
+        }
+    }
+
+    /**
+     * Hand the collected bytes over to a {@link RemoteContent}, which becomes responsible for returning the
+     * buffer to the pool. The stream can't be used afterward.
+     */
+    public RemoteContent toRemoteContent() {
+        RemoteContent remoteContent = new RemoteContent(bufferPool, buffer, length);
+        buffer = null;
+        return remoteContent;
+    }
+
+    /**
+     * Return the buffer to the pool unless it was handed over with {@link #toRemoteContent()}.
+     */
+    @Override
+    public void close() {
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.javaquery.ftp.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Content of a remote file held in a pooled buffer. Close it once done so the buffer can be reused,
+ * views returned by {@link #asByteBuffer()} and {@link #asInputStream()} must not be used after that.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public final class RemoteContent implements AutoCloseable {
+
+    private final BufferPool bufferPool;
+    private byte[] buffer;
+    private final int length;
+
+    RemoteContent(BufferPool bufferPool, byte[] buffer, int length) {
+        this.bufferPool = bufferPool;
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return copy of the content, safe to keep after {@link #close()}
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer(), length);
+    }
+
+    /**
+     * @return read-only view of the content without copying
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buffer(), 0, length).slice().asReadOnlyBuffer();
+    }
+
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(buffer(), 0, length);
+    }
+
+    private byte[] buffer() {
+        if (buffer == null) {
+            throw new IllegalStateException("RemoteContent is closed");
+        }
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.javaquery.ftp.io;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.RandomAccess;
+
+/**
+ * Compact, read-only listing of a remote directory. Entries are kept in primitive arrays and share the
+ * directory prefix, a {@link RemoteFile} is only created when an entry is accessed through {@link #get(int)}
+ * (a new instance on every call, changes to it are not written back).
+ * <p>
+ * Use the indexed accessors like {@link #getName(int)} and {@link #getLastModified(int)} to go through large
+ * listings without creating any {@link RemoteFile}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class RemoteFileList extends AbstractList<RemoteFile> implements RandomAccess, ListingSink {
+
+    /**
+     * Value of {@link #getLastModified(int)} when the server didn't report a usable timestamp.
+     */
+    public static final long UNKNOWN_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final byte FILE = 1;
+    private static final byte DIRECTORY = 2;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String directoryPrefix;
+    private String[] names;
+    private long[] sizes;
+    private long[] lastModified;
+    private byte[] flags;
+    private int size;
+
+    /**
+     * @param directoryPath remote directory the entries belong to, paths are joined with {@code /}
+     */
+    public RemoteFileList(String directoryPath) {
+        this.directoryPrefix = directoryPrefix(directoryPath);
+        this.names = new String[INITIAL_CAPACITY];
+        this.sizes = new long[INITIAL_CAPACITY];
+        this.lastModified = new long[INITIAL_CAPACITY];
+        this.flags = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @return {@code directoryPath} ending with exactly one {@code /}
+     */
+    public static String directoryPrefix(String directoryPath) {
+        return directoryPath.endsWith("/") ? directoryPath : directoryPath + "/";
+    }
+
+    @Override
+    public void addEntry(String name, boolean isFile, boolean isDirectory, long size, long lastModified) {
+        if (this.size == names.length) {
+            int capacity = names.length + (names.length >> 1);
+            names = Arrays.copyOf(names, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            this.lastModified = Arrays.copyOf(this.lastModified, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        names[this.size] = name;
+        sizes[this.size] = size;
+        this.lastModified[this.size] = lastModified;
+        flags[this.size] = (byte) ((isFile ? FILE : 0) | (isDirectory ? DIRECTORY : 0));
+        this.size++;
+    }
+
+    public String getDirectoryPrefix() {
+        return directoryPrefix;
+    }
+
+    public String getName(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    public String getPath(int index) {
+        return directoryPrefix + getName(index);
+    }
+
+    public long getSize(int index) {
+        checkIndex(index);
+        return sizes[index];
+    }
+
+    public long getLastModified(int index) {
+        checkIndex(index);
+        return lastModified[index];
+    }
+
+    public boolean isFile(int index) {
+        checkIndex(index);
+        return (flags[index] & FILE) != 0;
+    }
+
+    public boolean isDirectory(int index) {
+        checkIndex(index);
+        return (flags[index] & DIRECTORY) != 0;
+    }
+
+    @Override
+    public RemoteFile get(int index) {
+        return RemoteFile.builder()
+                .name(getName(index))
+                .isFile(isFile(index))
+                .isDirectory(isDirectory(index))
+                .size(sizes[index])
+                .timestamp(toCalendar(lastModified[index]))
+                .path(getPath(index))
+                .build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code lastModified} as calendar, or null for {@link #UNKNOWN_TIMESTAMP}
+     */
+    public static Calendar toCalendar(long lastModified) {
+        if (lastModified == UNKNOWN_TIMESTAMP) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(lastModified);
+        return calendar;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.javaquery.ftp.io;
+
+/**
+ * Order of the entries selected by {@link TopRemoteFiles}. Entries that compare equal are ordered by name.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public enum RemoteFileOrder {
+    /**
+     * Last modified first, entries without a timestamp last
+     */
+    NEWEST,
+    /**
+     * Least recently modified first, entries without a timestamp first
+     */
+    OLDEST,
+    LARGEST,
+    SMALLEST,
+    NAME_ASCENDING,
+    NAME_DESCENDING
+}
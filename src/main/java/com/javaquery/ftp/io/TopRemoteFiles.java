@@ -0,0 +1,179 @@
+package com.javaquery.ftp.io;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the first {@code limit} listing entries in {@link RemoteFileOrder} while a listing streams through it,
+ * in a bounded heap whose root is the entry that is dropped next. Memory stays proportional to {@code limit}
+ * however large the directory is, and each entry costs O(log limit).
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class TopRemoteFiles implements ListingSink {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final RemoteFileOrder order;
+    private final int limit;
+    /**
+     * Entries are stored in slots, the heap holds slot numbers
+     */
+    private String[] names;
+    private long[] sizes;
+    private long[] lastModified;
+    private boolean[] files;
+    private boolean[] directories;
+    private int[] heap;
+    private int size;
+    /**
+     * Free slot the next entry is written to before comparing it with the root
+     */
+    private int spare;
+
+    /**
+     * @param limit maximum number of entries kept
+     */
+    public TopRemoteFiles(RemoteFileOrder order, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        this.order = order;
+        this.limit = limit;
+        int capacity = (int) Math.min(INITIAL_CAPACITY, limit + 1L);
+        this.names = new String[capacity];
+        this.sizes = new long[capacity];
+        this.lastModified = new long[capacity];
+        this.files = new boolean[capacity];
+        this.directories = new boolean[capacity];
+        this.heap = new int[capacity];
+    }
+
+    @Override
+    public void addEntry(String name, boolean isFile, boolean isDirectory, long size, long lastModified) {
+        if (limit == 0) {
+            return;
+        }
+        if (this.size < limit) {
+            ensureCapacity(this.size + 2);
+            // slots 0..size-1 are in the heap and slot size is the spare one
+            int slot = this.size;
+            store(slot, name, isFile, isDirectory, size, lastModified);
+            heap[this.size++] = slot;
+            siftUp(this.size - 1);
+            spare = this.size;
+            return;
+        }
+        store(spare, name, isFile, isDirectory, size, lastModified);
+        if (compare(spare, heap[0]) < 0) {
+            int dropped = heap[0];
+            heap[0] = spare;
+            spare = dropped;
+            siftDown(heap, 0, this.size);
+        }
+        // the entry that didn't make it
+        names[spare] = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the entries kept so far, in order
+     */
+    public RemoteFileList toRemoteFileList(String directoryPath) {
+        int[] sorted = Arrays.copyOf(heap, size);
+        // heap sort, the root is the last entry in order
+        for (int end = size - 1; end > 0; end--) {
+            int root = sorted[0];
+            sorted[0] = sorted[end];
+            sorted[end] = root;
+            siftDown(sorted, 0, end);
+        }
+        RemoteFileList remoteFileList = new RemoteFileList(directoryPath);
+        for (int slot : sorted) {
+            remoteFileList.addEntry(names[slot], files[slot], directories[slot], sizes[slot], lastModified[slot]);
+        }
+        return remoteFileList;
+    }
+
+    private void store(int slot, String name, boolean isFile, boolean isDirectory, long size, long lastModified) {
+        names[slot] = name;
+        files[slot] = isFile;
+        directories[slot] = isDirectory;
+        sizes[slot] = size;
+        this.lastModified[slot] = lastModified;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > names.length) {
+            long maxCapacity = Math.min(limit + 1L, Integer.MAX_VALUE - 8);
+            int newCapacity = (int) Math.min(maxCapacity, Math.max(capacity, names.length + (long) (names.length >> 1)));
+            names = Arrays.copyOf(names, newCapacity);
+            sizes = Arrays.copyOf(sizes, newCapacity);
+            lastModified = Arrays.copyOf(lastModified, newCapacity);
+            files = Arrays.copyOf(files, newCapacity);
+            directories = Arrays.copyOf(directories, newCapacity);
+            heap = Arrays.copyOf(heap, newCapacity);
+        }
+    }
+
+    /**
+     * @return negative if the entry in slot {@code a} comes before the one in slot {@code b}
+     */
+    private int compare(int a, int b) {
+        int result;
+        switch (order) {
+            case NEWEST:
+                result = Long.compare(lastModified[b], lastModified[a]);
+                break;
+            case OLDEST:
+                result = Long.compare(lastModified[a], lastModified[b]);
+                break;
+            case LARGEST:
+                result = Long.compare(sizes[b], sizes[a]);
+                break;
+            case SMALLEST:
+                result = Long.compare(sizes[a], sizes[b]);
+                break;
+            case NAME_DESCENDING:
+                return names[b].compareTo(names[a]);
+            default:
+                return names[a].compareTo(names[b]);
+        }
+        return result != 0 ? result : names[a].compareTo(names[b]);
+    }
+
+    /**
+     * The heap is ordered so that every parent comes after its children, the root is the last entry.
+     */
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(heap[parent], slot) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int[] slots, int index, int end) {
+        int slot = slots[index];
+        int child;
+        while ((child = 2 * index + 1) < end) {
+            if (child + 1 < end && compare(slots[child + 1], slots[child]) > 0) {
+                child++;
+            }
+            if (compare(slot, slots[child]) >= 0) {
+                break;
+            }
+            slots[index] = slots[child];
+            index = child;
+        }
+        slots[index] = slot;
+    }
+}
@@ -0,0 +1,38 @@
+package com.javaquery.ftp.journal;
+
+import lombok.Getter;
+
+/**
+ * A file of a {@link TransferJournal} with its latest recorded state.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Getter
+public class JournalEntry {
+    private final int id;
+    private final TransferDirection direction;
+    private final String sourcePath;
+    private final String targetPath;
+    private TransferState state = TransferState.PLANNED;
+    /**
+     * Bytes transferred at the last checkpoint, or the file size once completed
+     */
+    private long offset;
+
+    JournalEntry(int id, TransferDirection direction, String sourcePath, String targetPath) {
+        this.id = id;
+        this.direction = direction;
+        this.sourcePath = sourcePath;
+        this.targetPath = targetPath;
+    }
+
+    void update(TransferState state, long offset) {
+        this.state = state;
+        this.offset = offset;
+    }
+
+    public boolean isFinished() {
+        return state == TransferState.COMPLETED;
+    }
+}
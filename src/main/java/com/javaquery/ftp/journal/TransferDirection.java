@@ -0,0 +1,10 @@
+package com.javaquery.ftp.journal;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public enum TransferDirection {
+    UPLOAD,
+    DOWNLOAD
+}
@@ -0,0 +1,419 @@
+package com.javaquery.ftp.journal;
+
+import com.javaquery.ftp.JFTPClient;
+import com.javaquery.ftp.exception.FTPException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the files of batch transfers, so a batch interrupted by a crash only redoes the files
+ * that didn't complete.
+ * <p>
+ * Every record is written to the file right away, so it survives the process dying, while {@code fsync} is
+ * batched to at most once per {@code syncIntervalMillis} and on {@link #close()}, so it doesn't slow down the
+ * transfers. Records carry a checksum and a torn record at the end of the file is dropped on open. A lost
+ * record only means a file is transferred again, uploads and downloads overwrite their target.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class TransferJournal implements AutoCloseable {
+
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+    /**
+     * Bytes between two offset checkpoints of a file in progress
+     */
+    public static final long CHECKPOINT_BYTES = 8 * 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferJournal.class);
+    private static final int MAGIC = 0x4A46544A;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // record: int payload length, int crc32 of payload, payload: byte state, int id, long offset and for
+    // PLANNED only: byte direction, short source length, short target length, source bytes, target bytes
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int STATE_PAYLOAD_SIZE = 13;
+    private static final int PLAN_PAYLOAD_SIZE = 18;
+
+    private final Path file;
+    private final long syncIntervalMillis;
+    private final FileChannel channel;
+    private final List<JournalEntry> entries = new ArrayList<>();
+    private final Map<String, JournalEntry> entriesByKey = new HashMap<>();
+    private long lastSync;
+    private boolean unsynced;
+
+    private TransferJournal(Path file, long syncIntervalMillis) throws IOException {
+        this.file = file;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public static TransferJournal open(Path file) throws IOException {
+        return open(file, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Open the journal in {@code file}, creating it if needed, with the entries recorded by previous runs.
+     *
+     * @param syncIntervalMillis minimum time between two {@code fsync}, 0 to sync every record
+     */
+    public static TransferJournal open(Path file, long syncIntervalMillis) throws IOException {
+        TransferJournal transferJournal = new TransferJournal(file, syncIntervalMillis);
+        try {
+            transferJournal.load();
+        } catch (IOException e) {
+            transferJournal.channel.close();
+            throw e;
+        }
+        return transferJournal;
+    }
+
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+            channel.position(HEADER_SIZE);
+            return;
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Transfer journal too large: " + file);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // read the whole file
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a transfer journal: " + file);
+        }
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + 4);
+            if (length < STATE_PAYLOAD_SIZE || length > buffer.remaining() - RECORD_HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(buffer.position() + RECORD_HEADER_SIZE).limit(payload.position() + length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum || !replay(payload)) {
+                break;
+            }
+            buffer.position(payload.limit());
+        }
+        if (buffer.position() < fileSize) {
+            // torn write of the process that died
+            LOGGER.warn("Dropping {} bytes at the end of {}", fileSize - buffer.position(), file);
+            channel.truncate(buffer.position());
+        }
+        channel.position(buffer.position());
+    }
+
+    private boolean replay(ByteBuffer payload) {
+        int stateOrdinal = payload.get();
+        int id = payload.getInt();
+        long offset = payload.getLong();
+        if (stateOrdinal < 0 || stateOrdinal >= TransferState.values().length) {
+            return false;
+        }
+        TransferState state = TransferState.values()[stateOrdinal];
+        if (state == TransferState.PLANNED) {
+            if (id != entries.size() || payload.remaining() < PLAN_PAYLOAD_SIZE - STATE_PAYLOAD_SIZE) {
+                return false;
+            }
+            int directionOrdinal = payload.get();
+            if (directionOrdinal < 0 || directionOrdinal >= TransferDirection.values().length) {
+                return false;
+            }
+            TransferDirection direction = TransferDirection.values()[directionOrdinal];
+            int sourceLength = payload.getShort() & 0xFFFF;
+            int targetLength = payload.getShort() & 0xFFFF;
+            if (payload.remaining() != sourceLength + targetLength) {
+                return false;
+            }
+            String sourcePath = readString(payload, sourceLength);
+            String targetPath = readString(payload, targetLength);
+            JournalEntry entry = new JournalEntry(id, direction, sourcePath, targetPath);
+            entries.add(entry);
+            entriesByKey.put(key(direction, sourcePath, targetPath), entry);
+        } else {
+            if (id < 0 || id >= entries.size()) {
+                return false;
+            }
+            entries.get(id).update(state, offset);
+        }
+        return true;
+    }
+
+    /**
+     * @return entry of the file, or null if it was never planned
+     */
+    public synchronized JournalEntry get(TransferDirection direction, String sourcePath, String targetPath) {
+        return entriesByKey.get(key(direction, sourcePath, targetPath));
+    }
+
+    /**
+     * @return entries that didn't complete, in the order they were planned
+     */
+    public synchronized List<JournalEntry> getUnfinished() {
+        List<JournalEntry> unfinished = new ArrayList<>();
+        for (JournalEntry entry : entries) {
+            if (!entry.isFinished()) {
+                unfinished.add(entry);
+            }
+        }
+        return unfinished;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Record a file as planned, or return its existing entry if it was planned before.
+     */
+    public synchronized JournalEntry plan(TransferDirection direction, String sourcePath, String targetPath) throws IOException {
+        String key = key(direction, sourcePath, targetPath);
+        JournalEntry entry = entriesByKey.get(key);
+        if (entry == null) {
+            byte[] source = sourcePath.getBytes(StandardCharsets.UTF_8);
+            byte[] target = targetPath.getBytes(StandardCharsets.UTF_8);
+            if (source.length > 0xFFFF || target.length > 0xFFFF) {
+                throw new IOException("Path too long for the transfer journal: " + sourcePath);
+            }
+            entry = new JournalEntry(entries.size(), direction, sourcePath, targetPath);
+            ByteBuffer payload = payload(PLAN_PAYLOAD_SIZE + source.length + target.length, TransferState.PLANNED, entry.getId(), 0);
+            payload.put((byte) direction.ordinal())
+                    .putShort((short) source.length)
+                    .putShort((short) target.length)
+                    .put(source)
+                    .put(target);
+            append(payload);
+            entries.add(entry);
+            entriesByKey.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Record the state of a planned file and the number of bytes transferred so far.
+     */
+    public synchronized void record(JournalEntry entry, TransferState state, long offset) throws IOException {
+        if (state == TransferState.PLANNED) {
+            throw new IllegalArgumentException("Use plan() to add a file");
+        }
+        append(payload(STATE_PAYLOAD_SIZE, state, entry.getId(), offset));
+        entry.update(state, offset);
+    }
+
+    /**
+     * Upload local files that haven't completed in this journal, one after the other. Failed files are logged
+     * and stay unfinished.
+     *
+     * @param files local path to remote path
+     * @return local path to whether it is uploaded, true for files completed by a previous run
+     */
+    public Map<String, Boolean> upload(JFTPClient jftpClient, Map<String, String> files) throws IOException {
+        return transfer(jftpClient, TransferDirection.UPLOAD, files);
+    }
+
+    /**
+     * Download remote files that haven't completed in this journal, one after the other. Failed files are
+     * logged and stay unfinished.
+     *
+     * @param files remote path to local path
+     * @return remote path to whether it is downloaded, true for files completed by a previous run
+     */
+    public Map<String, Boolean> download(JFTPClient jftpClient, Map<String, String> files) throws IOException {
+        return transfer(jftpClient, TransferDirection.DOWNLOAD, files);
+    }
+
+    private Map<String, Boolean> transfer(JFTPClient jftpClient, TransferDirection direction, Map<String, String> files) throws IOException {
+        // the whole batch is planned up front so a crash leaves the complete list of work behind
+        List<JournalEntry> batch = new ArrayList<>(files.size());
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            batch.add(plan(direction, file.getKey(), file.getValue()));
+        }
+        sync();
+
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (JournalEntry entry : batch) {
+            if (entry.isFinished()) {
+                result.put(entry.getSourcePath(), true);
+                continue;
+            }
+            record(entry, TransferState.IN_PROGRESS, 0);
+            boolean transferred = false;
+            long[] transferredBytes = new long[1];
+            try {
+                transferred = direction == TransferDirection.UPLOAD
+                        ? upload(jftpClient, entry, transferredBytes)
+                        : download(jftpClient, entry, transferredBytes);
+            } catch (FTPException | IOException e) {
+                LOGGER.warn("Failed to transfer {} to {}: {}", entry.getSourcePath(), entry.getTargetPath(), e.getMessage());
+            }
+            record(entry, transferred ? TransferState.COMPLETED : TransferState.FAILED, transferredBytes[0]);
+            result.put(entry.getSourcePath(), transferred);
+        }
+        return result;
+    }
+
+    private boolean upload(JFTPClient jftpClient, JournalEntry entry, long[] transferredBytes) throws FTPException, IOException {
+        try (InputStream inputStream = new CheckpointInputStream(Files.newInputStream(Paths.get(entry.getSourcePath())), entry, transferredBytes)) {
+            return jftpClient.uploadFile(inputStream, entry.getTargetPath());
+        }
+    }
+
+    private boolean download(JFTPClient jftpClient, JournalEntry entry, long[] transferredBytes) throws FTPException, IOException {
+        try (OutputStream outputStream = new CheckpointOutputStream(Files.newOutputStream(Paths.get(entry.getTargetPath())), entry, transferredBytes)) {
+            return jftpClient.downloadFile(entry.getSourcePath(), outputStream);
+        }
+    }
+
+    private void checkpoint(JournalEntry entry, long transferredBytes) throws IOException {
+        if (transferredBytes - entry.getOffset() >= CHECKPOINT_BYTES) {
+            record(entry, TransferState.IN_PROGRESS, transferredBytes);
+        }
+    }
+
+    /**
+     * Force the records written so far to disk.
+     */
+    public synchronized void sync() throws IOException {
+        if (unsynced) {
+            channel.force(false);
+            unsynced = false;
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private ByteBuffer payload(int size, TransferState state, int id, long offset) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + size);
+        record.position(RECORD_HEADER_SIZE);
+        return record.put((byte) state.ordinal()).putInt(id).putLong(offset);
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        ByteBuffer payload = record.duplicate();
+        payload.flip().position(RECORD_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        record.putInt(0, record.position() - RECORD_HEADER_SIZE).putInt(4, (int) crc.getValue());
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        unsynced = true;
+        if (System.currentTimeMillis() - lastSync >= syncIntervalMillis) {
+            sync();
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String key(TransferDirection direction, String sourcePath, String targetPath) {
+        return direction.name() + '\u0000' + sourcePath + '\u0000' + targetPath;
+    }
+
+    private class CheckpointInputStream extends FilterInputStream {
+        private final JournalEntry entry;
+        private final long[] transferredBytes;
+
+        CheckpointInputStream(InputStream inputStream, JournalEntry entry, long[] transferredBytes) {
+            super(inputStream);
+            this.entry = entry;
+            this.transferredBytes = transferredBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int bytes) throws IOException {
+            transferredBytes[0] += bytes;
+            checkpoint(entry, transferredBytes[0]);
+        }
+    }
+
+    private class CheckpointOutputStream extends FilterOutputStream {
+        private final JournalEntry entry;
+        private final long[] transferredBytes;
+
+        CheckpointOutputStream(OutputStream outputStream, JournalEntry entry, long[] transferredBytes) {
+            super(outputStream);
+            this.entry = entry;
+            this.transferredBytes = transferredBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count(len);
+        }
+
+        private void count(int bytes) throws IOException {
+            transferredBytes[0] += bytes;
+            checkpoint(entry, transferredBytes[0]);
+        }
+    }
+}
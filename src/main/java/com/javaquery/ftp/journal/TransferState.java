@@ -0,0 +1,14 @@
+package com.javaquery.ftp.journal;
+
+/**
+ * State of a file in a {@link TransferJournal}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public enum TransferState {
+    PLANNED,
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,336 @@
+package com.javaquery.ftp.parser;
+
+import com.javaquery.ftp.io.ListingSink;
+import org.apache.commons.net.ftp.FTPClientConfig;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+
+/**
+ * Hand-written parser for UNIX {@code ls -l} and Windows IIS (DOS) listings, producing the same names, types,
+ * sizes and timestamps as commons-net's {@code UnixFTPEntryParser} and {@code NTFTPEntryParser} with their
+ * default configuration (English month names, server in the JVM's time zone).
+ * <p>
+ * Lines are scanned once without regular expressions, {@code SimpleDateFormat} or per-line allocations besides
+ * the file name. Anything that is not a plain, unambiguous entry (device files, ACL markers other than
+ * {@code +}, localized dates, names that could be read in more than one way, ...) is not handled and left
+ * to commons-net, so the result is identical for every line.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FastListEntryParser implements ListEntryParser {
+
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+
+    private final boolean windows;
+    private final Calendar calendar;
+    private final long recentLimit;
+    private final int recentYear;
+    private final int centuryStartYear;
+
+    /**
+     * @param systemType system type of the server as used by commons-net ({@code SYST} reply), Windows
+     *                   listings are only recognized for {@code WINDOWS} servers like commons-net does
+     */
+    public FastListEntryParser(String systemType) {
+        this.windows = systemType != null && systemType.toUpperCase(Locale.ENGLISH).contains(FTPClientConfig.SYST_NT);
+        this.calendar = new GregorianCalendar();
+        long now = calendar.getTimeInMillis();
+
+        // same "slop" as commons-net: dates up to one day in the future are still this year
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        this.recentLimit = calendar.getTimeInMillis();
+        this.recentYear = calendar.get(Calendar.YEAR);
+
+        // SimpleDateFormat resolves two-digit years within 80 years before and 20 years after now
+        calendar.setTimeInMillis(now);
+        calendar.add(Calendar.YEAR, -80);
+        this.centuryStartYear = calendar.get(Calendar.YEAR);
+        calendar.setLenient(false);
+    }
+
+    @Override
+    public boolean parse(String line, ListingSink sink) {
+        if (line.isEmpty()) {
+            return false;
+        }
+        char first = line.charAt(0);
+        if (first >= '0' && first <= '9') {
+            return windows && parseWindows(line, sink);
+        }
+        if (line.startsWith("total ") && isDigits(line, 6, line.length())) {
+            return true;
+        }
+        return parseUnix(line, sink);
+    }
+
+    /**
+     * {@code -rw-r--r--   1 owner group   1234 Nov  9 20:06 name}
+     */
+    private boolean parseUnix(String line, ListingSink sink) {
+        int length = line.length();
+        if (length < 11) {
+            return false;
+        }
+        boolean isFile;
+        boolean isDirectory;
+        switch (line.charAt(0)) {
+            case '-':
+            case 'f':
+                isFile = true;
+                isDirectory = false;
+                break;
+            case 'd':
+                isFile = false;
+                isDirectory = true;
+                break;
+            case 'l':
+                isFile = false;
+                isDirectory = false;
+                break;
+            default:
+                return false;
+        }
+        for (int i = 1; i < 10; i += 3) {
+            char read = line.charAt(i);
+            char write = line.charAt(i + 1);
+            char execute = line.charAt(i + 2);
+            if ((read != 'r' && read != '-') || (write != 'w' && write != '-') || "xsStTL-".indexOf(execute) < 0) {
+                return false;
+            }
+        }
+
+        int position = line.charAt(10) == '+' ? 11 : 10;
+        if (position == length || !isWhitespace(line.charAt(position))) {
+            return false;
+        }
+        int linkStart = skipWhitespace(line, position);
+        int linkEnd = tokenEnd(line, linkStart);
+        int ownerStart = skipWhitespace(line, linkEnd);
+        int ownerEnd = tokenEnd(line, ownerStart);
+        int groupStart = skipWhitespace(line, ownerEnd);
+        int groupEnd = tokenEnd(line, groupStart);
+        int sizeStart = skipWhitespace(line, groupEnd);
+        int sizeEnd = tokenEnd(line, sizeStart);
+        int monthStart = skipWhitespace(line, sizeEnd);
+        int monthEnd = tokenEnd(line, monthStart);
+        int dayStart = skipWhitespace(line, monthEnd);
+        int dayEnd = tokenEnd(line, dayStart);
+        int timeStart = skipWhitespace(line, dayEnd);
+        int timeEnd = tokenEnd(line, timeStart);
+        if (timeEnd >= length - 1
+                || !isDigits(line, linkStart, linkEnd)
+                || ownerStart == ownerEnd || groupStart == groupEnd
+                || !isDigits(line, sizeStart, sizeEnd) || sizeEnd - sizeStart > 18
+                || monthEnd - monthStart != 3
+                || !isDigits(line, dayStart, dayEnd) || dayEnd - dayStart > 2) {
+            return false;
+        }
+        int month = month(line, monthStart);
+        if (month < 0) {
+            return false;
+        }
+
+        // the name is everything after the single separator following the time, leading spaces included
+        String name = line.substring(timeEnd + 1);
+        boolean timeIsYear = isDigits(line, timeStart, timeEnd);
+        if (!isUnambiguousName(name, timeIsYear)) {
+            return false;
+        }
+
+        long lastModified;
+        try {
+            int day = parseInt(line, dayStart, dayEnd);
+            calendar.clear();
+            if (timeIsYear) {
+                if (timeEnd - timeStart != 4) {
+                    return false;
+                }
+                calendar.set(parseInt(line, timeStart, timeEnd), month, day);
+                lastModified = calendar.getTimeInMillis();
+            } else {
+                int colon = line.indexOf(':', timeStart);
+                if (colon < 0 || colon >= timeEnd
+                        || !isDigits(line, timeStart, colon) || colon - timeStart > 2
+                        || !isDigits(line, colon + 1, timeEnd) || timeEnd - colon - 1 > 2) {
+                    return false;
+                }
+                calendar.set(recentYear, month, day, parseInt(line, timeStart, colon), parseInt(line, colon + 1, timeEnd));
+                lastModified = calendar.getTimeInMillis();
+                if (lastModified > recentLimit) {
+                    calendar.add(Calendar.YEAR, -1);
+                    lastModified = calendar.getTimeInMillis();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // invalid date, commons-net decides what to do with it
+            return false;
+        }
+
+        if (!isFile && !isDirectory) {
+            int arrow = name.indexOf(" -> ");
+            if (arrow >= 0) {
+                name = name.substring(0, arrow);
+            }
+        }
+        sink.addEntry(name, isFile, isDirectory, Long.parseLong(line.substring(sizeStart, sizeEnd)), lastModified);
+        return true;
+    }
+
+    /**
+     * {@code 11-09-01  12:30PM       <DIR>          name} or {@code 11-09-01  18:30   1234 name}
+     */
+    private boolean parseWindows(String line, ListingSink sink) {
+        int length = line.length();
+        int dateEnd = tokenEnd(line, 0);
+        int timeStart = skipWhitespace(line, dateEnd);
+        int timeEnd = tokenEnd(line, timeStart);
+        int sizeStart = skipWhitespace(line, timeEnd);
+        int sizeEnd = tokenEnd(line, sizeStart);
+        int nameStart = skipWhitespace(line, sizeEnd);
+        if (timeStart == timeEnd || sizeStart == sizeEnd || nameStart == sizeEnd || nameStart == length) {
+            return false;
+        }
+        boolean isDirectory = line.startsWith("<DIR>", sizeStart) && sizeEnd - sizeStart == 5;
+        if (!isDirectory && (!isDigits(line, sizeStart, sizeEnd) || sizeEnd - sizeStart > 18)) {
+            return false;
+        }
+
+        // MM-dd-yy or MM-dd-yyyy
+        int yearLength = dateEnd - 6;
+        if ((yearLength != 2 && yearLength != 4) || line.charAt(2) != '-' || line.charAt(5) != '-'
+                || !isDigits(line, 0, 2) || !isDigits(line, 3, 5) || !isDigits(line, 6, dateEnd)) {
+            return false;
+        }
+        int year = parseInt(line, 6, dateEnd);
+        if (yearLength == 2) {
+            int ambiguousTwoDigitYear = centuryStartYear % 100;
+            if (year == ambiguousTwoDigitYear) {
+                return false;
+            }
+            year += (centuryStartYear / 100) * 100 + (year < ambiguousTwoDigitYear ? 100 : 0);
+        }
+
+        // hh:mma, otherwise kk:mm
+        int colon = line.indexOf(':', timeStart);
+        if (colon < 0 || colon >= timeEnd || !isDigits(line, timeStart, colon) || colon - timeStart > 2) {
+            return false;
+        }
+        int hour = parseInt(line, timeStart, colon);
+        int minuteEnd = timeEnd;
+        boolean twelveHour = timeEnd - colon > 3 && isMarker(line, timeEnd - 2);
+        if (twelveHour) {
+            minuteEnd = timeEnd - 2;
+            if (hour < 1 || hour > 12) {
+                return false;
+            }
+            hour = (hour == 12 ? 0 : hour) + (Character.toUpperCase(line.charAt(timeEnd - 2)) == 'P' ? 12 : 0);
+        } else if (hour < 1 || hour > 24) {
+            return false;
+        } else if (hour == 24) {
+            hour = 0;
+        }
+        if (!isDigits(line, colon + 1, minuteEnd) || minuteEnd - colon - 1 > 2) {
+            return false;
+        }
+
+        long lastModified;
+        try {
+            calendar.clear();
+            calendar.set(year, parseInt(line, 0, 2) - 1, parseInt(line, 3, 5), hour, parseInt(line, colon + 1, minuteEnd));
+            lastModified = calendar.getTimeInMillis();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        String name = line.substring(nameStart);
+        if (name.equals(".") || name.equals("..")) {
+            return true;
+        }
+        sink.addEntry(name, !isDirectory, isDirectory, isDirectory ? 0 : Long.parseLong(line.substring(sizeStart, sizeEnd)), lastModified);
+        return true;
+    }
+
+    /**
+     * commons-net's UNIX expression picks the right-most "size date time" sequence, names that contain
+     * something resembling one are left to it. Line terminators inside the name don't match at all.
+     */
+    private static boolean isUnambiguousName(String name, boolean timeIsYear) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+            if (isWhitespace(c)) {
+                if (timeIsYear || c == '\n' || c == '\r') {
+                    return false;
+                }
+                if (i + 1 < name.length() && name.charAt(i + 1) >= '0' && name.charAt(i + 1) <= '9') {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int month(String line, int start) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (line.regionMatches(true, start, MONTHS[i], 0, 3)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isMarker(String line, int index) {
+        char first = Character.toUpperCase(line.charAt(index));
+        return (first == 'A' || first == 'P') && Character.toUpperCase(line.charAt(index + 1)) == 'M';
+    }
+
+    /**
+     * Whitespace as in {@code \s} of {@link java.util.regex.Pattern}.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static int skipWhitespace(String line, int position) {
+        while (position < line.length() && isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int tokenEnd(String line, int position) {
+        while (position < line.length() && !isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isDigits(String line, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseInt(String line, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (line.charAt(i) - '0');
+        }
+        return value;
+    }
+}
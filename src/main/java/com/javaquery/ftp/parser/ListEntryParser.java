@@ -0,0 +1,20 @@
+package com.javaquery.ftp.parser;
+
+import com.javaquery.ftp.io.ListingSink;
+
+/**
+ * Parses the lines of an FTP {@code LIST} reply. An instance is used for a single listing from a single
+ * thread, so it may keep state such as the time of the listing.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public interface ListEntryParser {
+    /**
+     * @param line raw line of the listing
+     * @param sink receives the entry, if the line describes one
+     * @return true if the line was handled (added to {@code sink} or deliberately skipped), false to let
+     * commons-net parse it instead
+     */
+    boolean parse(String line, ListingSink sink);
+}
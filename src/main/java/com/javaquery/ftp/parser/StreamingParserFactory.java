@@ -0,0 +1,121 @@
+package com.javaquery.ftp.parser;
+
+import com.javaquery.ftp.io.ListingSink;
+import com.javaquery.ftp.io.RemoteFileList;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPClientConfig;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.apache.commons.net.ftp.parser.CompositeFileEntryParser;
+import org.apache.commons.net.ftp.parser.DefaultFTPFileEntryParserFactory;
+import org.apache.commons.net.ftp.parser.FTPFileEntryParserFactory;
+import org.apache.commons.net.ftp.parser.UnixFTPEntryParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Parser factory for {@link FTPClient#setParserFactory(FTPFileEntryParserFactory)} that streams UNIX and
+ * Windows listings into a {@link ListingSink} while they are read from the data connection, instead of
+ * buffering every line and building an {@link FTPFile} per entry.
+ * <p>
+ * Lines the {@link ListEntryParser} doesn't handle are parsed by the commons-net parser for the system type
+ * and added to the sink from the resulting {@link FTPFile}. Other system types and listings without a sink
+ * are left to commons-net entirely.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class StreamingParserFactory implements FTPFileEntryParserFactory {
+
+    private final DefaultFTPFileEntryParserFactory defaultFactory = new DefaultFTPFileEntryParserFactory();
+    private final Function<String, ListEntryParser> listEntryParser;
+    private ListingSink sink;
+
+    public StreamingParserFactory(Function<String, ListEntryParser> listEntryParser) {
+        this.listEntryParser = listEntryParser;
+    }
+
+    /**
+     * List {@code pathname} into {@code sink}. Entries of formats that can't be streamed are returned
+     * as {@link FTPFile} instead, see {@link #addEntry(ListingSink, FTPFile)}.
+     */
+    public FTPFile[] listFiles(FTPClient ftpClient, String pathname, ListingSink sink) throws IOException {
+        this.sink = sink;
+        try {
+            return ftpClient.listFiles(pathname);
+        } finally {
+            this.sink = null;
+        }
+    }
+
+    @Override
+    public FTPFileEntryParser createFileEntryParser(String key) {
+        FTPFileEntryParser parser = defaultFactory.createFileEntryParser(key);
+        String upperCaseKey = key.toUpperCase(Locale.ENGLISH);
+        boolean unix = parser instanceof UnixFTPEntryParser && !upperCaseKey.contains(FTPClientConfig.SYST_UNIX_TRIM_LEADING);
+        boolean windows = parser instanceof CompositeFileEntryParser && upperCaseKey.contains(FTPClientConfig.SYST_NT);
+        return unix || windows ? new StreamingEntryParser(key, parser) : parser;
+    }
+
+    @Override
+    public FTPFileEntryParser createFileEntryParser(FTPClientConfig config) {
+        // explicit configurations (date formats, time zone, ...) are only understood by commons-net
+        return defaultFactory.createFileEntryParser(config);
+    }
+
+    /**
+     * Add an entry parsed by commons-net to {@code sink}, ignoring {@code null}.
+     */
+    public static void addEntry(ListingSink sink, FTPFile ftpFile) {
+        if (ftpFile != null) {
+            Calendar timestamp = ftpFile.getTimestamp();
+            sink.addEntry(ftpFile.getName(), ftpFile.isFile(), ftpFile.isDirectory(), ftpFile.getSize(),
+                    timestamp != null ? timestamp.getTimeInMillis() : RemoteFileList.UNKNOWN_TIMESTAMP);
+        }
+    }
+
+    /**
+     * Consumes the whole listing on the first {@link #readNextEntry(BufferedReader)} when a sink is set, so
+     * commons-net ends up with no entries of its own.
+     */
+    private class StreamingEntryParser implements FTPFileEntryParser {
+        private final String key;
+        private final FTPFileEntryParser fallback;
+
+        private StreamingEntryParser(String key, FTPFileEntryParser fallback) {
+            this.key = key;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public String readNextEntry(BufferedReader reader) throws IOException {
+            ListingSink listingSink = sink;
+            if (listingSink == null) {
+                return fallback.readNextEntry(reader);
+            }
+            ListEntryParser parser = listEntryParser.apply(key);
+            String line;
+            while ((line = fallback.readNextEntry(reader)) != null) {
+                if (!parser.parse(line, listingSink)) {
+                    addEntry(listingSink, fallback.parseFTPEntry(line));
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public FTPFile parseFTPEntry(String listEntry) {
+            return fallback.parseFTPEntry(listEntry);
+        }
+
+        @Override
+        public List<String> preParse(List<String> original) {
+            return fallback.preParse(original);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.javaquery.ftp.watch;
+
+import com.javaquery.ftp.io.RemoteFileList;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Files of one directory sorted by name in primitive arrays, with how long each has been unchanged and what
+ * was last reported for it. A new listing is diffed against the snapshot with a single merge pass.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+class DirectorySnapshot {
+
+    private final String directoryPrefix;
+    private final String[] names;
+    private final long[] sizes;
+    private final long[] lastModified;
+    private final long[] unchangedSince;
+    private final boolean[] reported;
+    private final long[] reportedSizes;
+    private final long[] reportedLastModified;
+    private int pendingCount;
+    private boolean changed;
+
+    private DirectorySnapshot(String directoryPrefix, int length) {
+        this.directoryPrefix = directoryPrefix;
+        this.names = new String[length];
+        this.sizes = new long[length];
+        this.lastModified = new long[length];
+        this.unchangedSince = new long[length];
+        this.reported = new boolean[length];
+        this.reportedSizes = new long[length];
+        this.reportedLastModified = new long[length];
+    }
+
+    /**
+     * First snapshot of a directory.
+     *
+     * @param reportExisting false to treat the files as already reported, true to report them as created
+     *                       once they are stable
+     */
+    static DirectorySnapshot initial(RemoteFileList listing, long now, boolean reportExisting) {
+        DirectorySnapshot snapshot = sorted(listing);
+        for (int i = 0; i < snapshot.names.length; i++) {
+            snapshot.unchangedSince[i] = now;
+            if (!reportExisting) {
+                snapshot.markReported(i);
+            }
+        }
+        snapshot.pendingCount = reportExisting ? snapshot.names.length : 0;
+        return snapshot;
+    }
+
+    /**
+     * Diff {@code listing} against this snapshot and add the events of files that became stable or
+     * disappeared to {@code events}.
+     */
+    DirectorySnapshot next(RemoteFileList listing, long now, long stabilityWindowMillis, List<RemoteFileEvent> events) {
+        DirectorySnapshot next = sorted(listing);
+        int i = 0;
+        int j = 0;
+        while (i < names.length || j < next.names.length) {
+            int compare = i == names.length ? 1 : j == next.names.length ? -1 : names[i].compareTo(next.names[j]);
+            if (compare < 0) {
+                if (reported[i]) {
+                    events.add(event(RemoteFileEventType.DELETED, names[i], reportedSizes[i], reportedLastModified[i]));
+                }
+                next.changed = true;
+                i++;
+                continue;
+            }
+            if (compare > 0) {
+                next.unchangedSince[j] = now;
+                next.changed = true;
+            } else {
+                if (sizes[i] == next.sizes[j] && lastModified[i] == next.lastModified[j]) {
+                    next.unchangedSince[j] = unchangedSince[i];
+                } else {
+                    next.unchangedSince[j] = now;
+                    next.changed = true;
+                }
+                next.reported[j] = reported[i];
+                next.reportedSizes[j] = reportedSizes[i];
+                next.reportedLastModified[j] = reportedLastModified[i];
+                i++;
+            }
+            next.checkStable(j, now, stabilityWindowMillis, events);
+            j++;
+        }
+        return next;
+    }
+
+    private void checkStable(int index, long now, long stabilityWindowMillis, List<RemoteFileEvent> events) {
+        if (reported[index] && reportedSizes[index] == sizes[index] && reportedLastModified[index] == lastModified[index]) {
+            return;
+        }
+        if (now - unchangedSince[index] < stabilityWindowMillis) {
+            // still being written, or just appeared
+            pendingCount++;
+            return;
+        }
+        RemoteFileEventType type = reported[index] ? RemoteFileEventType.MODIFIED : RemoteFileEventType.CREATED;
+        events.add(event(type, names[index], sizes[index], lastModified[index]));
+        markReported(index);
+    }
+
+    private void markReported(int index) {
+        reported[index] = true;
+        reportedSizes[index] = sizes[index];
+        reportedLastModified[index] = lastModified[index];
+    }
+
+    private RemoteFileEvent event(RemoteFileEventType type, String name, long size, long lastModified) {
+        return RemoteFileEvent.builder()
+                .type(type)
+                .path(directoryPrefix + name)
+                .size(size)
+                .lastModified(lastModified)
+                .build();
+    }
+
+    /**
+     * @return number of files seen changing but not reported yet because they are not stable
+     */
+    int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return true if a file appeared, changed or disappeared since the previous snapshot
+     */
+    boolean isChanged() {
+        return changed;
+    }
+
+    private static DirectorySnapshot sorted(RemoteFileList listing) {
+        int length = listing.size();
+        DirectorySnapshot snapshot = new DirectorySnapshot(listing.getDirectoryPrefix(), length);
+        boolean isSorted = true;
+        for (int i = 1; i < length && isSorted; i++) {
+            isSorted = listing.getName(i - 1).compareTo(listing.getName(i)) < 0;
+        }
+        if (isSorted) {
+            // servers usually list by name already
+            for (int i = 0; i < length; i++) {
+                snapshot.set(i, listing, i);
+            }
+        } else {
+            Integer[] order = new Integer[length];
+            for (int i = 0; i < length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> listing.getName(a).compareTo(listing.getName(b)));
+            for (int i = 0; i < length; i++) {
+                snapshot.set(i, listing, order[i]);
+            }
+        }
+        return snapshot;
+    }
+
+    private void set(int index, RemoteFileList listing, int listingIndex) {
+        names[index] = listing.getName(listingIndex);
+        sizes[index] = listing.getSize(listingIndex);
+        lastModified[index] = listing.getLastModified(listingIndex);
+    }
+}
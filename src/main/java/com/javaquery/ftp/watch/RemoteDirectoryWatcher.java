@@ -0,0 +1,158 @@
+package com.javaquery.ftp.watch;
+
+import com.javaquery.ftp.JFTPClient;
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.DaemonThreadFactory;
+import com.javaquery.ftp.io.RemoteFileList;
+import lombok.Builder;
+import lombok.Singular;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Polls remote directories and reports created, modified and deleted files to a {@link RemoteFileListener}.
+ * <p>
+ * Each directory is kept as a compact {@link DirectorySnapshot} and every listing is diffed against it. A file
+ * is only reported once its size and last modified time stayed the same for {@code stabilityWindowMillis}, so
+ * files still being uploaded are not picked up half-written. The poll interval starts at
+ * {@code minPollIntervalMillis}, doubles with every poll without changes up to {@code maxPollIntervalMillis},
+ * and drops back to the minimum as soon as something changes.
+ * <p>
+ * The watcher uses {@code jftpClient} from its own thread, it must not be used by anything else meanwhile.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Builder
+public class RemoteDirectoryWatcher implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteDirectoryWatcher.class);
+
+    private final JFTPClient jftpClient;
+    @Singular
+    private final List<String> directoryPaths;
+    private final RemoteFileListener listener;
+    @Builder.Default
+    private final long stabilityWindowMillis = 10000;
+    @Builder.Default
+    private final long minPollIntervalMillis = 1000;
+    @Builder.Default
+    private final long maxPollIntervalMillis = 60000;
+    /**
+     * Report the files found by the first listing as created, instead of taking them as known.
+     */
+    private final boolean reportExisting;
+
+    private final Map<String, DirectorySnapshot> snapshots = new HashMap<>();
+    private final AtomicLong pollIntervalMillis = new AtomicLong();
+    /**
+     * Created by {@link #start()}, a watcher only polled directly has no thread
+     */
+    private final AtomicReference<ScheduledExecutorService> scheduler = new AtomicReference<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Start polling in the background, the first listing is taken right away.
+     *
+     * @throws IllegalStateException if the watcher was already started or closed
+     */
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("ftp-directory-watcher"));
+        if (closed.get() || !scheduler.compareAndSet(null, executor)) {
+            executor.shutdown();
+            throw new IllegalStateException("Watcher was already started or closed");
+        }
+        executor.execute(this::pollAndReschedule);
+    }
+
+    /**
+     * List every directory once and report the changes.
+     *
+     * @return milliseconds until the next poll is due
+     */
+    public long poll() throws FTPException {
+        return poll(System.currentTimeMillis());
+    }
+
+    synchronized long poll(long now) throws FTPException {
+        List<RemoteFileEvent> events = new ArrayList<>();
+        boolean changed = false;
+        int pending = 0;
+        for (String directoryPath : directoryPaths) {
+            RemoteFileList listing = jftpClient.listFiles(directoryPath, remoteFile -> remoteFile.isFile());
+            DirectorySnapshot snapshot = snapshots.get(directoryPath);
+            snapshot = snapshot == null
+                    ? DirectorySnapshot.initial(listing, now, reportExisting)
+                    : snapshot.next(listing, now, stabilityWindowMillis, events);
+            snapshots.put(directoryPath, snapshot);
+            changed |= snapshot.isChanged();
+            pending += snapshot.getPendingCount();
+        }
+
+        long interval = pollIntervalMillis.get();
+        interval = changed || interval == 0 ? minPollIntervalMillis : Math.min(interval * 2, maxPollIntervalMillis);
+        if (pending > 0) {
+            // come back when the pending files may have become stable
+            interval = Math.min(interval, Math.max(minPollIntervalMillis, stabilityWindowMillis));
+        }
+        pollIntervalMillis.set(interval);
+
+        for (RemoteFileEvent event : events) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Listener failed for {} of {}", event.getType(), event.getPath(), e);
+            }
+        }
+        return interval;
+    }
+
+    /**
+     * @return current poll interval in milliseconds, 0 before the first poll
+     */
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis.get();
+    }
+
+    private void pollAndReschedule() {
+        long interval = maxPollIntervalMillis;
+        try {
+            interval = poll();
+        } catch (FTPException e) {
+            LOGGER.warn("Failed to poll {}: {}", directoryPaths, e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to poll {}", directoryPaths, e);
+        } finally {
+            // whatever went wrong, the watcher keeps polling until it is closed
+            try {
+                scheduler.get().schedule(this::pollAndReschedule, interval, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed meanwhile
+            }
+        }
+    }
+
+    /**
+     * Stop polling. The client is not disconnected.
+     */
+    @Override
+    public void close() {
+        closed.set(true);
+        ScheduledExecutorService executor = scheduler.get();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.javaquery.ftp.watch;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Change of a file in a watched directory. For {@link RemoteFileEventType#DELETED} the size and last modified
+ * time are the ones last reported for the file.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Getter
+@Builder
+public class RemoteFileEvent {
+    private RemoteFileEventType type;
+    private String path;
+    private long size;
+    /**
+     * Epoch milliseconds or {@link com.javaquery.ftp.io.RemoteFileList#UNKNOWN_TIMESTAMP}
+     */
+    private long lastModified;
+}
@@ -0,0 +1,11 @@
+package com.javaquery.ftp.watch;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public enum RemoteFileEventType {
+    CREATED,
+    MODIFIED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package com.javaquery.ftp.watch;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public interface RemoteFileListener {
+    void onEvent(RemoteFileEvent event);
+}
@@ -0,0 +1,170 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.RemoteFile;
+import org.apache.sshd.server.SshServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class BulkOperationsTest {
+
+    private FakeFtpServer fakeFtpServer;
+    private FileSystem fileSystem;
+
+    @BeforeEach
+    public void setup() {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data/processed/2026/01"));
+        fileSystem.add(new DirectoryEntry("/data/archive"));
+        for (int i = 0; i < 20; i++) {
+            fileSystem.add(new FileEntry("/data/processed/file-" + i + ".csv", "row " + i));
+        }
+        fileSystem.add(new FileEntry("/data/processed/2026/01/nested.csv", "nested"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+    }
+
+    private JFTPClientPool pool(FTPType ftpType, int port, int maxSize) {
+        return new JFTPClientPool(ftpType, Credentials.builder()
+                .host("localhost")
+                .port(port)
+                .username("user")
+                .password("password")
+                .build(), maxSize);
+    }
+
+    @Test
+    void deleteAndRenameFiles_success() {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            paths.add("/data/processed/file-" + i + ".csv");
+        }
+        paths.add("/data/processed/missing.csv");
+        Map<String, String> renames = new LinkedHashMap<>();
+        for (int i = 10; i < 20; i++) {
+            renames.put("/data/processed/file-" + i + ".csv", "/data/archive/file-" + i + ".csv");
+        }
+
+        try (JFTPClientPool pool = pool(FTPType.FTP, fakeFtpServer.getServerControlPort(), 4)) {
+            Map<String, Boolean> deleted = BulkOperations.deleteFiles(pool, paths);
+            assertEquals(paths, new ArrayList<>(deleted.keySet()));
+            assertFalse(deleted.remove("/data/processed/missing.csv"));
+            assertTrue(deleted.values().stream().allMatch(Boolean::booleanValue));
+            assertFalse(fileSystem.exists("/data/processed/file-0.csv"));
+
+            Map<String, Boolean> renamed = BulkOperations.renameFiles(pool, renames);
+            assertEquals(10, renamed.size());
+            assertTrue(renamed.values().stream().allMatch(Boolean::booleanValue));
+            assertTrue(fileSystem.exists("/data/archive/file-19.csv"));
+            assertFalse(fileSystem.exists("/data/processed/file-19.csv"));
+        }
+    }
+
+    @Test
+    void statCached_success() {
+        StatCache statCache = new StatCache(60000);
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            paths.add("/data/processed/file-" + i + ".csv");
+        }
+        paths.add("/data/processed/missing.csv");
+
+        try (JFTPClientPool pool = new JFTPClientPool(FTPType.FTP, Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .statCache(statCache)
+                .build(), 3)) {
+            Map<String, RemoteFile> stats = BulkOperations.stat(pool, paths);
+            assertEquals(paths, new ArrayList<>(stats.keySet()));
+            assertEquals(5, stats.get("/data/processed/file-0.csv").getSize());
+            assertNull(stats.get("/data/processed/missing.csv"));
+            assertEquals(0, statCache.getHits());
+
+            // changes by others show once the results expire
+            fileSystem.delete("/data/processed/file-1.csv");
+            JFTPClient jftpClient = pool.borrow();
+            try {
+                assertTrue(jftpClient.exists("/data/processed/file-1.csv"));
+                assertEquals(1, statCache.getHits());
+
+                // changes through a client sharing the cache show right away
+                assertTrue(jftpClient.deleteFile("/data/processed/file-2.csv"));
+                assertEquals(-1, jftpClient.size("/data/processed/file-2.csv"));
+                assertTrue(jftpClient.uploadBytes("new".getBytes(StandardCharsets.UTF_8), "/data/processed/missing.csv"));
+                assertEquals(3, jftpClient.size("/data/processed/missing.csv"));
+                assertTrue(jftpClient.renameFile("/data/processed/file-3.csv", "/data/archive/file-3.csv"));
+                assertFalse(jftpClient.exists("/data/processed/file-3.csv"));
+            } finally {
+                pool.release(jftpClient);
+            }
+        }
+    }
+
+    @Test
+    void deleteTree_success() {
+        try (JFTPClientPool pool = pool(FTPType.FTP, fakeFtpServer.getServerControlPort(), 3)) {
+            Map<String, Boolean> deleted = BulkOperations.deleteTree(pool, "/data/processed");
+            // 21 files, 3 directories
+            assertEquals(24, deleted.size());
+            assertTrue(deleted.values().stream().allMatch(Boolean::booleanValue));
+            List<String> order = new ArrayList<>(deleted.keySet());
+            assertEquals(Arrays.asList("/data/processed/2026/01", "/data/processed/2026", "/data/processed"), order.subList(21, 24));
+            assertFalse(fileSystem.exists("/data/processed"));
+            assertTrue(fileSystem.exists("/data/archive"));
+        }
+    }
+
+    @Test
+    void deleteTreeSFTP_success() throws IOException {
+        Path root = Files.createTempDirectory("bulk");
+        Files.createDirectories(root.resolve("logs/old"));
+        Files.write(root.resolve("logs/a.log"), new byte[10]);
+        Files.write(root.resolve("logs/old/b.log"), new byte[10]);
+        SshServer sshServer = SFTPClientImplTest.startServer(root);
+        try (JFTPClientPool pool = pool(FTPType.SFTP, sshServer.getPort(), 2)) {
+            Map<String, Boolean> deleted = BulkOperations.deleteFiles(pool, Arrays.asList("/logs/missing.log", "/logs/a.log"));
+            // the refused path doesn't cost the connection
+            assertFalse(deleted.get("/logs/missing.log"));
+            assertTrue(deleted.get("/logs/a.log"));
+
+            Map<String, Boolean> deletedTree = BulkOperations.deleteTree(pool, "/logs");
+            assertEquals(3, deletedTree.size());
+            assertTrue(deletedTree.values().stream().allMatch(Boolean::booleanValue));
+            assertFalse(Files.exists(root.resolve("logs")));
+        } finally {
+            sshServer.stop(true);
+        }
+    }
+
+    @AfterEach
+    public void teardown() {
+        fakeFtpServer.stop();
+    }
+}
@@ -0,0 +1,117 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.RemoteContent;
+import org.apache.commons.net.ftp.FTPConnectionClosedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.StaticReplyCommandHandler;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class DataConnectionNegotiatorTest {
+
+    private FakeFtpServer fakeFtpServer;
+    private JFTPClient jftpClient;
+
+    @BeforeEach
+    public void setup() {
+        DataConnectionModes.clear();
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new FileEntry("/data/a.csv", "a,b,c"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        jftpClient = new JFTPClient(FTPType.FTP);
+    }
+
+    private void connect() throws Exception {
+        fakeFtpServer.start();
+        jftpClient.connect(Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build());
+    }
+
+    @Test
+    void epsv_success() throws Exception {
+        connect();
+        assertEquals(1, jftpClient.listFiles("/data", null).size());
+        int port = fakeFtpServer.getServerControlPort();
+        assertEquals(DataConnectionMode.EPSV, DataConnectionModes.get("localhost", port));
+        DataConnectionTiming timing = DataConnectionModes.getTimings("localhost", port).get(DataConnectionMode.EPSV);
+        assertEquals(1, timing.getAttempts());
+        assertEquals(0, timing.getFailures());
+    }
+
+    @Test
+    void epsvRejectedFallsBackToPasv_success() throws Exception {
+        fakeFtpServer.setCommandHandler(CommandNames.EPSV, new StaticReplyCommandHandler(502, "EPSV not implemented"));
+        connect();
+        assertEquals(1, jftpClient.listFiles("/data", null).size());
+        try (RemoteContent content = jftpClient.downloadBytes("/data/a.csv", 1024)) {
+            assertEquals(5, content.length());
+        }
+
+        int port = fakeFtpServer.getServerControlPort();
+        assertEquals(DataConnectionMode.PASV, DataConnectionModes.get("localhost", port));
+        Map<DataConnectionMode, DataConnectionTiming> timings = DataConnectionModes.getTimings("localhost", port);
+        // the download went straight to PASV
+        assertEquals(1, timings.get(DataConnectionMode.EPSV).getFailures());
+        assertEquals(2, timings.get(DataConnectionMode.PASV).getAttempts());
+        assertEquals(0, timings.get(DataConnectionMode.PASV).getFailures());
+    }
+
+    @Test
+    void unusablePassiveAddressFallsBackToActive_success() throws Exception {
+        fakeFtpServer.setCommandHandler(CommandNames.EPSV, new StaticReplyCommandHandler(502, "EPSV not implemented"));
+        // nothing listens on port 1
+        fakeFtpServer.setCommandHandler(CommandNames.PASV, new StaticReplyCommandHandler(227, "Entering Passive Mode (127,0,0,1,0,1)"));
+        connect();
+        assertTrue(jftpClient.uploadBytes("x,y".getBytes(StandardCharsets.UTF_8), "/data/b.csv"));
+        assertEquals(2, jftpClient.listFiles("/data", null).size());
+
+        int port = fakeFtpServer.getServerControlPort();
+        assertEquals(DataConnectionMode.ACTIVE, DataConnectionModes.get("localhost", port));
+        Map<DataConnectionMode, DataConnectionTiming> timings = DataConnectionModes.getTimings("localhost", port);
+        assertEquals(1, timings.get(DataConnectionMode.PASV).getFailures());
+        assertEquals(2, timings.get(DataConnectionMode.ACTIVE).getAttempts());
+    }
+
+    @Test
+    void controlConnectionClosed_failure() throws Exception {
+        fakeFtpServer.setCommandHandler(CommandNames.EPSV, (command, session) -> session.close());
+        connect();
+        FTPException exception = assertThrows(FTPException.class, () -> jftpClient.listFiles("/data", null));
+        // not a data connection failure, no other mode tried and nothing remembered
+        assertInstanceOf(FTPConnectionClosedException.class, exception.getCause());
+        assertTrue(DataConnectionModes.getTimings("localhost", fakeFtpServer.getServerControlPort()).isEmpty());
+        // the closed connection can't log out, stopping the server cleans up
+        jftpClient = new JFTPClient(FTPType.FTP);
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        jftpClient.disconnect();
+        fakeFtpServer.stop();
+    }
+}
@@ -0,0 +1,146 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class DownloadCacheTest {
+
+    private FakeFtpServer fakeFtpServer;
+    private FileSystem fileSystem;
+    private Path directory;
+    private final AtomicInteger retrievals = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() throws IOException {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new FileEntry("/data/a.csv", "a,b,c,d,e"));
+        fileSystem.add(new FileEntry("/data/b.csv", "f,g,h,i,j"));
+        fileSystem.add(new FileEntry("/data/c.csv", "k,l,m,n,o"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        // FakeFtpServer has no MDTM
+        fakeFtpServer.setCommandHandler("MDTM", (command, session) -> session.sendReply(213, "20260101120000"));
+        CommandHandler retr = fakeFtpServer.getCommandHandler(CommandNames.RETR);
+        fakeFtpServer.setCommandHandler(CommandNames.RETR, (command, session) -> {
+            retrievals.incrementAndGet();
+            retr.handleCommand(command, session);
+        });
+        fakeFtpServer.start();
+        directory = Files.createTempDirectory("download-cache");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fakeFtpServer.stop();
+    }
+
+    private JFTPClient connect(DownloadCache downloadCache) {
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .downloadCache(downloadCache)
+                .build());
+        return jftpClient;
+    }
+
+    @Test
+    void hitServesCachedFile_success() throws IOException {
+        DownloadCache downloadCache = DownloadCache.open(directory.resolve("cache"), 1024);
+        JFTPClient jftpClient = connect(downloadCache);
+        Path first = directory.resolve("first.csv");
+        Path second = directory.resolve("second.csv");
+        assertTrue(jftpClient.downloadFile("/data/a.csv", first.toString()));
+        assertTrue(jftpClient.downloadFile("/data/a.csv", second.toString()));
+        jftpClient.disconnect();
+
+        assertEquals("a,b,c,d,e", new String(Files.readAllBytes(second), StandardCharsets.UTF_8));
+        assertEquals(1, retrievals.get());
+        assertEquals(1, downloadCache.getHits());
+        assertEquals(1, downloadCache.getMisses());
+        assertEquals(0.5, downloadCache.getHitRate());
+        assertEquals(9, downloadCache.getHitBytes());
+
+        // a second client, e.g. of another process, uses the same cache directory
+        DownloadCache otherCache = DownloadCache.open(directory.resolve("cache"), 1024, false);
+        JFTPClient otherClient = connect(otherCache);
+        assertTrue(otherClient.downloadFile("/data/a.csv", directory.resolve("third.csv").toString()));
+        otherClient.disconnect();
+        assertEquals(1, otherCache.getHits());
+        assertEquals(1, retrievals.get());
+    }
+
+    @Test
+    void changedFileIsDownloaded_success() throws IOException {
+        DownloadCache downloadCache = DownloadCache.open(directory.resolve("cache"), 1024);
+        JFTPClient jftpClient = connect(downloadCache);
+        assertTrue(jftpClient.downloadFile("/data/a.csv", directory.resolve("first.csv").toString()));
+
+        fileSystem.delete("/data/a.csv");
+        fileSystem.add(new FileEntry("/data/a.csv", "a,b,c,d,e,f"));
+        Path second = directory.resolve("second.csv");
+        assertTrue(jftpClient.downloadFile("/data/a.csv", second.toString()));
+        jftpClient.disconnect();
+
+        assertEquals("a,b,c,d,e,f", new String(Files.readAllBytes(second), StandardCharsets.UTF_8));
+        assertEquals(2, retrievals.get());
+        assertEquals(0, downloadCache.getHits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed_success() throws IOException {
+        DownloadCache downloadCache = DownloadCache.open(directory.resolve("cache"), 20);
+        JFTPClient jftpClient = connect(downloadCache);
+        assertTrue(jftpClient.downloadFile("/data/a.csv", directory.resolve("a1.csv").toString()));
+        assertTrue(jftpClient.downloadFile("/data/b.csv", directory.resolve("b1.csv").toString()));
+        // b1.csv is a hard link to the cached b.csv, make b the least recently used
+        Files.setLastModifiedTime(directory.resolve("b1.csv"), FileTime.fromMillis(1000));
+        assertTrue(jftpClient.downloadFile("/data/a.csv", directory.resolve("a2.csv").toString()));
+        assertTrue(jftpClient.downloadFile("/data/c.csv", directory.resolve("c1.csv").toString()));
+        assertEquals(1, downloadCache.getEvictions());
+
+        assertTrue(jftpClient.downloadFile("/data/a.csv", directory.resolve("a3.csv").toString()));
+        assertTrue(jftpClient.downloadFile("/data/b.csv", directory.resolve("b2.csv").toString()));
+        jftpClient.disconnect();
+        assertEquals(2, downloadCache.getHits());
+        assertEquals(4, retrievals.get());
+    }
+
+    @Test
+    void existingLocalFile_failure() throws IOException {
+        DownloadCache downloadCache = DownloadCache.open(directory.resolve("cache"), 1024);
+        JFTPClient jftpClient = connect(downloadCache);
+        Path local = directory.resolve("a.csv");
+        assertTrue(jftpClient.downloadFile("/data/a.csv", local.toString()));
+        assertThrows(FTPException.class, () -> jftpClient.downloadFile("/data/a.csv", local.toString()));
+        jftpClient.disconnect();
+    }
+}
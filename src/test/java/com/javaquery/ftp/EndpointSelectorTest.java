@@ -0,0 +1,166 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class EndpointSelectorTest {
+
+    private static final Endpoint FAST = new Endpoint("fast.example.com", 21);
+    private static final Endpoint SLOW = new Endpoint("slow.example.com", 21);
+    private static final Endpoint NEW = new Endpoint("new.example.com", 21);
+
+    @Test
+    void orderByLatencyAndThroughput_success() {
+        EndpointSelector selector = new EndpointSelector(3, 1000);
+        selector.recordConnect(FAST, 50);
+        selector.recordConnect(SLOW, 20);
+        assertEquals(Arrays.asList(NEW, SLOW, FAST), selector.order(Arrays.asList(FAST, SLOW, NEW)));
+
+        // 1 MB in 100 ms against 1 MB in 2 s outweighs the connect latency
+        selector.recordTransfer(FAST, 1024 * 1024, 100);
+        selector.recordTransfer(SLOW, 1024 * 1024, 2000);
+        assertEquals(Arrays.asList(FAST, SLOW), selector.order(Arrays.asList(SLOW, FAST)));
+    }
+
+    @Test
+    void circuitBreaker_success() {
+        EndpointSelector selector = new EndpointSelector(2, 1000);
+        selector.recordConnect(FAST, 10);
+        selector.recordConnect(SLOW, 100);
+
+        selector.recordFailure(FAST, 0);
+        // failed recently, behind the healthy endpoints but not skipped yet
+        assertEquals(Arrays.asList(SLOW, FAST), selector.order(Arrays.asList(FAST, SLOW), 0));
+
+        selector.recordFailure(FAST, 0);
+        selector.recordFailure(SLOW, 0);
+        selector.recordFailure(SLOW, 0);
+        selector.recordFailure(SLOW, 0);
+        // both open, FAST is due first, SLOW backed off for 2 s
+        assertEquals(Arrays.asList(FAST, SLOW), selector.order(Arrays.asList(SLOW, FAST), 500));
+        assertEquals(Collections.singletonList(FAST), selector.order(Arrays.asList(SLOW, FAST), 1500));
+
+        selector.recordConnect(FAST, 10);
+        // SLOW is left out while another endpoint is usable
+        assertEquals(Collections.singletonList(FAST), selector.order(Arrays.asList(SLOW, FAST), 1500));
+        assertFalse(selector.isOpen(FAST));
+
+        selector.recordFailure(FAST, 1500);
+        selector.recordFailure(FAST, 1500);
+        selector.recordTransfer(FAST, 1024, 1);
+        assertFalse(selector.isOpen(FAST));
+    }
+
+    @Test
+    void connectFailsOverToMirror_success() throws IOException {
+        FakeFtpServer fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new FileEntry("/data/a.csv", "a"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        int deadPort;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            deadPort = serverSocket.getLocalPort();
+        }
+        Endpoint dead = new Endpoint("localhost", deadPort);
+        Endpoint live = new Endpoint("localhost", fakeFtpServer.getServerControlPort());
+        EndpointSelector selector = new EndpointSelector(1, 60000);
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(deadPort)
+                .mirror(live)
+                .endpointSelector(selector)
+                .username("user")
+                .password("password")
+                .connectTimeout(2000)
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        try {
+            jftpClient.connect(credentials);
+            assertEquals(live, jftpClient.getEndpoint());
+            assertTrue(selector.isOpen(dead));
+            assertEquals(1, jftpClient.listFiles("/data", null).size());
+            jftpClient.disconnect();
+
+            // the open circuit sends the next connection straight to the mirror
+            List<Endpoint> order = selector.order(Arrays.asList(dead, live));
+            assertEquals(Collections.singletonList(live), order);
+            jftpClient.connect(credentials);
+            assertEquals(live, jftpClient.getEndpoint());
+        } finally {
+            jftpClient.disconnect();
+            fakeFtpServer.stop();
+        }
+
+        Credentials unreachable = Credentials.builder()
+                .host("localhost")
+                .port(deadPort)
+                .mirror(dead)
+                .endpointSelector(selector)
+                .connectTimeout(2000)
+                .build();
+        assertThrows(FTPException.class, () -> new JFTPClient(FTPType.FTP).connect(unreachable));
+    }
+
+    @Test
+    void transferFailureOpensCircuit_success() {
+        FakeFtpServer fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new FileEntry("/data/a.csv", "a"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        Endpoint live = new Endpoint("localhost", fakeFtpServer.getServerControlPort());
+        EndpointSelector selector = new EndpointSelector(1, 60000);
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        try {
+            jftpClient.connect(Credentials.builder()
+                    .mirror(live)
+                    .endpointSelector(selector)
+                    .username("user")
+                    .password("password")
+                    .build());
+            // a missing file is an answer of a healthy server
+            assertFalse(jftpClient.downloadFile("/data/missing.csv", new ByteArrayOutputStream()));
+            assertFalse(selector.isOpen(live));
+
+            fakeFtpServer.stop();
+            assertThrows(FTPException.class, () -> jftpClient.downloadFile("/data/a.csv", new ByteArrayOutputStream()));
+            assertTrue(selector.isOpen(live));
+        } finally {
+            try {
+                jftpClient.disconnect();
+            } catch (FTPException ignored) {
+                // the connection is broken once the server stopped
+            }
+            fakeFtpServer.stop();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.javaquery.ftp;
 
 import com.javaquery.ftp.exception.FTPException;
 import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
 import com.javaquery.util.io.Files;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -117,6 +118,26 @@ public class FTPClientImplTest {
         ftpClient.disconnect();
     }
 
+    @Test
+    void listFilesPath_success() {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build();
+
+        FTPClientImpl ftpClient = new FTPClientImpl();
+        ftpClient.connect(credentials);
+        RemoteFileList files = ftpClient.listFiles("/data/", null);
+        assertEquals(1, files.size());
+        assertEquals("/data/foobar.txt", files.getPath(0));
+        assertEquals(17, files.getSize(0));
+        assertEquals("/data/foobar.txt", files.get(0).getPath());
+        assertNotNull(files.get(0).getTimestamp());
+        ftpClient.disconnect();
+    }
+
     @Test
     void listFilesWithoutConnect_failure() {
         FTPClientImpl ftpClient = new FTPClientImpl();
@@ -287,6 +308,25 @@ public class FTPClientImplTest {
         ftpClient.disconnect();
     }
 
+    @Test
+    void listFilesCommonsParser_success() {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .listEntryParser(null)
+                .build();
+
+        FTPClientImpl ftpClient = new FTPClientImpl();
+        ftpClient.connect(credentials);
+        RemoteFileList files = ftpClient.listFiles("/data", null);
+        assertEquals(1, files.size());
+        assertEquals("foobar.txt", files.getName(0));
+        assertEquals(17, files.getSize(0));
+        ftpClient.disconnect();
+    }
+
     @AfterEach
     public void teardown() {
         fakeFtpServer.stop();
@@ -0,0 +1,166 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.command.StaticReplyCommandHandler;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FXPTransferTest {
+
+    private static final String CONTENT = "abcdef 1234567890";
+
+    private FakeFtpServer sourceServer;
+    private FakeFtpServer targetServer;
+
+    @BeforeEach
+    public void setup() {
+        sourceServer = startServer("/source");
+        sourceServer.getFileSystem().add(new FileEntry("/source/foobar.txt", CONTENT));
+        targetServer = startServer("/target");
+    }
+
+    @Test
+    void fxp_success() throws IOException {
+        FTPClientImpl source = new FTPClientImpl();
+        source.connect(credentials(sourceServer));
+        FTPClientImpl target = new FTPClientImpl();
+        target.connect(credentials(targetServer));
+
+        assertTrue(FXPTransfer.fxp(source.getFtpClient(), "/source/foobar.txt", target.getFtpClient(), "/target/foobar.txt"));
+        assertEquals(CONTENT, targetContent("/target/foobar.txt"));
+        // both control connections are usable afterwards
+        assertEquals(1, source.listFiles("/source", null).size());
+        assertEquals(1, target.listFiles("/target", null).size());
+
+        source.disconnect();
+        target.disconnect();
+    }
+
+    @Test
+    void transferFileFxpRefused_success() throws IOException {
+        sourceServer.setCommandHandler(CommandNames.PORT, new StaticReplyCommandHandler(500, "Illegal PORT command"));
+        JFTPClient source = connect(sourceServer);
+        JFTPClient target = connect(targetServer);
+
+        assertTrue(source.transferFile("/source/foobar.txt", target, "/target/relayed.txt"));
+        assertEquals(CONTENT, targetContent("/target/relayed.txt"));
+
+        source.disconnect();
+        target.disconnect();
+    }
+
+    @Test
+    void transferFileMissingSource_failure() {
+        JFTPClient source = connect(sourceServer);
+        JFTPClient target = connect(targetServer);
+
+        assertFalse(source.transferFile("/source/missing.txt", target, "/target/missing.txt"));
+        assertFalse(targetServer.getFileSystem().exists("/target/missing.txt"));
+        assertEquals(1, source.listFiles("/source", null).size());
+
+        source.disconnect();
+        target.disconnect();
+    }
+
+    @Test
+    void transferFileTargetRefuses_failure() {
+        targetServer.setCommandHandler(CommandNames.STOR, new StaticReplyCommandHandler(553, "File name not allowed"));
+        JFTPClient source = connect(sourceServer);
+        JFTPClient target = connect(targetServer);
+
+        assertFalse(source.transferFile("/source/foobar.txt", target, "/target/foobar.txt"));
+        assertFalse(targetServer.getFileSystem().exists("/target/foobar.txt"));
+        // the source transfer was aborted and its replies read
+        assertEquals(1, source.listFiles("/source", null).size());
+
+        source.disconnect();
+        target.disconnect();
+    }
+
+    @Test
+    void transferFileTargetRefusesLargeFile_failure() {
+        // more than the socket buffers take, the source blocks writing to the data port nobody accepts
+        sourceServer.getFileSystem().add(new FileEntry("/source/large.bin", new String(new char[32 * 1024 * 1024])));
+        targetServer.setCommandHandler(CommandNames.STOR, new StaticReplyCommandHandler(553, "File name not allowed"));
+        JFTPClient source = new JFTPClient(FTPType.FTP);
+        source.connect(credentials(sourceServer).toBuilder().socketTimeout(1000).build());
+        JFTPClient target = connect(targetServer);
+
+        assertFalse(source.transferFile("/source/large.bin", target, "/target/large.bin"));
+        assertFalse(targetServer.getFileSystem().exists("/target/large.bin"));
+    }
+
+    @Test
+    void transferFileSFTP_failure() {
+        JFTPClient source = connect(sourceServer);
+        JFTPClient target = new JFTPClient(FTPType.SFTP);
+
+        assertThrows(FTPException.class, () -> source.transferFile("/source/foobar.txt", target, "/target/foobar.txt"));
+        source.disconnect();
+    }
+
+    private static FakeFtpServer startServer(String home) {
+        FakeFtpServer fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", home));
+
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry(home));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+
+        fakeFtpServer.start();
+        return fakeFtpServer;
+    }
+
+    private static Credentials credentials(FakeFtpServer fakeFtpServer) {
+        return Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build();
+    }
+
+    private static JFTPClient connect(FakeFtpServer fakeFtpServer) {
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials(fakeFtpServer));
+        return jftpClient;
+    }
+
+    private String targetContent(String path) throws IOException {
+        FileEntry fileEntry = (FileEntry) targetServer.getFileSystem().getEntry(path);
+        assertNotNull(fileEntry);
+        try (InputStream inputStream = fileEntry.createInputStream()) {
+            byte[] buffer = new byte[(int) fileEntry.getSize()];
+            int read = 0;
+            while (read < buffer.length) {
+                read += inputStream.read(buffer, read, buffer.length - read);
+            }
+            return new String(buffer, StandardCharsets.UTF_8);
+        }
+    }
+
+    @AfterEach
+    public void teardown() {
+        sourceServer.stop();
+        targetServer.stop();
+    }
+}
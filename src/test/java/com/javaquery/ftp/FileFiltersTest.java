@@ -0,0 +1,134 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.core.command.CommandHandler;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FileFiltersTest {
+
+    private FakeFtpServer fakeFtpServer;
+    private JFTPClient jftpClient;
+    private final List<String> listArguments = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new FileEntry("/data/a.csv", "a,b,c"));
+        fileSystem.add(new FileEntry("/data/b.csv", "a,b,c,d,e,f"));
+        fileSystem.add(new FileEntry("/data/c.txt", "abc"));
+        fileSystem.add(new DirectoryEntry("/data/archive.csv"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        jftpClient = new JFTPClient(FTPType.FTP);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        jftpClient.disconnect();
+        fakeFtpServer.stop();
+    }
+
+    private void connect(boolean globSupported) throws Exception {
+        CommandHandler list = fakeFtpServer.getCommandHandler(CommandNames.LIST);
+        fakeFtpServer.setCommandHandler(CommandNames.LIST, (command, session) -> {
+            String argument = command.getOptionalString(0);
+            listArguments.add(argument);
+            if (!globSupported && argument != null && argument.contains("*")) {
+                session.sendReply(450, "No such file or directory");
+                return;
+            }
+            list.handleCommand(command, session);
+        });
+        fakeFtpServer.start();
+        jftpClient.connect(Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build());
+    }
+
+    @Test
+    void combinators_success() {
+        RemoteFile file = RemoteFile.builder().name("report-2026.csv").isFile(true).size(100).build();
+        assertTrue(FileFilters.nameGlob("report-*.csv").accept(file));
+        assertTrue(FileFilters.nameGlob("report-20[0-9][!a-z].csv").accept(file));
+        assertFalse(FileFilters.nameGlob("*.CSV").accept(file));
+        assertTrue(FileFilters.nameRegex("report-\\d+\\.csv").accept(file));
+        assertTrue(FileFilters.and(FileFilters.files(), FileFilters.sizeBetween(100, 100)).accept(file));
+        assertFalse(FileFilters.and(FileFilters.directories(), FileFilters.sizeBetween(100, 100)).accept(file));
+        assertTrue(FileFilters.or(FileFilters.directories(), FileFilters.not(FileFilters.sizeBetween(0, 99))).accept(file));
+        // no timestamp
+        assertFalse(FileFilters.modifiedBetween(Long.MIN_VALUE, Long.MAX_VALUE).accept(file));
+
+        Calendar timestamp = Calendar.getInstance();
+        timestamp.setTimeInMillis(1000);
+        file.setTimestamp(timestamp);
+        assertTrue(FileFilters.modifiedBetween(1000, 2000).accept(file));
+        assertFalse(FileFilters.modifiedBetween(0, 1000).accept(file));
+    }
+
+    @Test
+    void serverGlob_success() {
+        assertEquals("*.csv", FileFilters.serverGlob(FileFilters.nameGlob("*.csv")));
+        assertEquals("*.csv", FileFilters.serverGlob(FileFilters.and(FileFilters.files(), FileFilters.nameGlob("*.csv"))));
+        assertNull(FileFilters.serverGlob(FileFilters.or(FileFilters.nameGlob("*.csv"), FileFilters.nameGlob("*.txt"))));
+        assertNull(FileFilters.serverGlob(FileFilters.not(FileFilters.nameGlob("*.csv"))));
+        assertNull(FileFilters.serverGlob(FileFilters.nameGlob("[ab].csv")));
+        assertNull(FileFilters.serverGlob(FileFilters.nameGlob("-l")));
+        assertNull(FileFilters.serverGlob(file -> true));
+    }
+
+    @Test
+    void listFilesPushesGlobDown_success() throws Exception {
+        connect(true);
+        RemoteFileList csvFiles = jftpClient.listFiles("/data", FileFilters.and(FileFilters.files(), FileFilters.nameGlob("*.csv")));
+        assertEquals(2, csvFiles.size());
+        assertEquals("/data/a.csv", csvFiles.getPath(0));
+        assertEquals("/data/b.csv", csvFiles.getPath(1));
+        assertEquals(1, listArguments.size());
+        assertEquals("/data/*.csv", listArguments.get(0));
+
+        // nothing matches, the server supports globs so the empty listing is the answer
+        assertEquals(0, jftpClient.listFiles("/data", FileFilters.nameGlob("*.xml")).size());
+        assertEquals(2, listArguments.size());
+    }
+
+    @Test
+    void listFilesWithoutGlobSupport_success() throws Exception {
+        connect(false);
+        RemoteFileList csvFiles = jftpClient.listFiles("/data", FileFilters.and(FileFilters.nameGlob("*.csv"), FileFilters.sizeBetween(6, 100)));
+        assertEquals(1, csvFiles.size());
+        assertEquals("b.csv", csvFiles.getName(0));
+        assertEquals("/data/*.csv", listArguments.get(0));
+        assertEquals("/data", listArguments.get(1));
+
+        // learned that the server ignores globs
+        assertEquals(3, jftpClient.listFiles("/data", FileFilters.nameGlob("*.csv")).size());
+        assertEquals(3, listArguments.size());
+        assertEquals("/data", listArguments.get(2));
+    }
+}
@@ -0,0 +1,173 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import org.apache.sshd.server.SshServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SFTP (in-process MINA SSHD) to FTP (MockFtpServer) and back.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FileRelayTest {
+
+    private Path sftpRoot;
+    private SshServer sshServer;
+    private FakeFtpServer fakeFtpServer;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        sftpRoot = Files.createTempDirectory("relay");
+        sshServer = SFTPClientImplTest.startServer(sftpRoot);
+
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+    }
+
+    @Test
+    void copySFTPToFTP_success() throws IOException {
+        byte[] content = new byte[100_000];
+        new Random(7).nextBytes(content);
+        Files.write(sftpRoot.resolve("source.bin"), content);
+
+        JFTPClient source = connect(FTPType.SFTP, sshServer.getPort());
+        JFTPClient target = connect(FTPType.FTP, fakeFtpServer.getServerControlPort());
+
+        // a pipe much smaller than the file makes download and upload take turns
+        assertTrue(FileRelay.copy(source, "/source.bin", target, "/data/target.bin", 4096));
+        assertArrayEquals(content, ftpContent("/data/target.bin"));
+
+        source.disconnect();
+        target.disconnect();
+    }
+
+    @Test
+    void copyFileMissingSource_failure() {
+        JFTPClient source = connect(FTPType.FTP, fakeFtpServer.getServerControlPort());
+        JFTPClient target = connect(FTPType.SFTP, sshServer.getPort());
+
+        assertFalse(source.copyFile("/data/missing.bin", target, "/missing.bin"));
+        assertFalse(Files.exists(sftpRoot.resolve("missing.bin")));
+        // both connections are still usable
+        assertTrue(source.listFiles("/data", null).isEmpty());
+        assertTrue(target.listFiles("/", remoteFile -> remoteFile.getName().startsWith("missing")).isEmpty());
+
+        source.disconnect();
+        target.disconnect();
+    }
+
+    @Test
+    void copyTargetRefuses_failure() throws IOException {
+        Files.write(sftpRoot.resolve("source.bin"), new byte[1024 * 1024]);
+        JFTPClient source = connect(FTPType.SFTP, sshServer.getPort());
+        JFTPClient target = connect(FTPType.FTP, fakeFtpServer.getServerControlPort());
+
+        // the refused upload stops reading, the download failing on the closed pipe is only its consequence
+        assertFalse(FileRelay.copy(source, "/source.bin", target, "/data/missing-directory/target.bin", 4096));
+        assertNotNull(source.stat("/source.bin"));
+        assertTrue(target.listFiles("/data", null).isEmpty());
+
+        source.disconnect();
+        target.disconnect();
+    }
+
+    @Test
+    void copyFilesSamePool_success() {
+        Map<String, String> files = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            fakeFtpServer.getFileSystem().add(new FileEntry("/data/file" + i + ".txt", "content " + i));
+            files.put("/data/file" + i + ".txt", "/data/copy" + i + ".txt");
+        }
+
+        try (JFTPClientPool pool = new JFTPClientPool(FTPType.FTP, credentials(fakeFtpServer.getServerControlPort()), 2)) {
+            Map<String, Boolean> result = FileRelay.copyFiles(pool, pool, files);
+            assertTrue(result.values().stream().allMatch(Boolean::booleanValue));
+            assertTrue(fakeFtpServer.getFileSystem().exists("/data/copy5.txt"));
+        }
+        try (JFTPClientPool pool = new JFTPClientPool(FTPType.FTP, credentials(fakeFtpServer.getServerControlPort()), 1)) {
+            assertThrows(FTPException.class, () -> FileRelay.copyFiles(pool, pool, files));
+        }
+    }
+
+    @Test
+    void copyFiles_success() throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            fakeFtpServer.getFileSystem().add(new FileEntry("/data/file" + i + ".txt", "content " + i));
+            files.put("/data/file" + i + ".txt", "/file" + i + ".txt");
+        }
+        files.put("/data/missing.txt", "/missing.txt");
+
+        try (JFTPClientPool sourcePool = new JFTPClientPool(FTPType.FTP, credentials(fakeFtpServer.getServerControlPort()), 3);
+             JFTPClientPool targetPool = new JFTPClientPool(FTPType.SFTP, credentials(sshServer.getPort()), 3)) {
+            Map<String, Boolean> result = FileRelay.copyFiles(sourcePool, targetPool, files);
+
+            assertEquals(files.keySet(), result.keySet());
+            assertFalse(result.get("/data/missing.txt"));
+            for (int i = 0; i < 8; i++) {
+                assertTrue(result.get("/data/file" + i + ".txt"));
+                assertEquals("content " + i, new String(Files.readAllBytes(sftpRoot.resolve("file" + i + ".txt"))));
+            }
+        }
+    }
+
+    private static Credentials credentials(int port) {
+        return Credentials.builder()
+                .host("localhost")
+                .port(port)
+                .username("user")
+                .password("password")
+                .build();
+    }
+
+    private static JFTPClient connect(FTPType ftpType, int port) {
+        JFTPClient jftpClient = new JFTPClient(ftpType);
+        jftpClient.connect(credentials(port));
+        return jftpClient;
+    }
+
+    private byte[] ftpContent(String path) throws IOException {
+        FileEntry fileEntry = (FileEntry) fakeFtpServer.getFileSystem().getEntry(path);
+        assertNotNull(fileEntry);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (InputStream inputStream = fileEntry.createInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        fakeFtpServer.stop();
+        sshServer.stop();
+    }
+}
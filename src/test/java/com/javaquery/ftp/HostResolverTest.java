@@ -0,0 +1,119 @@
+package com.javaquery.ftp;
+
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class HostResolverTest {
+
+    @Test
+    void dnsCache_success() throws IOException {
+        DnsCache dnsCache = new DnsCache(60000);
+        List<InetAddress> addresses = dnsCache.resolve("localhost");
+        assertSame(addresses, dnsCache.resolve("localhost"));
+        assertEquals("localhost", addresses.get(0).getHostName());
+
+        InetAddress last = addresses.get(addresses.size() - 1);
+        dnsCache.prefer("localhost", last);
+        assertEquals(last, dnsCache.resolve("localhost").get(0));
+
+        dnsCache.invalidate("localhost");
+        assertNotSame(addresses, dnsCache.resolve("localhost"));
+        assertNotSame(dnsCache.resolve("127.0.0.1"), new DnsCache(0).resolve("127.0.0.1"));
+    }
+
+    @Test
+    void raceSkipsDeadAddresses_success() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.2"))) {
+            InetAddress refused = InetAddress.getByName("127.0.0.1");
+            InetAddress alsoRefused = InetAddress.getByName("127.0.0.3");
+            InetAddress live = InetAddress.getByName("127.0.0.2");
+
+            // a refused attempt starts the next one without waiting for the delay
+            long start = System.currentTimeMillis();
+            try (Socket winner = HostResolver.race(Arrays.asList(refused, alsoRefused, live), serverSocket.getLocalPort(), 5000, 5000)) {
+                assertEquals(live, winner.getInetAddress());
+                assertTrue(winner.isConnected());
+            }
+            assertTrue(System.currentTimeMillis() - start < 2000);
+
+            assertThrows(IOException.class, () -> HostResolver.race(Arrays.asList(refused, refused), serverSocket.getLocalPort(), 100, 5000));
+        }
+    }
+
+    @Test
+    void connectedSocketHandedOver_success() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"))) {
+            Credentials credentials = Credentials.builder()
+                    .host("127.0.0.1")
+                    .port(serverSocket.getLocalPort())
+                    .build();
+            SocketFactory socketFactory = new HostResolver.ConnectedSocketFactory(HostResolver.connect(credentials));
+            try (Socket socket = socketFactory.createSocket();
+                 Socket accepted = serverSocket.accept()) {
+                // what commons-net does with the sockets of its factory, no second connection
+                socket.connect(new InetSocketAddress(socket.getInetAddress(), serverSocket.getLocalPort()), 1000);
+                serverSocket.setSoTimeout(200);
+                assertThrows(SocketTimeoutException.class, serverSocket::accept);
+                assertEquals(accepted.getLocalPort(), socket.getPort());
+
+                try (Socket dataSocket = socketFactory.createSocket()) {
+                    assertNotSame(socket, dataSocket);
+                    assertFalse(dataSocket.isConnected());
+                }
+            }
+        }
+    }
+
+    @Test
+    void poolPrewarm_success() throws Exception {
+        FakeFtpServer fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build();
+        try (JFTPClientPool pool = new JFTPClientPool(FTPType.FTP, credentials, 3)) {
+            assertEquals(3, pool.prewarm(5));
+            assertEquals(3, pool.getIdleCount());
+            JFTPClient jftpClient = pool.borrow();
+            assertEquals(0, jftpClient.listFiles("/data", null).size());
+            pool.release(jftpClient);
+        } finally {
+            fakeFtpServer.stop();
+        }
+
+        Credentials wrongPassword = credentials.toBuilder().password("wrong").build();
+        try (JFTPClientPool pool = new JFTPClientPool(FTPType.FTP, wrongPassword, 2)) {
+            assertThrows(com.javaquery.ftp.exception.FTPException.class, () -> pool.prewarm(2));
+            assertEquals(0, pool.getIdleCount());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class JFTPClientPoolTest {
+
+    @Test
+    void idleClientExpires_success() throws InterruptedException {
+        FakeFtpServer fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.start();
+
+        try (JFTPClientPool pool = new JFTPClientPool(FTPType.FTP, credentials(fakeFtpServer.getServerControlPort()), 2, 200)) {
+            JFTPClient jftpClient = pool.borrow();
+            pool.release(jftpClient);
+            assertSame(jftpClient, pool.borrow());
+            pool.release(jftpClient);
+
+            // idle too long, the server may have dropped it
+            Thread.sleep(300);
+            JFTPClient reconnected = pool.borrow();
+            assertNotSame(jftpClient, reconnected);
+            assertEquals(0, reconnected.listFiles("/data", null).size());
+            pool.release(reconnected);
+            assertEquals(1, pool.getIdleCount());
+        } finally {
+            fakeFtpServer.stop();
+        }
+    }
+
+    @Test
+    void failedLoginDisconnects_failure() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0);
+             JFTPClientPool pool = new JFTPClientPool(FTPType.FTP, credentials(serverSocket.getLocalPort()), 2)) {
+            CompletableFuture<Boolean> borrowClosed = refuseLogin(serverSocket);
+            assertThrows(FTPException.class, pool::borrow);
+            assertTrue(borrowClosed.get(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Boolean> prewarmClosed = refuseLogin(serverSocket);
+            assertThrows(FTPException.class, () -> pool.prewarm(1));
+            assertTrue(prewarmClosed.get(5, TimeUnit.SECONDS));
+            assertEquals(0, pool.getIdleCount());
+        }
+    }
+
+    /**
+     * Answer one connection like an FTP server that refuses the password.
+     *
+     * @return completes with true once the client closed the connection
+     */
+    private static CompletableFuture<Boolean> refuseLogin(ServerSocket serverSocket) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(3000);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream outputStream = socket.getOutputStream();
+                reply(outputStream, "220 ready");
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("USER")) {
+                        reply(outputStream, "331 password required");
+                    } else if (line.startsWith("PASS")) {
+                        reply(outputStream, "530 login incorrect");
+                    } else if (line.startsWith("QUIT")) {
+                        reply(outputStream, "221 bye");
+                    } else {
+                        reply(outputStream, "502 not implemented");
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                // timed out waiting for the client to close
+                return false;
+            }
+        });
+    }
+
+    private static void reply(OutputStream outputStream, String reply) throws IOException {
+        outputStream.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        outputStream.flush();
+    }
+
+    private static Credentials credentials(int port) {
+        return Credentials.builder()
+                .host("localhost")
+                .port(port)
+                .username("user")
+                .password("password")
+                .build();
+    }
+}
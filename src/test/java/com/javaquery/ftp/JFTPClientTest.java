@@ -1,7 +1,11 @@
 package com.javaquery.ftp;
 
+import com.javaquery.ftp.crypto.FileEncryption;
 import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.RemoteContent;
 import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import com.javaquery.ftp.io.RemoteFileOrder;
 import com.javaquery.util.io.Files;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,9 +17,15 @@ import org.mockftpserver.fake.filesystem.FileEntry;
 import org.mockftpserver.fake.filesystem.FileSystem;
 import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Random;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -115,6 +125,26 @@ public class JFTPClientTest {
         jftpClient.disconnect();
     }
 
+    @Test
+    void listLargestFiles_success() {
+        fakeFtpServer.getFileSystem().add(new FileEntry("/data-jftp/a.txt", "a"));
+        fakeFtpServer.getFileSystem().add(new FileEntry("/data-jftp/b.txt", "abc"));
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("pass1word")
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+        RemoteFileList files = jftpClient.listFiles("/data-jftp", null, RemoteFileOrder.LARGEST, 2);
+        assertEquals(2, files.size());
+        assertEquals("foobar.txt", files.getName(0));
+        assertEquals("b.txt", files.getName(1));
+        jftpClient.disconnect();
+    }
+
     @Test
     void listFilesWithoutConnect_failure() {
         JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
@@ -285,6 +315,144 @@ public class JFTPClientTest {
         jftpClient.disconnect();
     }
 
+    @Test
+    void uploadBytes_success() {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("pass1word")
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+
+        assertTrue(jftpClient.uploadBytes("{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8), "/data-jftp/bytes.json"));
+        try (RemoteContent remoteContent = jftpClient.downloadBytes("/data-jftp/bytes.json", 1024)) {
+            assertEquals("{\"key\":\"value\"}", new String(remoteContent.toByteArray(), StandardCharsets.UTF_8));
+        }
+        jftpClient.disconnect();
+    }
+
+    @Test
+    void downloadBytesLarge_success() {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("pass1word")
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+
+        // larger than the smallest size class of the buffer pool
+        byte[] content = new byte[200 * 1024];
+        new Random(11).nextBytes(content);
+        assertTrue(jftpClient.uploadBytes(content, "/data-jftp/large.bin"));
+        try (RemoteContent remoteContent = jftpClient.downloadBytes("/data-jftp/large.bin", 256 * 1024)) {
+            assertArrayEquals(content, remoteContent.toByteArray());
+        }
+        jftpClient.disconnect();
+    }
+
+    @Test
+    void appendFile_success() {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("pass1word")
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+
+        assertTrue(jftpClient.appendFile(new ByteArrayInputStream(" appended".getBytes(StandardCharsets.UTF_8)), "/data-jftp/foobar.txt"));
+        try (RemoteContent remoteContent = jftpClient.downloadBytes("/data-jftp/foobar.txt", 1024)) {
+            assertEquals("abcdef 1234567890 appended", new String(remoteContent.toByteArray(), StandardCharsets.UTF_8));
+        }
+        jftpClient.disconnect();
+    }
+
+    @Test
+    void encryptedUploadDownload_success() throws IOException {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("pass1word")
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+
+        byte[] plaintext = new byte[300 * 1024];
+        new Random(5).nextBytes(plaintext);
+        FileEncryption encryption = FileEncryption.aesGcm(new SecretKeySpec(new byte[16], "AES"));
+        assertTrue(jftpClient.uploadFile(new ByteArrayInputStream(plaintext), "/data-jftp/secret.bin", encryption));
+
+        try (RemoteContent remoteContent = jftpClient.downloadBytes("/data-jftp/secret.bin", 1024 * 1024)) {
+            assertEquals(encryption.encryptedLength(plaintext.length), remoteContent.length());
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertTrue(jftpClient.downloadFile("/data-jftp/secret.bin", outputStream, encryption));
+        assertArrayEquals(plaintext, outputStream.toByteArray());
+
+        // a file that isn't encrypted leaves no local file behind
+        File localFile = new File(System.getProperty("java.io.tmpdir"), UUID.randomUUID() + ".txt");
+        assertThrows(FTPException.class, () -> jftpClient.downloadFile("/data-jftp/foobar.txt", localFile.getAbsolutePath(), encryption));
+        assertFalse(localFile.exists());
+
+        // a missing file is refused like an unencrypted download
+        assertFalse(jftpClient.downloadFile("/data-jftp/missing.bin", new ByteArrayOutputStream(), encryption));
+        assertFalse(jftpClient.downloadFile("/data-jftp/missing.bin", localFile.getAbsolutePath(), encryption));
+        assertFalse(localFile.exists());
+        jftpClient.disconnect();
+    }
+
+    @Test
+    void uploadByteBuffer_success() {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("pass1word")
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+
+        ByteBuffer content = ByteBuffer.allocateDirect(32);
+        content.put("direct buffer".getBytes(StandardCharsets.UTF_8)).flip();
+        assertTrue(jftpClient.uploadBytes(content, "/data-jftp/buffer.txt"));
+        assertEquals(0, content.position());
+
+        byte[] buffer = new byte[64];
+        int length = jftpClient.downloadBytes("/data-jftp/buffer.txt", buffer);
+        assertEquals("direct buffer", new String(buffer, 0, length, StandardCharsets.UTF_8));
+        jftpClient.disconnect();
+    }
+
+    @Test
+    void downloadBytesExceedsMaxSize_failure() {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("pass1word")
+                .build();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+
+        assertThrows(FTPException.class, () -> jftpClient.downloadBytes("/data-jftp/foobar.txt", 5));
+        assertThrows(FTPException.class, () -> jftpClient.downloadBytes("/data-jftp/foobar.txt", new byte[5]));
+        // connection is still usable after an aborted transfer
+        assertFalse(jftpClient.listFiles("/data-jftp", null).isEmpty());
+        jftpClient.disconnect();
+    }
+
     @AfterEach
     public void teardown() {
         fakeFtpServer.stop();
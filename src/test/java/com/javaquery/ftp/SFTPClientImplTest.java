@@ -0,0 +1,290 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.RemoteFile;
+import com.jcraft.jsch.JSch;
+import org.apache.sshd.common.config.keys.KeyUtils;
+import org.apache.sshd.common.config.keys.PublicKeyEntry;
+import org.apache.sshd.common.util.buffer.ByteArrayBuffer;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the SFTP client against an in-process Apache MINA SSHD server, once per {@link SSHBackend}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class SFTPClientImplTest {
+
+    private SshServer sshServer;
+    private Path rootDirectory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        rootDirectory = Files.createTempDirectory("sftp-root");
+        Files.write(rootDirectory.resolve("foobar.txt"), "abcdef 1234567890".getBytes(StandardCharsets.UTF_8));
+        sshServer = startServer(rootDirectory);
+    }
+
+    static SshServer startServer(Path rootDirectory) throws IOException {
+        SshServer sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("localhost");
+        sshServer.setPort(0);
+        sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(Files.createTempFile("hostkey", ".ser")));
+        sshServer.setPasswordAuthenticator((username, password, session) -> "user".equals(username) && "password".equals(password));
+        sshServer.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+        sshServer.setFileSystemFactory(new VirtualFileSystemFactory(rootDirectory));
+        sshServer.start();
+        return sshServer;
+    }
+
+    private Credentials credentials(SSHBackend sshBackend) {
+        return Credentials.builder()
+                .host("localhost")
+                .port(sshServer.getPort())
+                .username("user")
+                .password("password")
+                .sshBackend(sshBackend)
+                .build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void connect_failure(SSHBackend sshBackend) throws InterruptedException {
+        Credentials credentials = credentials(sshBackend);
+        credentials.setPassword("invalidPassword");
+
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        assertThrows(FTPException.class, () -> sftpClient.connect(credentials));
+        // the failed login doesn't leave its connection open
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!sshServer.getActiveSessions().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(sshServer.getActiveSessions().isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void connectWithSSHContext_success(SSHBackend sshBackend) throws Exception {
+        Path keyDirectory = Files.createTempDirectory("ssh");
+        Path privateKey = keyDirectory.resolve("id_rsa");
+        com.jcraft.jsch.KeyPair keyPair = com.jcraft.jsch.KeyPair.genKeyPair(new JSch(), com.jcraft.jsch.KeyPair.RSA, 2048);
+        keyPair.writePrivateKey(privateKey.toString(), "secret".getBytes(StandardCharsets.UTF_8));
+        PublicKey clientKey = new ByteArrayBuffer(keyPair.getPublicKeyBlob()).getRawPublicKey();
+        sshServer.setPublickeyAuthenticator((username, key, session) -> "keyuser".equals(username) && KeyUtils.compareKeys(key, clientKey));
+
+        PublicKey hostKey = sshServer.getKeyPairProvider().loadKeys(null).iterator().next().getPublic();
+        Path knownHosts = keyDirectory.resolve("known_hosts");
+        Files.write(knownHosts, Collections.singletonList("[localhost]:" + sshServer.getPort() + " " + PublicKeyEntry.toString(hostKey)));
+
+        Credentials credentials = credentials(sshBackend);
+        credentials.setUsername("keyuser");
+        credentials.setPassword(null);
+        credentials.setSshContext(SSHContext.open(knownHosts).addIdentity(privateKey, "secret"));
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials);
+        assertEquals(17, sftpClient.stat("/foobar.txt").getSize());
+        sftpClient.disconnect();
+
+        // the identity alone doesn't make an unknown host trusted
+        Files.write(knownHosts, Collections.singletonList("[localhost]:" + sshServer.getPort() + " " + PublicKeyEntry.toString(clientKey)));
+        credentials.setSshContext(SSHContext.open(knownHosts).addIdentity(privateKey, "secret"));
+        assertThrows(FTPException.class, () -> new SFTPClientImpl().connect(credentials));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void listFiles_success(SSHBackend sshBackend) {
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials(sshBackend));
+        List<RemoteFile> files = sftpClient.listFiles("/", remoteFile -> remoteFile.isFile());
+        assertEquals(1, files.size());
+        assertEquals("foobar.txt", files.get(0).getName());
+        assertEquals(17, files.get(0).getSize());
+        sftpClient.disconnect();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void listFilesWithGlob_success(SSHBackend sshBackend) throws IOException {
+        Files.write(rootDirectory.resolve("data.csv"), "a,b".getBytes(StandardCharsets.UTF_8));
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials(sshBackend));
+        List<RemoteFile> files = sftpClient.listFiles("/", FileFilters.and(FileFilters.files(), FileFilters.nameGlob("*.csv")));
+        assertEquals(1, files.size());
+        assertEquals("/data.csv", files.get(0).getPath());
+        assertEquals(0, sftpClient.listFiles("/", FileFilters.nameGlob("*.xml")).size());
+        sftpClient.disconnect();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void stat_success(SSHBackend sshBackend) {
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials(sshBackend));
+        RemoteFile remoteFile = sftpClient.stat("/foobar.txt");
+        assertTrue(remoteFile.isFile());
+        assertEquals(17, remoteFile.getSize());
+        assertEquals("foobar.txt", remoteFile.getName());
+        assertNotNull(remoteFile.getTimestamp());
+        assertTrue(sftpClient.stat("/").isDirectory());
+        assertNull(sftpClient.stat("/missing.txt"));
+        sftpClient.disconnect();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void uploadDownloadDelete_success(SSHBackend sshBackend) throws IOException {
+        Path localFile = Files.createTempFile("upload", ".json");
+        Files.write(localFile, "{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8));
+        Path downloadFile = localFile.resolveSibling(localFile.getFileName() + ".download");
+
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials(sshBackend));
+        assertTrue(sftpClient.uploadFile(localFile.toString(), "/newfile.json"));
+        assertTrue(sftpClient.downloadFile("/newfile.json", downloadFile.toString()));
+        assertEquals("{\"key\":\"value\"}", new String(Files.readAllBytes(downloadFile), StandardCharsets.UTF_8));
+        assertTrue(sftpClient.deleteFile("/newfile.json"));
+        assertFalse(Files.exists(rootDirectory.resolve("newfile.json")));
+        sftpClient.disconnect();
+    }
+
+    @Test
+    void downloadWithReadAhead_success() throws IOException {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(13).nextBytes(content);
+        Files.write(rootDirectory.resolve("large.bin"), content);
+
+        Credentials credentials = credentials(SSHBackend.MINA_SSHD);
+        credentials.setSftpReadAheadSize(1024 * 1024);
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertTrue(sftpClient.downloadFile("/large.bin", outputStream));
+        assertArrayEquals(content, outputStream.toByteArray());
+        sftpClient.disconnect();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void downloadIncremental_success(SSHBackend sshBackend) throws IOException {
+        Path remoteFile = rootDirectory.resolve("app.log");
+        Path localFile = Files.createTempDirectory("tail").resolve("app.log");
+        Files.write(remoteFile, "line 1\n".getBytes(StandardCharsets.UTF_8));
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.SFTP);
+        jftpClient.connect(credentials(sshBackend));
+        IncrementalResult result = jftpClient.downloadIncremental("/app.log", localFile.toString());
+        assertEquals(7, result.getLength());
+        assertFalse(result.isRestarted());
+        assertEquals(0, jftpClient.downloadIncremental("/app.log", localFile.toString()).getLength());
+
+        Files.write(remoteFile, "line 2\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        result = jftpClient.downloadIncremental("/app.log", localFile.toString());
+        assertEquals(7, result.getOffset());
+        assertEquals(7, result.getLength());
+        assertEquals("line 1\nline 2\n", new String(Files.readAllBytes(localFile), StandardCharsets.UTF_8));
+
+        // rotated and already longer than the local copy
+        Files.write(remoteFile, "rotated line 1\nline 2\n".getBytes(StandardCharsets.UTF_8));
+        result = jftpClient.downloadIncremental("/app.log", localFile.toString());
+        assertTrue(result.isRestarted());
+        assertEquals("rotated line 1\nline 2\n", new String(Files.readAllBytes(localFile), StandardCharsets.UTF_8));
+
+        Files.write(remoteFile, "new\n".getBytes(StandardCharsets.UTF_8));
+        assertTrue(jftpClient.downloadIncremental("/app.log", localFile.toString()).isRestarted());
+        assertEquals("new\n", new String(Files.readAllBytes(localFile), StandardCharsets.UTF_8));
+        assertNull(jftpClient.downloadIncremental("/missing.log", localFile.toString()));
+        jftpClient.disconnect();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void uploadIncremental_success(SSHBackend sshBackend) throws IOException {
+        Path remoteFile = rootDirectory.resolve("app.log");
+        Path localFile = Files.createTempFile("app", ".log");
+        Files.write(localFile, "line 1\n".getBytes(StandardCharsets.UTF_8));
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.SFTP);
+        jftpClient.connect(credentials(sshBackend));
+        assertEquals(7, jftpClient.uploadIncremental(localFile.toString(), "/app.log").getLength());
+        assertEquals(0, jftpClient.uploadIncremental(localFile.toString(), "/app.log").getLength());
+
+        Files.write(localFile, "line 2\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        IncrementalResult result = jftpClient.uploadIncremental(localFile.toString(), "/app.log");
+        assertEquals(7, result.getOffset());
+        assertEquals(7, result.getLength());
+        assertFalse(result.isRestarted());
+        assertEquals("line 1\nline 2\n", new String(Files.readAllBytes(remoteFile), StandardCharsets.UTF_8));
+
+        Files.write(localFile, "rotated line 1\nline 2\n".getBytes(StandardCharsets.UTF_8));
+        assertTrue(jftpClient.uploadIncremental(localFile.toString(), "/app.log").isRestarted());
+        assertEquals("rotated line 1\nline 2\n", new String(Files.readAllBytes(remoteFile), StandardCharsets.UTF_8));
+        jftpClient.disconnect();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void appendLargeFile_success(SSHBackend sshBackend) throws IOException {
+        Path remoteFile = rootDirectory.resolve("large.bin");
+        Files.write(remoteFile, "head".getBytes(StandardCharsets.UTF_8));
+        // spans several writes
+        byte[] appended = new byte[100_000];
+        new Random(1).nextBytes(appended);
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.SFTP);
+        jftpClient.connect(credentials(sshBackend));
+        assertTrue(jftpClient.appendFile(new ByteArrayInputStream(appended), "/large.bin"));
+        jftpClient.disconnect();
+
+        byte[] content = Files.readAllBytes(remoteFile);
+        assertEquals(4 + appended.length, content.length);
+        assertArrayEquals(appended, Arrays.copyOfRange(content, 4, content.length));
+    }
+
+    @Test
+    void sharedSessionMina_failure() {
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        Credentials credentials = credentials(SSHBackend.MINA_SSHD).toBuilder().sharedSession(true).build();
+        FTPException exception = assertThrows(FTPException.class, () -> sftpClient.connect(credentials));
+        assertEquals("sharedSession is only supported with SSHBackend.JSCH", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void deleteNonExistingFile_failure(SSHBackend sshBackend) {
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials(sshBackend));
+        assertThrows(FTPException.class, () -> sftpClient.deleteFile("/nonexistingfile.txt"));
+        sftpClient.disconnect();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        sshServer.stop(true);
+    }
+}
@@ -0,0 +1,120 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import org.apache.sshd.server.SshServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class SFTPSessionPoolTest {
+
+    private SshServer sshServer;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Path rootDirectory = Files.createTempDirectory("sftp-pool");
+        Files.write(rootDirectory.resolve("foobar.txt"), "abcdef 1234567890".getBytes(StandardCharsets.UTF_8));
+        sshServer = SFTPClientImplTest.startServer(rootDirectory);
+    }
+
+    private Credentials credentials(String password) {
+        return Credentials.builder()
+                .host("localhost")
+                .port(sshServer.getPort())
+                .username("user")
+                .password(password)
+                .sharedSession(true)
+                .maxChannelsPerSession(2)
+                .connectTimeout(5000)
+                .build();
+    }
+
+    @Test
+    void leaseConcurrently_success() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < 5; j++) {
+                        SFTPClientImpl sftpClient = new SFTPClientImpl();
+                        sftpClient.connect(credentials("password"));
+                        try {
+                            assertEquals(17, sftpClient.stat("/foobar.txt").getSize());
+                        } finally {
+                            sftpClient.disconnect();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        // six clients, two channels, one login
+        assertEquals(1, sshServer.getActiveSessions().size());
+    }
+
+    @Test
+    void leaseExhausted_failure() {
+        Credentials credentials = credentials("password");
+        credentials.setConnectTimeout(300);
+        SFTPClientImpl first = new SFTPClientImpl();
+        SFTPClientImpl second = new SFTPClientImpl();
+        first.connect(credentials);
+        second.connect(credentials);
+
+        assertThrows(FTPException.class, () -> new SFTPClientImpl().connect(credentials));
+
+        // a released channel is leased again
+        first.disconnect();
+        SFTPClientImpl third = new SFTPClientImpl();
+        third.connect(credentials);
+        assertEquals(17, third.stat("/foobar.txt").getSize());
+        third.disconnect();
+        second.disconnect();
+    }
+
+    @Test
+    void wrongPasswordNotShared_failure() {
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials("password"));
+
+        // the authenticated session must not be handed to a different password
+        assertThrows(FTPException.class, () -> new SFTPClientImpl().connect(credentials("invalidPassword")));
+
+        // other session settings get a session of their own
+        Credentials credentials = credentials("password");
+        credentials.setMaxChannelsPerSession(3);
+        SFTPClientImpl otherClient = new SFTPClientImpl();
+        otherClient.connect(credentials);
+        assertEquals(2, sshServer.getActiveSessions().size());
+        otherClient.disconnect();
+        sftpClient.disconnect();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        SFTPSessionPool.closeAll();
+        sshServer.stop(true);
+    }
+}
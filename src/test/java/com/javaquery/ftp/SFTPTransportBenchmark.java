@@ -0,0 +1,86 @@
+package com.javaquery.ftp;
+
+import org.apache.sshd.server.SshServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Same upload/download workload for every {@link SSHBackend} against an in-process MINA SSHD server.
+ * Excluded from {@code gradle test}, run it with {@code gradle benchmark}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Tag("benchmark")
+public class SFTPTransportBenchmark {
+
+    private static final int FILE_SIZE = 32 * 1024 * 1024;
+    private static final int ROUNDS = 5;
+
+    private SshServer sshServer;
+    private Path localFile;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        sshServer = SFTPClientImplTest.startServer(Files.createTempDirectory("sftp-benchmark"));
+        byte[] content = new byte[FILE_SIZE];
+        new Random(42).nextBytes(content);
+        localFile = Files.createTempFile("benchmark", ".bin");
+        Files.write(localFile, content);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SSHBackend.class)
+    void uploadDownload(SSHBackend sshBackend) throws IOException {
+        Credentials credentials = Credentials.builder()
+                .host("localhost")
+                .port(sshServer.getPort())
+                .username("user")
+                .password("password")
+                .sshBackend(sshBackend)
+                .sftpReadAheadSize(8 * 1024 * 1024)
+                .sftpWriteBehindSize(256 * 1024)
+                .build();
+
+        SFTPClientImpl sftpClient = new SFTPClientImpl();
+        sftpClient.connect(credentials);
+        long uploadNanos = 0;
+        long downloadNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            Path downloadFile = Files.createTempFile("benchmark", ".download");
+            Files.delete(downloadFile);
+
+            long start = System.nanoTime();
+            sftpClient.uploadFile(localFile.toString(), "/benchmark.bin");
+            uploadNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sftpClient.downloadFile("/benchmark.bin", downloadFile.toString());
+            downloadNanos += System.nanoTime() - start;
+
+            assertEquals(FILE_SIZE, Files.size(downloadFile));
+            Files.delete(downloadFile);
+        }
+        sftpClient.disconnect();
+
+        double megabytes = (double) FILE_SIZE * ROUNDS / (1024 * 1024);
+        System.out.printf("%s upload: %.1f MB/s, download: %.1f MB/s%n", sshBackend,
+                megabytes / (uploadNanos / 1e9), megabytes / (downloadNanos / 1e9));
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        sshServer.stop(true);
+        Files.deleteIfExists(localFile);
+    }
+}
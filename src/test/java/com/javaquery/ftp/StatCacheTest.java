@@ -0,0 +1,142 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.io.RemoteFile;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class StatCacheTest {
+
+    private static final String SERVER = "user@localhost:21";
+
+    @Test
+    void expiry_success() throws InterruptedException {
+        StatCache statCache = new StatCache(100);
+        put(statCache, "/data/a.csv", file("a.csv", 1));
+        put(statCache, "/data/missing.csv", null);
+        assertEquals(1, statCache.get(SERVER, "/data/a.csv").getRemoteFile().getSize());
+        assertNull(statCache.get(SERVER, "/data/missing.csv").getRemoteFile());
+        assertNull(statCache.get("other@localhost:21", "/data/a.csv"));
+        assertEquals(2, statCache.getHits());
+        assertEquals(1, statCache.getMisses());
+
+        Thread.sleep(150);
+        assertNull(statCache.get(SERVER, "/data/a.csv"));
+        // an expired result is replaced by the next lookup
+        put(statCache, "/data/a.csv", file("a.csv", 2));
+        assertEquals(2, statCache.get(SERVER, "/data/a.csv").getRemoteFile().getSize());
+
+        StatCache disabled = new StatCache(0);
+        put(disabled, "/data/a.csv", file("a.csv", 1));
+        assertNull(disabled.get(SERVER, "/data/a.csv"));
+    }
+
+    @Test
+    void maxEntries_success() throws InterruptedException {
+        StatCache statCache = new StatCache(100, 3);
+        for (int i = 0; i < 5; i++) {
+            put(statCache, "/data/file-" + i + ".csv", file("file-" + i + ".csv", i));
+        }
+        assertEquals(3, statCache.size());
+        assertNull(statCache.get(SERVER, "/data/file-3.csv"));
+
+        // room again once the results expired
+        Thread.sleep(150);
+        put(statCache, "/data/file-3.csv", file("file-3.csv", 3));
+        assertEquals(1, statCache.size());
+        assertNotNull(statCache.get(SERVER, "/data/file-3.csv"));
+    }
+
+    @Test
+    void invalidate_success() {
+        StatCache statCache = new StatCache(60000);
+        put(statCache, "/data/a.csv", file("a.csv", 1));
+        statCache.invalidate(SERVER, "/data/a.csv");
+        assertNull(statCache.get(SERVER, "/data/a.csv"));
+
+        // a lookup that raced with a change of its path isn't stored
+        long stamp = statCache.stamp(SERVER, "/data/a.csv");
+        statCache.invalidate(SERVER, "/data/a.csv");
+        statCache.put(SERVER, "/data/a.csv", file("a.csv", 1), stamp);
+        assertNull(statCache.get(SERVER, "/data/a.csv"));
+
+        // changes of other paths don't discard it
+        stamp = statCache.stamp(SERVER, "/data/b.csv");
+        statCache.invalidate(SERVER, "/data/c.csv");
+        statCache.invalidateTree(SERVER, "/other");
+        statCache.put(SERVER, "/data/b.csv", file("b.csv", 2), stamp);
+        assertNotNull(statCache.get(SERVER, "/data/b.csv"));
+
+        // a directory renamed while looking up a path below it
+        stamp = statCache.stamp(SERVER, "/data/sub/d.csv");
+        put(statCache, "/data/sub/e.csv", file("e.csv", 3));
+        statCache.invalidateTree(SERVER, "/data/sub/");
+        statCache.put(SERVER, "/data/sub/d.csv", file("d.csv", 4), stamp);
+        assertNull(statCache.get(SERVER, "/data/sub/d.csv"));
+        assertNull(statCache.get(SERVER, "/data/sub/e.csv"));
+        assertNotNull(statCache.get(SERVER, "/data/b.csv"));
+        // looked up after the rename
+        put(statCache, "/data/sub/d.csv", file("d.csv", 4));
+        assertNotNull(statCache.get(SERVER, "/data/sub/d.csv"));
+
+        stamp = statCache.stamp(SERVER, "/data/b.csv");
+        statCache.clear();
+        statCache.put(SERVER, "/data/b.csv", file("b.csv", 2), stamp);
+        assertNull(statCache.get(SERVER, "/data/b.csv"));
+    }
+
+    @Test
+    void evictedTombstone_success() {
+        StatCache statCache = new StatCache(60000, 2);
+        long stamp = statCache.stamp(SERVER, "/data/a.csv");
+        statCache.invalidate(SERVER, "/data/a.csv");
+        put(statCache, "/data/b.csv", file("b.csv", 2));
+        // full, evicting the tombstone of a.csv must not let the stale lookup in
+        statCache.put(SERVER, "/data/a.csv", file("a.csv", 1), stamp);
+        assertNull(statCache.get(SERVER, "/data/a.csv"));
+        put(statCache, "/data/a.csv", file("a.csv", 1));
+        assertNotNull(statCache.get(SERVER, "/data/a.csv"));
+    }
+
+    @Test
+    void invalidateTree_success() {
+        StatCache statCache = new StatCache(60000);
+        put(statCache, "/data/sub", directory("sub"));
+        put(statCache, "/data/sub/a.csv", file("a.csv", 1));
+        put(statCache, "/data/sub/deep/b.csv", file("b.csv", 2));
+        put(statCache, "/data/sub-old/c.csv", file("c.csv", 3));
+        put(statCache, "/data/sub.csv", file("sub.csv", 4));
+        statCache.invalidateTree(SERVER, "/data/sub");
+        assertNull(statCache.get(SERVER, "/data/sub"));
+        assertNull(statCache.get(SERVER, "/data/sub/a.csv"));
+        assertNull(statCache.get(SERVER, "/data/sub/deep/b.csv"));
+        assertNotNull(statCache.get(SERVER, "/data/sub-old/c.csv"));
+        assertNotNull(statCache.get(SERVER, "/data/sub.csv"));
+        // the directory mark and the two remaining results
+        assertEquals(3, statCache.size());
+
+        // a path cached as a file leaves its tombstone only
+        statCache.invalidateTree(SERVER, "/data/sub.csv");
+        assertNull(statCache.get(SERVER, "/data/sub.csv"));
+        assertEquals(3, statCache.size());
+        put(statCache, "/data/sub.csv", file("sub.csv", 4));
+        assertNotNull(statCache.get(SERVER, "/data/sub.csv"));
+        assertEquals(3, statCache.size());
+    }
+
+    private static void put(StatCache statCache, String remoteFilePath, RemoteFile remoteFile) {
+        statCache.put(SERVER, remoteFilePath, remoteFile, statCache.stamp(SERVER, remoteFilePath));
+    }
+
+    private static RemoteFile file(String name, long size) {
+        return RemoteFile.builder().name(name).isFile(true).size(size).build();
+    }
+
+    private static RemoteFile directory(String name) {
+        return RemoteFile.builder().name(name).isDirectory(true).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.javaquery.ftp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class UploadOutputStreamTest {
+
+    private FakeFtpServer fakeFtpServer;
+    private FileSystem fileSystem;
+    private JFTPClient jftpClient;
+
+    @BeforeEach
+    public void setup() {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+        jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jftpClient.disconnect();
+        fakeFtpServer.stop();
+    }
+
+    @Test
+    void upload_success() throws IOException {
+        byte[] content = new byte[300 * 1024];
+        new Random(3).nextBytes(content);
+        // much smaller than the content, the producer has to wait for the upload
+        try (UploadOutputStream outputStream = jftpClient.openUploadStream("/data/export.bin", 16 * 1024)) {
+            for (int offset = 0; offset < content.length; offset += 1000) {
+                outputStream.write(content, offset, Math.min(1000, content.length - offset));
+            }
+        }
+        assertArrayEquals(content, read("/data/export.bin"));
+
+        // the client is free again
+        assertEquals(1, jftpClient.listFiles("/data", null).size());
+    }
+
+    @Test
+    void abort_failure() throws IOException {
+        UploadOutputStream outputStream = jftpClient.openUploadStream("/data/export.bin");
+        outputStream.write(new byte[]{1, 2, 3});
+        outputStream.abort(new IllegalStateException("producer failed"));
+        assertThrows(IOException.class, () -> outputStream.write(4));
+        // close after abort is a no-op
+        outputStream.close();
+    }
+
+    @Test
+    void uploadFailureReachesProducer_failure() throws IOException {
+        UploadOutputStream outputStream = jftpClient.openUploadStream("/missing/export.bin", 4096);
+        byte[] chunk = new byte[1024];
+        IOException exception = assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                outputStream.write(chunk);
+            }
+            outputStream.close();
+        });
+        assertEquals("Upload of /missing/export.bin was not confirmed", exception.getMessage());
+    }
+
+    private byte[] read(String remoteFilePath) throws IOException {
+        FileEntry fileEntry = (FileEntry) fileSystem.getEntry(remoteFilePath);
+        try (InputStream inputStream = fileEntry.createInputStream()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+}
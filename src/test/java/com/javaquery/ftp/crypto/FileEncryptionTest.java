@@ -0,0 +1,84 @@
+package com.javaquery.ftp.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FileEncryptionTest {
+
+    private static final int CHUNK_SIZE = 32;
+
+    private static FileEncryption encryption(int seed) {
+        byte[] key = new byte[32];
+        new Random(seed).nextBytes(key);
+        return FileEncryption.aesGcm(new SecretKeySpec(key, "AES"), CHUNK_SIZE);
+    }
+
+    private static byte[] encrypt(FileEncryption encryption, byte[] plaintext) throws IOException {
+        try (InputStream inputStream = encryption.encrypt(new ByteArrayInputStream(plaintext))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            // odd reads, so chunks are split across calls
+            byte[] buffer = new byte[7];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    private static byte[] decrypt(FileEncryption encryption, byte[] encrypted) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DecryptingOutputStream decryptingOutputStream = encryption.decrypt(outputStream)) {
+            for (int offset = 0; offset < encrypted.length; offset += 5) {
+                decryptingOutputStream.write(encrypted, offset, Math.min(5, encrypted.length - offset));
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    void roundTrip_success() throws IOException {
+        FileEncryption encryption = encryption(1);
+        Random random = new Random(3);
+        for (int length : new int[]{0, 1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, 10 * CHUNK_SIZE, 10 * CHUNK_SIZE + 3}) {
+            byte[] plaintext = new byte[length];
+            random.nextBytes(plaintext);
+            byte[] encrypted = encrypt(encryption, plaintext);
+            assertEquals(encryption.encryptedLength(length), encrypted.length);
+            assertArrayEquals(plaintext, decrypt(encryption, encrypted));
+        }
+        // salt and nonce prefix are random, so the same file encrypts differently
+        assertFalse(Arrays.equals(encrypt(encryption, new byte[10]), encrypt(encryption, new byte[10])));
+    }
+
+    @Test
+    void decryptModified_failure() throws IOException {
+        FileEncryption encryption = encryption(1);
+        byte[] encrypted = encrypt(encryption, new byte[3 * CHUNK_SIZE + 1]);
+
+        byte[] modified = encrypted.clone();
+        modified[modified.length / 2] ^= 1;
+        assertThrows(IOException.class, () -> decrypt(encryption, modified));
+
+        // dropping whole chunks at the end must not go unnoticed
+        byte[] truncated = Arrays.copyOf(encrypted, encrypted.length - (CHUNK_SIZE + 1 + FileEncryption.TAG_LENGTH));
+        assertThrows(IOException.class, () -> decrypt(encryption, truncated));
+        assertThrows(IOException.class, () -> decrypt(encryption, Arrays.copyOf(encrypted, 10)));
+
+        assertThrows(IOException.class, () -> decrypt(encryption(2), encrypted));
+        assertThrows(IOException.class, () -> decrypt(encryption, "plain text, not encrypted at all".getBytes()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.javaquery.ftp.index;
+
+import com.javaquery.ftp.Credentials;
+import com.javaquery.ftp.FTPType;
+import com.javaquery.ftp.JFTPClient;
+import com.javaquery.ftp.io.RemoteFileList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class RemoteIndexTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("remote-index");
+    }
+
+    @Test
+    void updateAndReopen_success() throws IOException {
+        Path file = directory.resolve("host.idx");
+        try (RemoteIndex remoteIndex = RemoteIndex.open(file)) {
+            RemoteFileList listing = new RemoteFileList("/data");
+            listing.addEntry("a.csv", true, false, 10, 1000);
+            listing.addEntry("b.csv", true, false, 20, 2000);
+            listing.addEntry("sub", false, true, 0, 3000);
+            IndexChanges changes = remoteIndex.update(listing);
+            assertEquals(Arrays.asList("/data/a.csv", "/data/b.csv", "/data/sub"), changes.getCreated());
+            assertTrue(remoteIndex.putChecksum("/data/a.csv", new byte[]{1, 2, 3}));
+            assertTrue(remoteIndex.update(listing).isEmpty());
+        }
+
+        try (RemoteIndex remoteIndex = RemoteIndex.open(file)) {
+            assertEquals(3, remoteIndex.size());
+            assertTrue(remoteIndex.isUnchanged("/data/b.csv", 20, 2000));
+            assertArrayEquals(new byte[]{1, 2, 3}, remoteIndex.get("/data/a.csv").getChecksum());
+            assertTrue(remoteIndex.get("/data/sub").isDirectory());
+
+            RemoteFileList listing = new RemoteFileList("/data/");
+            listing.addEntry("a.csv", true, false, 11, 1500);
+            listing.addEntry("c.csv", true, false, 30, 3000);
+            listing.addEntry("sub", false, true, 0, 3000);
+            IndexChanges changes = remoteIndex.update(listing);
+            assertEquals(Collections.singletonList("/data/c.csv"), changes.getCreated());
+            assertEquals(Collections.singletonList("/data/a.csv"), changes.getModified());
+            assertEquals(Collections.singletonList("/data/b.csv"), changes.getDeleted());
+            // the checksum belonged to the old content
+            assertNull(remoteIndex.get("/data/a.csv").getChecksum());
+            assertNull(remoteIndex.get("/data/b.csv"));
+        }
+
+        try (RemoteIndex remoteIndex = RemoteIndex.open(file)) {
+            assertEquals(3, remoteIndex.size());
+            assertEquals(11, remoteIndex.get("/data/a.csv").getSize());
+        }
+    }
+
+    @Test
+    void removeDirectoryAndCompact_success() throws IOException {
+        Path file;
+        try (RemoteIndex remoteIndex = RemoteIndex.open(directory, Credentials.builder().host("ftp.example.com").port(21).username("user").build())) {
+            file = directory.resolve("user@ftp.example.com_21.idx");
+            assertTrue(Files.exists(file));
+            remoteIndex.put("/data", true, 0, 1);
+            remoteIndex.put("/data/a.csv", false, 1, 1);
+            remoteIndex.put("/data/sub/b.csv", false, 2, 2);
+            remoteIndex.put("/other.csv", false, 3, 3);
+            assertTrue(remoteIndex.putChecksum("/other.csv", new byte[64]));
+
+            remoteIndex.remove("/data");
+            assertEquals(1, remoteIndex.size());
+            remoteIndex.compact();
+            assertEquals(1, remoteIndex.size());
+            assertEquals(64, remoteIndex.get("/other.csv").getChecksum().length);
+        }
+        try (RemoteIndex remoteIndex = RemoteIndex.open(file)) {
+            assertEquals(1, remoteIndex.size());
+            assertTrue(remoteIndex.isUnchanged("/other.csv", 3, 3));
+        }
+    }
+
+    @Test
+    void manyEntries_success() throws IOException {
+        Path file = directory.resolve("many.idx");
+        try (RemoteIndex remoteIndex = RemoteIndex.open(file)) {
+            for (int i = 0; i < 50_000; i++) {
+                remoteIndex.put("/data/dir" + (i % 100) + "/file-" + i + ".csv", false, i, i);
+            }
+        }
+        try (RemoteIndex remoteIndex = RemoteIndex.open(file)) {
+            assertEquals(50_000, remoteIndex.size());
+            assertTrue(remoteIndex.isUnchanged("/data/dir99/file-49999.csv", 49_999, 49_999));
+        }
+    }
+
+    @Test
+    void scan_success() throws IOException {
+        FakeFtpServer fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new DirectoryEntry("/data/sub"));
+        fileSystem.add(new FileEntry("/data/a.csv", "a"));
+        fileSystem.add(new FileEntry("/data/sub/b.csv", "bb"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build());
+        try (RemoteIndex remoteIndex = RemoteIndex.open(directory.resolve("scan.idx"))) {
+            IndexChanges changes = remoteIndex.scan(jftpClient, "/data");
+            assertEquals(Arrays.asList("/data/a.csv", "/data/sub", "/data/sub/b.csv"), changes.getCreated());
+            assertTrue(remoteIndex.scan(jftpClient, "/data").isEmpty());
+
+            fileSystem.add(new FileEntry("/data/c.csv", "ccc"));
+            changes = remoteIndex.scan(jftpClient, "/data");
+            assertEquals(Collections.singletonList("/data/c.csv"), changes.getCreated());
+
+            // rewritten in place and added two levels down, /data itself is unchanged
+            long subLastModified = remoteIndex.get("/data/sub").getLastModified();
+            fileSystem.delete("/data/sub/b.csv");
+            fileSystem.add(new FileEntry("/data/sub/b.csv", "bbbb"));
+            fileSystem.add(new DirectoryEntry("/data/sub/deep"));
+            fileSystem.add(new FileEntry("/data/sub/deep/d.csv", "d"));
+            fileSystem.getEntry("/data/sub").setLastModified(new Date(subLastModified));
+            assertTrue(remoteIndex.scan(jftpClient, "/data", true).isEmpty());
+            changes = remoteIndex.scan(jftpClient, "/data");
+            assertEquals(Arrays.asList("/data/sub/deep", "/data/sub/deep/d.csv"), changes.getCreated());
+            assertEquals(Collections.singletonList("/data/sub/b.csv"), changes.getModified());
+            assertEquals(4, remoteIndex.get("/data/sub/b.csv").getSize());
+        } finally {
+            jftpClient.disconnect();
+            fakeFtpServer.stop();
+        }
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,80 @@
+package com.javaquery.ftp.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class TopRemoteFilesTest {
+
+    @Test
+    void matchesFullSort_success() {
+        Random random = new Random(7);
+        List<RemoteFile> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // few distinct sizes and timestamps, so ties are broken by name
+            entries.add(RemoteFile.builder()
+                    .name("file-" + (i * 7919 % 5000))
+                    .isFile(true)
+                    .size(random.nextInt(50))
+                    .timestamp(random.nextInt(10) == 0 ? null : RemoteFileList.toCalendar(random.nextInt(100) * 1000L))
+                    .build());
+        }
+
+        for (RemoteFileOrder order : RemoteFileOrder.values()) {
+            for (int limit : new int[]{0, 1, 7, 100, 10000}) {
+                TopRemoteFiles topRemoteFiles = new TopRemoteFiles(order, limit);
+                for (RemoteFile entry : entries) {
+                    topRemoteFiles.addEntry(entry.getName(), true, false, entry.getSize(), lastModified(entry));
+                }
+                RemoteFileList top = topRemoteFiles.toRemoteFileList("/data");
+
+                List<RemoteFile> expected = new ArrayList<>(entries);
+                expected.sort(comparator(order));
+                expected = expected.subList(0, Math.min(limit, expected.size()));
+                assertEquals(expected.size(), top.size(), order + " " + limit);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getName(), top.getName(i), order + " " + limit + " #" + i);
+                    assertEquals(expected.get(i).getSize(), top.getSize(i));
+                    assertEquals(lastModified(expected.get(i)), top.getLastModified(i));
+                    assertEquals("/data/" + expected.get(i).getName(), top.getPath(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void negativeLimit_failure() {
+        assertThrows(IllegalArgumentException.class, () -> new TopRemoteFiles(RemoteFileOrder.NEWEST, -1));
+    }
+
+    private static long lastModified(RemoteFile entry) {
+        return entry.getTimestamp() == null ? RemoteFileList.UNKNOWN_TIMESTAMP : entry.getTimestamp().getTimeInMillis();
+    }
+
+    private static Comparator<RemoteFile> comparator(RemoteFileOrder order) {
+        Comparator<RemoteFile> byName = Comparator.comparing(RemoteFile::getName);
+        switch (order) {
+            case NEWEST:
+                return Comparator.comparingLong(TopRemoteFilesTest::lastModified).reversed().thenComparing(byName);
+            case OLDEST:
+                return Comparator.comparingLong(TopRemoteFilesTest::lastModified).thenComparing(byName);
+            case LARGEST:
+                return Comparator.comparingLong(RemoteFile::getSize).reversed().thenComparing(byName);
+            case SMALLEST:
+                return Comparator.comparingLong(RemoteFile::getSize).thenComparing(byName);
+            case NAME_DESCENDING:
+                return byName.reversed();
+            default:
+                return byName;
+        }
+    }
+}
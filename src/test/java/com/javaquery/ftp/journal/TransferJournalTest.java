@@ -0,0 +1,148 @@
+package com.javaquery.ftp.journal;
+
+import com.javaquery.ftp.Credentials;
+import com.javaquery.ftp.FTPType;
+import com.javaquery.ftp.JFTPClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class TransferJournalTest {
+
+    private Path directory;
+    private FakeFtpServer fakeFtpServer;
+    private FileSystem fileSystem;
+    private JFTPClient jftpClient;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("transfer-journal");
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build());
+    }
+
+    @Test
+    void recordAndReopen_success() throws IOException {
+        Path file = directory.resolve("batch.journal");
+        try (TransferJournal journal = TransferJournal.open(file)) {
+            JournalEntry a = journal.plan(TransferDirection.UPLOAD, "/local/a.csv", "/data/a.csv");
+            JournalEntry b = journal.plan(TransferDirection.UPLOAD, "/local/b.csv", "/data/b.csv");
+            assertSame(a, journal.plan(TransferDirection.UPLOAD, "/local/a.csv", "/data/a.csv"));
+            journal.record(a, TransferState.IN_PROGRESS, 0);
+            journal.record(a, TransferState.COMPLETED, 42);
+            journal.record(b, TransferState.IN_PROGRESS, 1024);
+        }
+        // a record torn by a crash
+        Files.write(file, new byte[]{0, 0, 0, 13, 1, 2}, StandardOpenOption.APPEND);
+
+        try (TransferJournal journal = TransferJournal.open(file, 0)) {
+            assertEquals(2, journal.size());
+            JournalEntry a = journal.get(TransferDirection.UPLOAD, "/local/a.csv", "/data/a.csv");
+            assertEquals(TransferState.COMPLETED, a.getState());
+            assertEquals(42, a.getOffset());
+            assertEquals(1, journal.getUnfinished().size());
+            JournalEntry b = journal.getUnfinished().get(0);
+            assertEquals("/data/b.csv", b.getTargetPath());
+            assertEquals(TransferState.IN_PROGRESS, b.getState());
+            assertEquals(1024, b.getOffset());
+            assertNull(journal.get(TransferDirection.DOWNLOAD, "/local/a.csv", "/data/a.csv"));
+            journal.record(b, TransferState.COMPLETED, 2048);
+        }
+
+        try (TransferJournal journal = TransferJournal.open(file)) {
+            assertTrue(journal.getUnfinished().isEmpty());
+        }
+    }
+
+    @Test
+    void uploadResumesUnfinishedFiles_success() throws IOException {
+        Path a = Files.write(directory.resolve("a.csv"), "a".getBytes(StandardCharsets.UTF_8));
+        Path b = Files.write(directory.resolve("b.csv"), "bb".getBytes(StandardCharsets.UTF_8));
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(a.toString(), "/data/a.csv");
+        files.put(b.toString(), "/data/b.csv");
+        files.put(directory.resolve("missing.csv").toString(), "/data/missing.csv");
+
+        Path file = directory.resolve("upload.journal");
+        try (TransferJournal journal = TransferJournal.open(file)) {
+            // the previous run died after a.csv
+            JournalEntry entry = journal.plan(TransferDirection.UPLOAD, a.toString(), "/data/a.csv");
+            journal.record(entry, TransferState.COMPLETED, 1);
+
+            Map<String, Boolean> result = jftpClient.uploadFiles(files, journal);
+            assertEquals(Arrays.asList(true, true, false), Arrays.asList(result.values().toArray()));
+            assertFalse(fileSystem.exists("/data/a.csv"));
+            assertTrue(fileSystem.exists("/data/b.csv"));
+            assertEquals(TransferState.FAILED, journal.getUnfinished().get(0).getState());
+        }
+
+        Files.write(directory.resolve("missing.csv"), "ccc".getBytes(StandardCharsets.UTF_8));
+        try (TransferJournal journal = TransferJournal.open(file)) {
+            Map<String, Boolean> result = jftpClient.uploadFiles(files, journal);
+            assertEquals(Arrays.asList(true, true, true), Arrays.asList(result.values().toArray()));
+            assertTrue(fileSystem.exists("/data/missing.csv"));
+            assertEquals(3, journal.get(TransferDirection.UPLOAD, files.keySet().toArray()[2].toString(), "/data/missing.csv").getOffset());
+            assertTrue(journal.getUnfinished().isEmpty());
+        }
+    }
+
+    @Test
+    void download_success() throws IOException {
+        fileSystem.add(new FileEntry("/data/a.csv", "a,b,c"));
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("/data/a.csv", directory.resolve("a.csv").toString());
+
+        try (TransferJournal journal = TransferJournal.open(directory.resolve("download.journal"))) {
+            assertTrue(jftpClient.downloadFiles(files, journal).get("/data/a.csv"));
+            assertEquals("a,b,c", new String(Files.readAllBytes(directory.resolve("a.csv")), StandardCharsets.UTF_8));
+            assertEquals(5, journal.get(TransferDirection.DOWNLOAD, "/data/a.csv", directory.resolve("a.csv").toString()).getOffset());
+        }
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        jftpClient.disconnect();
+        fakeFtpServer.stop();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
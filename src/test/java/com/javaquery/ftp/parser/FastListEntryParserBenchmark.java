@@ -0,0 +1,61 @@
+package com.javaquery.ftp.parser;
+
+import com.javaquery.ftp.io.RemoteFileList;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.apache.commons.net.ftp.parser.DefaultFTPFileEntryParserFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parses the same synthetic listing with commons-net and with {@link FastListEntryParser}.
+ * Excluded from {@code gradle test}, run it with {@code gradle benchmark}.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+@Tag("benchmark")
+public class FastListEntryParserBenchmark {
+
+    private static final int ENTRIES = 200_000;
+    private static final int ROUNDS = 5;
+    private static final String[] MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UNIX", "WINDOWS"})
+    void parseListing(String systemType) {
+        String[] lines = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            lines[i] = systemType.equals("UNIX")
+                    ? String.format("-rw-r--r--   1 owner group %8d %s %2d  20%02d file-%d.csv", i * 31L, MONTHS[i % 12], i % 28 + 1, i % 25, i)
+                    : String.format("%02d-%02d-%02d  %02d:%02dPM %12d file-%d.csv", i % 12 + 1, i % 28 + 1, i % 25, i % 12 + 1, i % 60, i * 31L, i);
+        }
+
+        long commonsNanos = 0;
+        long fastNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            FTPFileEntryParser commonsParser = new DefaultFTPFileEntryParserFactory().createFileEntryParser(systemType);
+            RemoteFileList commonsList = new RemoteFileList("/");
+            for (String line : lines) {
+                StreamingParserFactory.addEntry(commonsList, commonsParser.parseFTPEntry(line));
+            }
+            commonsNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            FastListEntryParser fastParser = new FastListEntryParser(systemType);
+            RemoteFileList fastList = new RemoteFileList("/");
+            for (String line : lines) {
+                fastParser.parse(line, fastList);
+            }
+            fastNanos += System.nanoTime() - start;
+
+            assertEquals(commonsList.size(), fastList.size());
+        }
+
+        System.out.printf("%s commons-net: %.0f lines/ms, fast: %.0f lines/ms%n", systemType,
+                ENTRIES * ROUNDS / (commonsNanos / 1e6), ENTRIES * ROUNDS / (fastNanos / 1e6));
+    }
+}
@@ -0,0 +1,123 @@
+package com.javaquery.ftp.parser;
+
+import com.javaquery.ftp.io.RemoteFileList;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.parser.DefaultFTPFileEntryParserFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every line must give the same result as commons-net, whether the fast path handles it or not, and the fast
+ * path must handle the lines it is expected to.
+ *
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class FastListEntryParserTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "true  | -rw-r--r--   1 owner group   1234 Nov  9 20:06 foobar.txt",
+            "true  | drwxr-xr-x   2 owner group   4096 Jan 15  2019 docs",
+            "true  | lrwxrwxrwx   1 owner group     11 Mar  1 10:00 link -> target.txt",
+            "true  | -rw-r--r--+  1 owner group   1234 Dec 31  2020 acl.txt",
+            "true  | -rw-r--r-- 1 owner group 1234 nov 9 20:06 lowercase.txt",
+            "true  | -rwsr-xr-T 1 1000 1000 0 Sep 30 2025 empty",
+            "true  | -rw-r--r--   1 owner group 12345678901 Jun  1  2020 big.iso",
+            "true  | -rw-r--r--   1 owner group   1234 Nov  9 20:06 name with spaces.txt",
+            "true  | -rw-r--r--   1 owner group   1234 Nov  9 20:06  leading space.txt",
+            "false | -rw-r--r--   1 owner group   1234 Nov  9 20:06 report 2020 final.txt",
+            "false | -rw-r--r--   1 owner group   1234 Nov  9  2020 report 1 Nov 9 2021 final.txt",
+            "false | -rw-r--r--   1 owner group   1234 Feb 29  2021 invalid.txt",
+            "false | -rw-r--r--   1 owner group   1234 Feb 29 25:61 invalid.txt",
+            "false | -rw-r--r--   1 owner group   1234 Mai  9 20:06 localized.txt",
+            "false | crw-rw-rw-   1 root root 1, 3 Nov  9 20:06 null",
+            "true  | drwxr-xr-x   1 owner group      0 Jan  1 00:00 .",
+            "false | -rw-r--r--   1 owner group   1234 Nov  9 20:06",
+            "true  | total 12",
+            "false | not a listing line"
+    })
+    void unixLine_sameAsCommons(boolean handled, String line) {
+        assertSameAsCommons("UNIX", line, handled);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "true  | 11-09-01  12:30PM       <DIR>          docs",
+            "true  | 11-09-01  01:05AM                 1234 file.txt",
+            "true  | 10-19-2026  18:30   1234 file 2.txt",
+            "false | 01-01-46  10:00AM  12 ambiguous.txt",
+            "false | 02-30-20  10:00AM  12 invalid.txt",
+            "true  | 11-09-01  12:30PM       <DIR>          .",
+            "true  | -rw-r--r--   1 owner group   1234 Nov  9 20:06 unix-on-windows.txt"
+    })
+    void windowsLine_sameAsCommons(boolean handled, String line) {
+        assertSameAsCommons("WINDOWS", line, handled);
+    }
+
+    @Test
+    void recentDates_sameAsCommons() {
+        // commons-net moves dates more than a day in the future to the previous year
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d HH:mm", Locale.ENGLISH);
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_MONTH, -2);
+        for (int i = 0; i < 5; i++) {
+            assertSameAsCommons("UNIX", "-rw-r--r-- 1 owner group 1 " + dateFormat.format(calendar.getTime()) + " recent.txt", true);
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    void standardLines_handled() {
+        RemoteFileList remoteFileList = new RemoteFileList("/data");
+        FastListEntryParser parser = new FastListEntryParser("UNIX Type: L8");
+        assertTrue(parser.parse("total 8", remoteFileList));
+        assertTrue(parser.parse("-rw-r--r--   1 owner group   1234 Nov  9  2020 foobar.txt", remoteFileList));
+        assertTrue(parser.parse("drwxr-xr-x   2 owner group   4096 Jan 15 10:00 docs", remoteFileList));
+        assertTrue(parser.parse("lrwxrwxrwx   1 owner group     11 Mar  1 10:00 link -> target.txt", remoteFileList));
+        assertFalse(parser.parse("11-09-01  12:30PM       <DIR>          windows", remoteFileList));
+
+        assertEquals(3, remoteFileList.size());
+        assertEquals("foobar.txt", remoteFileList.getName(0));
+        assertEquals(1234, remoteFileList.getSize(0));
+        assertTrue(remoteFileList.isDirectory(1));
+        assertEquals("link", remoteFileList.getName(2));
+        assertFalse(remoteFileList.isFile(2));
+
+        parser = new FastListEntryParser("Windows_NT");
+        assertTrue(parser.parse("11-09-01  12:30PM       <DIR>          windows", remoteFileList));
+        assertTrue(remoteFileList.isDirectory(3));
+    }
+
+    /**
+     * @param handled whether the fast path is expected to handle the line rather than leave it to commons-net
+     */
+    private static void assertSameAsCommons(String systemType, String line, boolean handled) {
+        FTPFile expected = new DefaultFTPFileEntryParserFactory().createFileEntryParser(systemType).parseFTPEntry(line);
+        RemoteFileList remoteFileList = new RemoteFileList("/");
+        assertEquals(handled, new FastListEntryParser(systemType).parse(line, remoteFileList), line);
+        if (!handled) {
+            // left to commons-net
+            assertEquals(0, remoteFileList.size());
+            return;
+        }
+        if (expected == null) {
+            // skipped by both
+            assertEquals(0, remoteFileList.size(), line);
+            return;
+        }
+        assertEquals(1, remoteFileList.size(), line);
+        assertEquals(expected.getName(), remoteFileList.getName(0), line);
+        assertEquals(expected.isFile(), remoteFileList.isFile(0), line);
+        assertEquals(expected.isDirectory(), remoteFileList.isDirectory(0), line);
+        assertEquals(expected.getSize(), remoteFileList.getSize(0), line);
+        assertEquals(expected.getTimestamp().getTimeInMillis(), remoteFileList.getLastModified(0), line);
+    }
+}
@@ -0,0 +1,193 @@
+package com.javaquery.ftp.watch;
+
+import com.javaquery.ftp.Credentials;
+import com.javaquery.ftp.FTPType;
+import com.javaquery.ftp.FileFilter;
+import com.javaquery.ftp.JFTPClient;
+import com.javaquery.ftp.io.RemoteFile;
+import com.javaquery.ftp.io.RemoteFileList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author javaquery
+ * @since 2026-10-19
+ */
+public class RemoteDirectoryWatcherTest {
+
+    private static final long WINDOW = 5000;
+
+    private FakeFtpServer fakeFtpServer;
+    private JFTPClient jftpClient;
+    private final List<RemoteFileEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/inbox"));
+
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/inbox"));
+        fileSystem.add(new DirectoryEntry("/inbox/archive"));
+        fileSystem.add(new FileEntry("/inbox/existing.csv", "a,b"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build());
+    }
+
+    private RemoteDirectoryWatcher watcher(boolean reportExisting) {
+        return RemoteDirectoryWatcher.builder()
+                .jftpClient(jftpClient)
+                .directoryPath("/inbox")
+                .listener(events::add)
+                .stabilityWindowMillis(WINDOW)
+                .minPollIntervalMillis(1000)
+                .maxPollIntervalMillis(8000)
+                .reportExisting(reportExisting)
+                .build();
+    }
+
+    @Test
+    void createdModifiedDeleted_success() {
+        RemoteDirectoryWatcher watcher = watcher(false);
+        watcher.poll(0);
+        assertTrue(events.isEmpty());
+
+        fakeFtpServer.getFileSystem().add(new FileEntry("/inbox/new.csv", "1"));
+        watcher.poll(1000);
+        assertTrue(events.isEmpty());
+
+        // still being written: growing resets the stability window
+        replace("/inbox/new.csv", "1,2");
+        watcher.poll(5000);
+        assertTrue(events.isEmpty());
+        watcher.poll(9000);
+        assertTrue(events.isEmpty());
+        watcher.poll(10000);
+        assertEvent(RemoteFileEventType.CREATED, "/inbox/new.csv", 3);
+
+        replace("/inbox/existing.csv", "a,b,c");
+        watcher.poll(11000);
+        watcher.poll(16000);
+        assertEvent(RemoteFileEventType.MODIFIED, "/inbox/existing.csv", 5);
+
+        fakeFtpServer.getFileSystem().delete("/inbox/new.csv");
+        watcher.poll(17000);
+        assertEvent(RemoteFileEventType.DELETED, "/inbox/new.csv", 3);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void deletedBeforeStable_noEvent() {
+        RemoteDirectoryWatcher watcher = watcher(false);
+        watcher.poll(0);
+        fakeFtpServer.getFileSystem().add(new FileEntry("/inbox/temp.part", "x"));
+        watcher.poll(1000);
+        fakeFtpServer.getFileSystem().delete("/inbox/temp.part");
+        watcher.poll(2000);
+        watcher.poll(10000);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void reportExisting_success() {
+        RemoteDirectoryWatcher watcher = watcher(true);
+        watcher.poll(0);
+        assertTrue(events.isEmpty());
+        watcher.poll(WINDOW);
+        assertEvent(RemoteFileEventType.CREATED, "/inbox/existing.csv", 3);
+    }
+
+    @Test
+    void adaptivePollInterval_success() {
+        RemoteDirectoryWatcher watcher = watcher(false);
+        assertEquals(1000, watcher.poll(0));
+        assertEquals(2000, watcher.poll(1000));
+        assertEquals(4000, watcher.poll(3000));
+        assertEquals(8000, watcher.poll(7000));
+        assertEquals(8000, watcher.poll(15000));
+
+        fakeFtpServer.getFileSystem().add(new FileEntry("/inbox/new.csv", "1"));
+        assertEquals(1000, watcher.poll(23000));
+        // nothing changed, but the new file becomes stable within the window
+        assertEquals(2000, watcher.poll(24000));
+        assertEquals(4000, watcher.poll(26000));
+        assertEquals(5000, watcher.poll(27000));
+        assertTrue(events.isEmpty());
+        assertEquals(8000, watcher.poll(28000));
+        assertEvent(RemoteFileEventType.CREATED, "/inbox/new.csv", 1);
+    }
+
+    @Test
+    void backgroundPollingSurvivesFailure_success() throws InterruptedException {
+        AtomicInteger listings = new AtomicInteger();
+        JFTPClient failingClient = new JFTPClient(FTPType.FTP) {
+            @Override
+            public RemoteFileList listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) {
+                if (listings.incrementAndGet() == 1) {
+                    throw new IllegalStateException("unexpected");
+                }
+                return jftpClient.listFiles(directoryPath, fileFilter);
+            }
+        };
+        RemoteDirectoryWatcher watcher = RemoteDirectoryWatcher.builder()
+                .jftpClient(failingClient)
+                .directoryPath("/inbox")
+                .listener(events::add)
+                .minPollIntervalMillis(10)
+                .maxPollIntervalMillis(20)
+                .reportExisting(true)
+                .stabilityWindowMillis(0)
+                .build();
+        watcher.start();
+        assertThrows(IllegalStateException.class, watcher::start);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (listings.get() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        watcher.close();
+        // polling went on after the first listing failed
+        assertTrue(listings.get() >= 3);
+    }
+
+    private void replace(String path, String content) {
+        fakeFtpServer.getFileSystem().delete(path);
+        fakeFtpServer.getFileSystem().add(new FileEntry(path, content));
+    }
+
+    private void assertEvent(RemoteFileEventType type, String path, long size) {
+        assertFalse(events.isEmpty());
+        RemoteFileEvent event = events.remove(0);
+        assertEquals(type, event.getType());
+        assertEquals(path, event.getPath());
+        assertEquals(size, event.getSize());
+    }
+
+    @AfterEach
+    public void teardown() {
+        jftpClient.disconnect();
+        fakeFtpServer.stop();
+    }
+}